@@ -0,0 +1,149 @@
+/*
+* Copyright 2016 the original author or authors.
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package io.vertx.amqpbridge.benchmarks;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import io.vertx.amqpbridge.AmqpConstants;
+import io.vertx.amqpbridge.impl.AmqpEncodedMessage;
+import io.vertx.amqpbridge.impl.MessageTranslatorImpl;
+import org.apache.qpid.proton.message.Message;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Measures conversion between the JsonObject and AMQP message representations, for each body type over a range of
+ * payload sizes and nesting depths, with and without the annotation and application property sections.
+ *
+ * Run with the GC profiler to report the allocation rate per operation, e.g. using
+ * {@code java -jar target/benchmarks.jar MessageTranslatorBenchmark -prof gc}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MessageTranslatorBenchmark {
+
+  @Param({ AmqpConstants.BODY_TYPE_VALUE, AmqpConstants.BODY_TYPE_DATA, AmqpConstants.BODY_TYPE_SEQUENCE })
+  public String bodyType;
+
+  @Param({ "100", "10240", "1048576" })
+  public int payloadSize;
+
+  /**
+   * The number of maps the payload of value and sequence bodies is nested within. Data bodies are not nested.
+   */
+  @Param({ "0", "8" })
+  public int depth;
+
+  @Param({ "false", "true" })
+  public boolean sections;
+
+  private MessageTranslatorImpl translator;
+  private JsonObject jsonObject;
+  private Message protonMessage;
+
+  @Setup
+  public void setUp() {
+    translator = new MessageTranslatorImpl();
+
+    jsonObject = new JsonObject();
+    jsonObject.put(AmqpConstants.BODY_TYPE, bodyType);
+
+    if (AmqpConstants.BODY_TYPE_DATA.equals(bodyType)) {
+      byte[] payload = new byte[payloadSize];
+      Arrays.fill(payload, (byte) 'x');
+      jsonObject.put(AmqpConstants.BODY, payload);
+    } else {
+      char[] payload = new char[payloadSize];
+      Arrays.fill(payload, 'x');
+
+      JsonObject nested = new JsonObject().put("payload", new String(payload));
+      for (int i = 0; i < depth; i++) {
+        nested = new JsonObject().put("level", i).put("nested", nested);
+      }
+
+      if (AmqpConstants.BODY_TYPE_SEQUENCE.equals(bodyType)) {
+        jsonObject.put(AmqpConstants.BODY, new JsonArray().add(nested).add("element").add(123));
+      } else {
+        jsonObject.put(AmqpConstants.BODY, nested);
+      }
+    }
+
+    JsonObject jsonProps = new JsonObject();
+    jsonProps.put(AmqpConstants.PROPERTIES_TO, "myAddress");
+    jsonProps.put(AmqpConstants.PROPERTIES_SUBJECT, "mySubject");
+    jsonProps.put(AmqpConstants.PROPERTIES_MESSAGE_ID, "myMessageId");
+    jsonObject.put(AmqpConstants.PROPERTIES, jsonProps);
+
+    if (sections) {
+      JsonObject jsonAnnotations = new JsonObject();
+      jsonAnnotations.put("x-opt-jms-msg-type", 5);
+      jsonAnnotations.put("x-opt-jms-dest", 0);
+      jsonAnnotations.put("x-opt-origin", "myOrigin");
+      jsonObject.put(AmqpConstants.MESSAGE_ANNOTATIONS, jsonAnnotations);
+
+      JsonObject jsonAppProps = new JsonObject();
+      for (int i = 0; i < 8; i++) {
+        jsonAppProps.put("property" + i, i % 2 == 0 ? "value" + i : i);
+      }
+      jsonObject.put(AmqpConstants.APPLICATION_PROPERTIES, jsonAppProps);
+    }
+
+    protonMessage = translator.convertToAmqpMessage(jsonObject);
+  }
+
+  @Benchmark
+  public JsonObject convertToJsonObject() {
+    return translator.convertToJsonObject(protonMessage);
+  }
+
+  @Benchmark
+  public Message convertToAmqpMessage() {
+    return translator.convertToAmqpMessage(jsonObject);
+  }
+
+  @Benchmark
+  public AmqpEncodedMessage convertToEncodedAmqpMessage() {
+    return translator.convertToEncodedAmqpMessage(jsonObject, null, null, null);
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder()
+        .include(MessageTranslatorBenchmark.class.getSimpleName())
+        .addProfiler(GCProfiler.class)
+        .build()).run();
+  }
+}
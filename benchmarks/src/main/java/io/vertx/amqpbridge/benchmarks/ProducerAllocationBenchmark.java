@@ -0,0 +1,152 @@
+/*
+* Copyright 2016 the original author or authors.
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package io.vertx.amqpbridge.benchmarks;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import io.vertx.amqpbridge.AmqpBridge;
+import io.vertx.amqpbridge.AmqpConstants;
+import io.vertx.amqpbridge.AmqpProducerOptions;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import io.vertx.core.Context;
+import io.vertx.core.Vertx;
+import io.vertx.core.eventbus.MessageProducer;
+import io.vertx.core.json.JsonObject;
+import io.vertx.proton.ProtonQoS;
+import io.vertx.proton.ProtonServer;
+
+/**
+ * Measures sends made on the bridge context thread, without a completion handler, against an in-process AMQP server
+ * which accepts everything sent to it. Each invocation sends a run of messages from one task on the context, so that
+ * the cost of getting onto the context is spread across them.
+ *
+ * Run with the GC profiler to report the allocation per send, e.g. using
+ * {@code java -jar target/benchmarks.jar ProducerAllocationBenchmark -prof gc}. Beyond the translated message itself,
+ * and the delivery created for it by the sender, this should approach zero.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProducerAllocationBenchmark {
+
+  private static final int SERVER_CREDIT = 10000;
+  private static final int SENDS_PER_INVOCATION = 1000;
+
+  @Param({ "AT_LEAST_ONCE", "AT_MOST_ONCE" })
+  public ProtonQoS qos;
+
+  private Vertx vertx;
+  private ProtonServer server;
+  private AmqpBridge bridge;
+  private Context bridgeContext;
+  private MessageProducer<JsonObject> producer;
+  private JsonObject message;
+
+  @Setup
+  public void setUp() throws Exception {
+    vertx = Vertx.vertx();
+
+    server = ProtonServer.create(vertx);
+    server.connectHandler(connection -> {
+      connection.openHandler(res -> connection.open());
+      connection.sessionOpenHandler(session -> session.open());
+      connection.receiverOpenHandler(receiver -> {
+        receiver.setTarget(receiver.getRemoteTarget());
+        receiver.setPrefetch(SERVER_CREDIT);
+        receiver.handler((delivery, msg) -> {
+          // Auto-accepted, the content is not needed.
+        });
+        receiver.open();
+      });
+    });
+
+    CompletableFuture<ProtonServer> listening = new CompletableFuture<>();
+    server.listen(0, res -> {
+      if (res.succeeded()) {
+        listening.complete(res.result());
+      } else {
+        listening.completeExceptionally(res.cause());
+      }
+    });
+    listening.get(10, TimeUnit.SECONDS);
+
+    CompletableFuture<MessageProducer<JsonObject>> created = new CompletableFuture<>();
+    bridge = AmqpBridge.create(vertx);
+    bridge.start("localhost", server.actualPort(), res -> {
+      if (res.succeeded()) {
+        bridgeContext = Vertx.currentContext();
+        created.complete(bridge.createProducer("benchmark", new AmqpProducerOptions().setQos(qos)));
+      } else {
+        created.completeExceptionally(res.cause());
+      }
+    });
+    producer = created.get(10, TimeUnit.SECONDS);
+
+    message = new JsonObject().put(AmqpConstants.BODY, "myMessageContent");
+  }
+
+  @TearDown
+  public void tearDown() throws Exception {
+    CompletableFuture<Void> closed = new CompletableFuture<>();
+    bridge.close(res -> closed.complete(null));
+    closed.get(10, TimeUnit.SECONDS);
+
+    server.close();
+    vertx.close();
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(SENDS_PER_INVOCATION)
+  public void send() throws Exception {
+    CompletableFuture<Void> sent = new CompletableFuture<>();
+    bridgeContext.runOnContext(v -> {
+      for (int i = 0; i < SENDS_PER_INVOCATION; i++) {
+        producer.send(message);
+      }
+
+      sent.complete(null);
+    });
+    sent.get(10, TimeUnit.SECONDS);
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder()
+        .include(ProducerAllocationBenchmark.class.getSimpleName())
+        .addProfiler(GCProfiler.class)
+        .build()).run();
+  }
+}
@@ -0,0 +1,142 @@
+/*
+* Copyright 2016 the original author or authors.
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package io.vertx.amqpbridge.benchmarks;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import io.vertx.amqpbridge.AmqpBridge;
+import io.vertx.amqpbridge.AmqpConstants;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import io.vertx.core.Vertx;
+import io.vertx.core.eventbus.MessageProducer;
+import io.vertx.core.json.JsonObject;
+import io.vertx.proton.ProtonServer;
+
+/**
+ * Measures a producer shared by several threads, each checking for credit and sending when there is some, against an
+ * in-process AMQP server which accepts everything sent to it. This exercises the credit tracking and the queueing of
+ * sends for the bridge context under contention.
+ *
+ * Vary the number of threads with the {@code -t} option, e.g. {@code java -jar target/benchmarks.jar
+ * ProducerContentionBenchmark -t 8}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProducerContentionBenchmark {
+
+  private static final int SERVER_CREDIT = 10000;
+
+  private Vertx vertx;
+  private ProtonServer server;
+  private AmqpBridge bridge;
+  private MessageProducer<JsonObject> producer;
+  private JsonObject message;
+
+  @Setup
+  public void setUp() throws Exception {
+    vertx = Vertx.vertx();
+
+    server = ProtonServer.create(vertx);
+    server.connectHandler(connection -> {
+      connection.openHandler(res -> connection.open());
+      connection.sessionOpenHandler(session -> session.open());
+      connection.receiverOpenHandler(receiver -> {
+        receiver.setTarget(receiver.getRemoteTarget());
+        receiver.setPrefetch(SERVER_CREDIT);
+        receiver.handler((delivery, msg) -> {
+          // Auto-accepted, the content is not needed.
+        });
+        receiver.open();
+      });
+    });
+
+    CompletableFuture<ProtonServer> listening = new CompletableFuture<>();
+    server.listen(0, res -> {
+      if (res.succeeded()) {
+        listening.complete(res.result());
+      } else {
+        listening.completeExceptionally(res.cause());
+      }
+    });
+    listening.get(10, TimeUnit.SECONDS);
+
+    CompletableFuture<MessageProducer<JsonObject>> created = new CompletableFuture<>();
+    bridge = AmqpBridge.create(vertx);
+    bridge.start("localhost", server.actualPort(), res -> {
+      if (res.succeeded()) {
+        created.complete(bridge.createProducer("benchmark"));
+      } else {
+        created.completeExceptionally(res.cause());
+      }
+    });
+    producer = created.get(10, TimeUnit.SECONDS);
+
+    message = new JsonObject().put(AmqpConstants.BODY, "myMessageContent");
+  }
+
+  @TearDown
+  public void tearDown() throws Exception {
+    CompletableFuture<Void> closed = new CompletableFuture<>();
+    bridge.close(res -> closed.complete(null));
+    closed.get(10, TimeUnit.SECONDS);
+
+    server.close();
+    vertx.close();
+  }
+
+  @Benchmark
+  @Threads(4)
+  public boolean sendWhenCredit() {
+    if (producer.writeQueueFull()) {
+      return false;
+    }
+
+    producer.send(message);
+    return true;
+  }
+
+  @Benchmark
+  @Threads(4)
+  public boolean writeQueueFull() {
+    return producer.writeQueueFull();
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder()
+        .include(ProducerContentionBenchmark.class.getSimpleName())
+        .build()).run();
+  }
+}
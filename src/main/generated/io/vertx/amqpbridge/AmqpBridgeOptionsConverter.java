@@ -40,6 +40,11 @@ public class AmqpBridgeOptionsConverter {
             });
           }
           break;
+        case "dataBodyAsBuffer":
+          if (member.getValue() instanceof Boolean) {
+            obj.setDataBodyAsBuffer((Boolean)member.getValue());
+          }
+          break;
         case "enabledCipherSuites":
           if (member.getValue() instanceof JsonArray) {
             ((Iterable<Object>)member.getValue()).forEach( item -> {
@@ -86,6 +91,11 @@ public class AmqpBridgeOptionsConverter {
             obj.setIdleTimeoutUnit(java.util.concurrent.TimeUnit.valueOf((String)member.getValue()));
           }
           break;
+        case "internCacheSize":
+          if (member.getValue() instanceof Number) {
+            obj.setInternCacheSize(((Number)member.getValue()).intValue());
+          }
+          break;
         case "jdkSslEngineOptions":
           if (member.getValue() instanceof JsonObject) {
             obj.setJdkSslEngineOptions(new io.vertx.core.net.JdkSSLEngineOptions((JsonObject)member.getValue()));
@@ -111,6 +121,16 @@ public class AmqpBridgeOptionsConverter {
             obj.setMaxFrameSize(((Number)member.getValue()).intValue());
           }
           break;
+        case "maxNestedElements":
+          if (member.getValue() instanceof Number) {
+            obj.setMaxNestedElements(((Number)member.getValue()).intValue());
+          }
+          break;
+        case "maxNestingDepth":
+          if (member.getValue() instanceof Number) {
+            obj.setMaxNestingDepth(((Number)member.getValue()).intValue());
+          }
+          break;
         case "metricsName":
           if (member.getValue() instanceof String) {
             obj.setMetricsName((String)member.getValue());
@@ -246,6 +266,11 @@ public class AmqpBridgeOptionsConverter {
             obj.setTrustStoreOptions(new io.vertx.core.net.JksOptions((JsonObject)member.getValue()));
           }
           break;
+        case "typedIds":
+          if (member.getValue() instanceof Boolean) {
+            obj.setTypedIds((Boolean)member.getValue());
+          }
+          break;
         case "useAlpn":
           if (member.getValue() instanceof Boolean) {
             obj.setUseAlpn((Boolean)member.getValue());
@@ -289,6 +314,7 @@ public class AmqpBridgeOptionsConverter {
       obj.getCrlValues().forEach(item -> array.add(java.util.Base64.getEncoder().encodeToString(item.getBytes())));
       json.put("crlValues", array);
     }
+    json.put("dataBodyAsBuffer", obj.isDataBodyAsBuffer());
     if (obj.getEnabledCipherSuites() != null) {
       JsonArray array = new JsonArray();
       obj.getEnabledCipherSuites().forEach(item -> array.add(item));
@@ -312,6 +338,7 @@ public class AmqpBridgeOptionsConverter {
     if (obj.getIdleTimeoutUnit() != null) {
       json.put("idleTimeoutUnit", obj.getIdleTimeoutUnit().name());
     }
+    json.put("internCacheSize", obj.getInternCacheSize());
     if (obj.getJdkSslEngineOptions() != null) {
       json.put("jdkSslEngineOptions", obj.getJdkSslEngineOptions().toJson());
     }
@@ -323,6 +350,8 @@ public class AmqpBridgeOptionsConverter {
     }
     json.put("logActivity", obj.getLogActivity());
     json.put("maxFrameSize", obj.getMaxFrameSize());
+    json.put("maxNestedElements", obj.getMaxNestedElements());
+    json.put("maxNestingDepth", obj.getMaxNestingDepth());
     if (obj.getMetricsName() != null) {
       json.put("metricsName", obj.getMetricsName());
     }
@@ -370,6 +399,7 @@ public class AmqpBridgeOptionsConverter {
     if (obj.getTrustStoreOptions() != null) {
       json.put("trustStoreOptions", obj.getTrustStoreOptions().toJson());
     }
+    json.put("typedIds", obj.isTypedIds());
     json.put("useAlpn", obj.isUseAlpn());
     json.put("usePooledBuffers", obj.isUsePooledBuffers());
     if (obj.getVhost() != null) {
@@ -0,0 +1,68 @@
+package io.vertx.amqpbridge;
+
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.json.JsonArray;
+import java.time.Instant;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Converter for {@link io.vertx.amqpbridge.AmqpConsumerOptions}.
+ * NOTE: This class has been automatically generated from the {@link io.vertx.amqpbridge.AmqpConsumerOptions} original class using Vert.x codegen.
+ */
+public class AmqpConsumerOptionsConverter {
+
+  public static void fromJson(Iterable<java.util.Map.Entry<String, Object>> json, AmqpConsumerOptions obj) {
+    for (java.util.Map.Entry<String, Object> member : json) {
+      switch (member.getKey()) {
+        case "decompressDataBodies":
+          if (member.getValue() instanceof Boolean) {
+            obj.setDecompressDataBodies((Boolean)member.getValue());
+          }
+          break;
+        case "includedSections":
+          if (member.getValue() instanceof JsonArray) {
+            java.util.LinkedHashSet<java.lang.String> list =  new java.util.LinkedHashSet<>();
+            ((Iterable<Object>)member.getValue()).forEach( item -> {
+              if (item instanceof String)
+                list.add((String)item);
+            });
+            obj.setIncludedSections(list);
+          }
+          break;
+        case "maxDecompressedSize":
+          if (member.getValue() instanceof Number) {
+            obj.setMaxDecompressedSize(((Number)member.getValue()).longValue());
+          }
+          break;
+        case "maxMessageSize":
+          if (member.getValue() instanceof Number) {
+            obj.setMaxMessageSize(((Number)member.getValue()).longValue());
+          }
+          break;
+        case "selector":
+          if (member.getValue() instanceof String) {
+            obj.setSelector((String)member.getValue());
+          }
+          break;
+      }
+    }
+  }
+
+  public static void toJson(AmqpConsumerOptions obj, JsonObject json) {
+    toJson(obj, json.getMap());
+  }
+
+  public static void toJson(AmqpConsumerOptions obj, java.util.Map<String, Object> json) {
+    json.put("decompressDataBodies", obj.isDecompressDataBodies());
+    if (obj.getIncludedSections() != null) {
+      JsonArray array = new JsonArray();
+      obj.getIncludedSections().forEach(item -> array.add(item));
+      json.put("includedSections", array);
+    }
+    json.put("maxDecompressedSize", obj.getMaxDecompressedSize());
+    json.put("maxMessageSize", obj.getMaxMessageSize());
+    if (obj.getSelector() != null) {
+      json.put("selector", obj.getSelector());
+    }
+  }
+}
@@ -0,0 +1,91 @@
+package io.vertx.amqpbridge;
+
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.json.JsonArray;
+import java.time.Instant;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Converter for {@link io.vertx.amqpbridge.AmqpProducerOptions}.
+ * NOTE: This class has been automatically generated from the {@link io.vertx.amqpbridge.AmqpProducerOptions} original class using Vert.x codegen.
+ */
+public class AmqpProducerOptionsConverter {
+
+  public static void fromJson(Iterable<java.util.Map.Entry<String, Object>> json, AmqpProducerOptions obj) {
+    for (java.util.Map.Entry<String, Object> member : json) {
+      switch (member.getKey()) {
+        case "compression":
+          if (member.getValue() instanceof String) {
+            obj.setCompression((String)member.getValue());
+          }
+          break;
+        case "compressionThreshold":
+          if (member.getValue() instanceof Number) {
+            obj.setCompressionThreshold(((Number)member.getValue()).intValue());
+          }
+          break;
+        case "linkDispatchPolicy":
+          if (member.getValue() instanceof String) {
+            obj.setLinkDispatchPolicy(io.vertx.amqpbridge.LinkDispatchPolicy.valueOf((String)member.getValue()));
+          }
+          break;
+        case "links":
+          if (member.getValue() instanceof Number) {
+            obj.setLinks(((Number)member.getValue()).intValue());
+          }
+          break;
+        case "maxInFlight":
+          if (member.getValue() instanceof Number) {
+            obj.setMaxInFlight(((Number)member.getValue()).intValue());
+          }
+          break;
+        case "qos":
+          if (member.getValue() instanceof String) {
+            obj.setQos(io.vertx.proton.ProtonQoS.valueOf((String)member.getValue()));
+          }
+          break;
+        case "template":
+          if (member.getValue() instanceof JsonObject) {
+            obj.setTemplate(((JsonObject)member.getValue()).copy());
+          }
+          break;
+        case "writeQueueMaxBytes":
+          if (member.getValue() instanceof Number) {
+            obj.setWriteQueueMaxBytes(((Number)member.getValue()).longValue());
+          }
+          break;
+        case "writeQueueOverflowPolicy":
+          if (member.getValue() instanceof String) {
+            obj.setWriteQueueOverflowPolicy(io.vertx.amqpbridge.WriteQueueOverflowPolicy.valueOf((String)member.getValue()));
+          }
+          break;
+      }
+    }
+  }
+
+  public static void toJson(AmqpProducerOptions obj, JsonObject json) {
+    toJson(obj, json.getMap());
+  }
+
+  public static void toJson(AmqpProducerOptions obj, java.util.Map<String, Object> json) {
+    if (obj.getCompression() != null) {
+      json.put("compression", obj.getCompression());
+    }
+    json.put("compressionThreshold", obj.getCompressionThreshold());
+    if (obj.getLinkDispatchPolicy() != null) {
+      json.put("linkDispatchPolicy", obj.getLinkDispatchPolicy().name());
+    }
+    json.put("links", obj.getLinks());
+    json.put("maxInFlight", obj.getMaxInFlight());
+    if (obj.getQos() != null) {
+      json.put("qos", obj.getQos().name());
+    }
+    if (obj.getTemplate() != null) {
+      json.put("template", obj.getTemplate());
+    }
+    json.put("writeQueueMaxBytes", obj.getWriteQueueMaxBytes());
+    if (obj.getWriteQueueOverflowPolicy() != null) {
+      json.put("writeQueueOverflowPolicy", obj.getWriteQueueOverflowPolicy().name());
+    }
+  }
+}
@@ -15,14 +15,28 @@
 */
 package examples;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import io.vertx.amqpbridge.AmqpBridge;
 import io.vertx.amqpbridge.AmqpBridgeOptions;
+import io.vertx.amqpbridge.AmqpConsumerOptions;
+import io.vertx.amqpbridge.AmqpMessageRouter;
+import io.vertx.amqpbridge.AmqpProducer;
+import io.vertx.amqpbridge.AmqpProducerOptions;
+import io.vertx.amqpbridge.LinkDispatchPolicy;
+import io.vertx.amqpbridge.MessageTranslator;
+import io.vertx.amqpbridge.WriteQueueOverflowPolicy;
 import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
 import io.vertx.core.eventbus.MessageConsumer;
 import io.vertx.core.eventbus.MessageProducer;
 import io.vertx.core.json.JsonObject;
 import io.vertx.core.net.PfxOptions;
 import io.vertx.docgen.Source;
+import io.vertx.proton.ProtonQoS;
+import org.apache.qpid.proton.amqp.messaging.AmqpValue;
+import org.apache.qpid.proton.message.Message;
 
 @Source
 public class VertxAmqpBridgeExamples {
@@ -181,4 +195,250 @@ public class VertxAmqpBridgeExamples {
       }
     });
   }
+
+  /*
+   * Basic example of sending and receiving Data bodies as Buffers.
+   */
+  public void example12(Vertx vertx) {
+    AmqpBridgeOptions bridgeOptions = new AmqpBridgeOptions().setDataBodyAsBuffer(true);
+    AmqpBridge bridge = AmqpBridge.create(vertx, bridgeOptions);
+    bridge.start("localhost", 5672, res -> {
+      MessageProducer<JsonObject> producer = bridge.createProducer("myAmqpAddress");
+
+      JsonObject amqpMsgPayload = new JsonObject();
+      amqpMsgPayload.put("body_type", "data");
+      amqpMsgPayload.getMap().put("body", Buffer.buffer("myBinaryContent"));
+
+      producer.send(amqpMsgPayload);
+
+      MessageConsumer<JsonObject> consumer = bridge.createConsumer("myAmqpAddress");
+      consumer.handler(vertxMsg -> {
+        Buffer amqpBody = (Buffer) vertxMsg.body().getValue("body");
+
+        System.out.println("Received a message with " + amqpBody.length() + " bytes of body content");
+      });
+    });
+  }
+
+  /*
+   * Basic example of sending messages using a producer template.
+   */
+  public void example13(Vertx vertx) {
+    AmqpBridge bridge = AmqpBridge.create(vertx);
+    bridge.start("localhost", 5672, res -> {
+      JsonObject template = new JsonObject();
+      template.put("header", new JsonObject().put("durable", true));
+      template.put("properties", new JsonObject().put("content_type", "application/json"));
+      template.put("application_properties", new JsonObject().put("source", "sensor-1"));
+
+      AmqpProducerOptions producerOptions = new AmqpProducerOptions().setTemplate(template);
+      MessageProducer<JsonObject> producer = bridge.createProducer("myAmqpAddress", producerOptions);
+
+      JsonObject amqpMsgPayload = new JsonObject();
+      amqpMsgPayload.put("body", new JsonObject().put("temperature", 21.5));
+
+      producer.send(amqpMsgPayload);
+    });
+  }
+
+  /*
+   * Example of using a message translator to send and receive an application type directly.
+   */
+  public void example14(Vertx vertx) {
+    MessageTranslator<String> translator = new MessageTranslator<String>() {
+      @Override
+      public String convertToBody(Message protonMessage) {
+        return (String) ((AmqpValue) protonMessage.getBody()).getValue();
+      }
+
+      @Override
+      public Message convertToAmqpMessage(String body) {
+        Message protonMessage = Message.Factory.create();
+        protonMessage.setBody(new AmqpValue(body));
+        return protonMessage;
+      }
+    };
+
+    AmqpBridgeOptions bridgeOptions = new AmqpBridgeOptions();
+    bridgeOptions.addAddressMessageTranslator("myAmqpAddress", translator);
+
+    AmqpBridge bridge = AmqpBridge.create(vertx, bridgeOptions);
+    bridge.start("localhost", 5672, res -> {
+      MessageConsumer<String> consumer = bridge.createConsumer("myAmqpAddress");
+      consumer.handler(vertxMsg -> {
+        System.out.println("Received a message with body: " + vertxMsg.body());
+      });
+
+      MessageProducer<String> producer = bridge.createProducer("myAmqpAddress");
+      producer.send("myStringContent");
+    });
+  }
+
+  /*
+   * Example of creating a consumer which only translates the application properties of messages.
+   */
+  public void example15(Vertx vertx) {
+    AmqpBridge bridge = AmqpBridge.create(vertx);
+    bridge.start("localhost", 5672, res -> {
+      AmqpConsumerOptions consumerOptions = new AmqpConsumerOptions();
+      consumerOptions.addIncludedSection("application_properties");
+
+      MessageConsumer<JsonObject> consumer = bridge.createConsumer("myAmqpAddress", consumerOptions);
+      consumer.handler(vertxMsg -> {
+        JsonObject applicationProperties = vertxMsg.body().getJsonObject("application_properties");
+        System.out.println("Received a message with application properties: " + applicationProperties);
+      });
+    });
+  }
+
+  /*
+   * Example of forwarding messages from an address on one server to an address on another.
+   */
+  public void example16(AmqpBridge sourceBridge, MessageProducer<JsonObject> producer) {
+    // The producer was created by a bridge connected to the target server, and this is running on the context thread
+    // of the started source bridge.
+    JsonObject annotations = new JsonObject().put("x-opt-forwarded-by", "myForwarder");
+    MessageConsumer<JsonObject> forwarder = sourceBridge.createForwarder("mySourceAddress", producer, annotations);
+  }
+
+  /*
+   * Example of compressing the Data bodies of sent messages, and decompressing those of received messages.
+   */
+  public void example17(Vertx vertx) {
+    AmqpBridge bridge = AmqpBridge.create(vertx);
+    bridge.start("localhost", 5672, res -> {
+      MessageConsumer<JsonObject> consumer = bridge.createConsumer("myAmqpAddress");
+      consumer.handler(vertxMsg -> {
+        byte[] content = vertxMsg.body().getBinary("body");
+        System.out.println("Received a message with " + content.length + " bytes of content");
+      });
+
+      AmqpProducerOptions producerOptions = new AmqpProducerOptions().setCompression("gzip");
+      MessageProducer<JsonObject> producer = bridge.createProducer("myAmqpAddress", producerOptions);
+
+      JsonObject amqpMsgPayload = new JsonObject();
+      amqpMsgPayload.put("body_type", "data");
+      amqpMsgPayload.put("body", new JsonObject().put("temperature", 21.5).encode().getBytes());
+
+      producer.send(amqpMsgPayload);
+    });
+  }
+
+  /*
+   * Example of creating a consumer which only receives the messages matching a selector.
+   */
+  public void example18(Vertx vertx) {
+    AmqpBridge bridge = AmqpBridge.create(vertx);
+    bridge.start("localhost", 5672, res -> {
+      AmqpConsumerOptions consumerOptions = new AmqpConsumerOptions().setSelector("color = 'red'");
+
+      MessageConsumer<JsonObject> consumer = bridge.createConsumer("myAmqpAddress", consumerOptions);
+      consumer.handler(vertxMsg -> {
+        System.out.println("Received a red message with body: " + vertxMsg.body().getValue("body"));
+      });
+    });
+  }
+
+  /*
+   * Example of routing received messages to different handlers by their subject.
+   */
+  public void example19(Vertx vertx) {
+    AmqpBridge bridge = AmqpBridge.create(vertx);
+    bridge.start("localhost", 5672, res -> {
+      AmqpMessageRouter<JsonObject> router = AmqpMessageRouter.bySubject();
+      router.route("order", vertxMsg -> {
+        System.out.println("Received an order with body: " + vertxMsg.body().getValue("body"));
+      });
+      router.route("cancellation", vertxMsg -> {
+        System.out.println("Received a cancellation with body: " + vertxMsg.body().getValue("body"));
+      });
+      router.otherwise(vertxMsg -> {
+        System.out.println("Received an unexpected message");
+      });
+
+      MessageConsumer<JsonObject> consumer = bridge.createConsumer("myAmqpAddress");
+      consumer.handler(router);
+    });
+  }
+
+  /*
+   * Example of sending a batch of messages, and being notified once they have all been accepted.
+   */
+  public void example20(Vertx vertx) {
+    AmqpBridge bridge = AmqpBridge.create(vertx);
+    bridge.start("localhost", 5672, res -> {
+      AmqpProducer<JsonObject> producer = AmqpProducer.of(bridge.createProducer("myAmqpAddress"));
+
+      List<JsonObject> batch = new ArrayList<>();
+      for (int i = 0; i < 100; i++) {
+        batch.add(new JsonObject().put("body", "myMessageContent-" + i));
+      }
+
+      producer.writeBatch(batch, batchRes -> {
+        if (batchRes.succeeded()) {
+          System.out.println("All messages of the batch were accepted");
+        } else {
+          System.out.println("A message of the batch was not accepted: " + batchRes.cause());
+        }
+      });
+    });
+  }
+
+  public void example21(Vertx vertx) {
+    AmqpBridge bridge = AmqpBridge.create(vertx);
+    bridge.start("localhost", 5672, res -> {
+      AmqpProducerOptions options = new AmqpProducerOptions().setQos(ProtonQoS.AT_MOST_ONCE);
+      MessageProducer<JsonObject> producer = bridge.createProducer("myAmqpAddress", options);
+
+      for (int i = 0; i < 100; i++) {
+        producer.send(new JsonObject().put("body", "myMessageContent-" + i));
+      }
+    });
+  }
+
+  public void example22(Vertx vertx) {
+    AmqpBridge bridge = AmqpBridge.create(vertx);
+    bridge.start("localhost", 5672, res -> {
+      AmqpProducerOptions options = new AmqpProducerOptions().setMaxInFlight(100);
+      AmqpProducer<JsonObject> producer = AmqpProducer.of(bridge.createProducer("myAmqpAddress", options));
+
+      for (int i = 0; i < 1000; i++) {
+        producer.sendWithAck(new JsonObject().put("body", "myMessageContent-" + i)).onComplete(ack -> {
+          if (ack.failed()) {
+            System.out.println("Message was not accepted: " + ack.cause());
+          }
+        });
+      }
+    });
+  }
+
+  public void example23(Vertx vertx) {
+    AmqpBridge bridge = AmqpBridge.create(vertx);
+    bridge.start("localhost", 5672, res -> {
+      AmqpProducerOptions options = new AmqpProducerOptions()
+          .setWriteQueueMaxBytes(10 * 1024 * 1024)
+          .setWriteQueueOverflowPolicy(WriteQueueOverflowPolicy.DROP_OLDEST);
+
+      MessageProducer<JsonObject> producer = bridge.createProducer("myAmqpAddress", options);
+      producer.setWriteQueueMaxSize(1000);
+
+      producer.write(new JsonObject().put("body", "myMessageContent"), writeRes -> {
+        if (writeRes.failed()) {
+          System.out.println("Message was not sent: " + writeRes.cause());
+        }
+      });
+    });
+  }
+
+  public void example24(Vertx vertx) {
+    AmqpBridge bridge = AmqpBridge.create(vertx);
+    bridge.start("localhost", 5672, res -> {
+      AmqpProducerOptions options = new AmqpProducerOptions()
+          .setLinks(4)
+          .setLinkDispatchPolicy(LinkDispatchPolicy.MOST_CREDIT);
+
+      MessageProducer<JsonObject> producer = bridge.createProducer("myAmqpAddress", options);
+      producer.send(new JsonObject().put("body", "myMessageContent"));
+    });
+  }
 }
@@ -22,6 +22,7 @@ import io.vertx.core.Handler;
 import io.vertx.core.Vertx;
 import io.vertx.core.eventbus.MessageConsumer;
 import io.vertx.core.eventbus.MessageProducer;
+import io.vertx.core.json.JsonObject;
 
 /**
  * Vert.x AMQP Bridge. Facilitates sending and receiving AMQP 1.0 messages.
@@ -96,6 +97,23 @@ public interface AmqpBridge {
    */
   <T> MessageConsumer<T> createConsumer(String amqpAddress) throws IllegalStateException;
 
+  /**
+   * Creates a consumer on the given AMQP address, configured with the given options.
+   *
+   * This method MUST be called from the bridge Context thread, as used in the result handler callback from the start
+   * methods. The bridge MUST be successfully started before the method is called.
+   *
+   * @param amqpAddress
+   *          the address to consume from
+   * @param options
+   *          the consumer options
+   * @return the consumer
+   * @throws IllegalStateException
+   *           if the bridge was not started or the method is invoked on a thread other than the bridge Context thread,
+   *           as used in the result handler callback from the start methods.
+   */
+  <T> MessageConsumer<T> createConsumer(String amqpAddress, AmqpConsumerOptions options) throws IllegalStateException;
+
   /**
    * Creates a producer to the given AMQP address.
    *
@@ -111,6 +129,65 @@ public interface AmqpBridge {
    */
   <T> MessageProducer<T> createProducer(String amqpAddress) throws IllegalStateException;
 
+  /**
+   * Creates a producer to the given AMQP address, configured with the given options.
+   *
+   * This method MUST be called from the bridge Context thread, as used in the result handler callback from the start
+   * methods. The bridge MUST be successfully started before the method is called.
+   *
+   * @param amqpAddress
+   *          the address to produce to
+   * @param options
+   *          the producer options
+   * @return the producer
+   * @throws IllegalStateException
+   *           if the bridge was not started or the method is invoked on a thread other than the bridge Context thread,
+   *           as used in the result handler callback from the start methods.
+   */
+  <T> MessageProducer<T> createProducer(String amqpAddress, AmqpProducerOptions options) throws IllegalStateException;
+
+  /**
+   * Creates a consumer on the given AMQP address which forwards the messages it receives to the given producer, which
+   * may be from another bridge. The messages are sent on as they were received, without being translated, and each
+   * delivery is settled with the outcome of sending its message. The consumer can be paused, resumed and unregistered,
+   * but a handler can not be set on it.
+   *
+   * This method MUST be called from the bridge Context thread, as used in the result handler callback from the start
+   * methods. The bridge MUST be successfully started before the method is called.
+   *
+   * @param amqpAddress
+   *          the address to consume from
+   * @param producer
+   *          the producer to forward the messages to, created by an AmqpBridge
+   * @return the consumer
+   * @throws IllegalStateException
+   *           if the bridge was not started or the method is invoked on a thread other than the bridge Context thread,
+   *           as used in the result handler callback from the start methods.
+   */
+  <T> MessageConsumer<T> createForwarder(String amqpAddress, MessageProducer<T> producer) throws IllegalStateException;
+
+  /**
+   * Creates a consumer on the given AMQP address which forwards the messages it receives to the given producer, as
+   * {@link #createForwarder(String, MessageProducer)}, adding the given message annotations to each message forwarded
+   * and replacing any with the same key.
+   *
+   * This method MUST be called from the bridge Context thread, as used in the result handler callback from the start
+   * methods. The bridge MUST be successfully started before the method is called.
+   *
+   * @param amqpAddress
+   *          the address to consume from
+   * @param producer
+   *          the producer to forward the messages to, created by an AmqpBridge
+   * @param messageAnnotations
+   *          the message annotations to add to each message, or null
+   * @return the consumer
+   * @throws IllegalStateException
+   *           if the bridge was not started or the method is invoked on a thread other than the bridge Context thread,
+   *           as used in the result handler callback from the start methods.
+   */
+  <T> MessageConsumer<T> createForwarder(String amqpAddress, MessageProducer<T> producer,
+                                         JsonObject messageAnnotations) throws IllegalStateException;
+
   /**
    * Shuts the bridge down, closing the underlying connection.
    *
@@ -126,4 +203,13 @@ public interface AmqpBridge {
    *          the handler
    */
   void endHandler(Handler<Void> endHandler);
+
+  /**
+   * Gets statistics for the cache the bridge uses to intern strings which repeat across messages, to help choose its
+   * size via {@link AmqpBridgeOptions#setInternCacheSize(int)}. The returned object has "capacity", "hits", "misses"
+   * and "hitRate" elements.
+   *
+   * @return the cache statistics
+   */
+  JsonObject getInternCacheStats();
 }
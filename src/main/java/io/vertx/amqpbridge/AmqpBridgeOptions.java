@@ -15,10 +15,13 @@
 */
 package io.vertx.amqpbridge;
 
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
 
 import io.vertx.codegen.annotations.DataObject;
+import io.vertx.codegen.annotations.GenIgnore;
 import io.vertx.core.buffer.Buffer;
 import io.vertx.core.json.JsonObject;
 import io.vertx.core.net.JdkSSLEngineOptions;
@@ -39,9 +42,31 @@ import io.vertx.proton.ProtonClientOptions;
 @DataObject(generateConverter = true, inheritConverter = true)
 public class AmqpBridgeOptions extends ProtonClientOptions {
 
+  /**
+   * The default number of entries in the cache used to intern repeated message strings = 1024
+   */
+  public static final int DEFAULT_INTERN_CACHE_SIZE = 1024;
+
+  /**
+   * The default maximum depth to which the maps and lists of a message value may be nested = 100
+   */
+  public static final int DEFAULT_MAX_NESTING_DEPTH = 100;
+
+  /**
+   * The default maximum number of elements the maps and lists of a message value may contain in total = 1000000
+   */
+  public static final int DEFAULT_MAX_NESTED_ELEMENTS = 1000000;
+
   private boolean replyHandlingSupport = true;
   private String containerId;
   private String vhost;
+  private boolean dataBodyAsBuffer;
+  private boolean typedIds;
+  private int internCacheSize = DEFAULT_INTERN_CACHE_SIZE;
+  private int maxNestingDepth = DEFAULT_MAX_NESTING_DEPTH;
+  private int maxNestedElements = DEFAULT_MAX_NESTED_ELEMENTS;
+  private MessageTranslator<?> messageTranslator;
+  private Map<String, MessageTranslator<?>> addressMessageTranslators = new HashMap<>();
 
   public AmqpBridgeOptions() {
   }
@@ -130,6 +155,197 @@ public class AmqpBridgeOptions extends ProtonClientOptions {
     return replyHandlingSupport;
   }
 
+  /**
+   * Sets whether the body of received messages with a Data body section should be represented by a Buffer wrapping
+   * the received bytes, rather than by a copy of them in the JsonObject binary form. Defaults to false. When enabled,
+   * the "body" element holds a Buffer which should be retrieved using getValue, and the JsonObject can then not be
+   * copied or encoded.
+   *
+   * @param dataBodyAsBuffer whether Data bodies should be represented by a Buffer
+   * @return the options
+   */
+  public AmqpBridgeOptions setDataBodyAsBuffer(boolean dataBodyAsBuffer) {
+    this.dataBodyAsBuffer = dataBodyAsBuffer;
+    return this;
+  }
+
+  /**
+   * Whether the body of received messages with a Data body section should be represented by a Buffer wrapping the
+   * received bytes, rather than by a copy of them in the JsonObject binary form. Defaults to false.
+   *
+   * @return whether Data bodies should be represented by a Buffer
+   */
+  public boolean isDataBodyAsBuffer() {
+    return dataBodyAsBuffer;
+  }
+
+  /**
+   * Sets whether the message_id and correlation_id properties of messages retain their AMQP type, rather than being
+   * strings. Defaults to false. When enabled, received ulong ids are given as a long, and uuid and binary ids with a
+   * message_id_type or correlation_id_type element giving their type, while a long id being sent is sent as a ulong.
+   * The message-id of messages sent with a reply handler is then a ulong, rather than a uuid string.
+   *
+   * @param typedIds whether ids retain their AMQP type
+   * @return the options
+   */
+  public AmqpBridgeOptions setTypedIds(boolean typedIds) {
+    this.typedIds = typedIds;
+    return this;
+  }
+
+  /**
+   * Whether the message_id and correlation_id properties of messages retain their AMQP type, rather than being strings.
+   * Defaults to false.
+   *
+   * @return whether ids retain their AMQP type
+   */
+  public boolean isTypedIds() {
+    return typedIds;
+  }
+
+  /**
+   * Sets the number of entries in the cache the bridge uses to intern strings which repeat across messages, such as
+   * addresses, subjects, and annotation and application property keys, along with their AMQP encodings. The size is
+   * rounded up to a power of two, and 0 disables the cache. Defaults to {@value #DEFAULT_INTERN_CACHE_SIZE}, and may
+   * be at most 2^30. The effectiveness of the size chosen can be checked using
+   * {@link AmqpBridge#getInternCacheStats()}.
+   *
+   * @param internCacheSize the number of cache entries
+   * @return the options
+   * @throws IllegalArgumentException if the size is negative or more than 2^30
+   */
+  public AmqpBridgeOptions setInternCacheSize(int internCacheSize) throws IllegalArgumentException {
+    if (internCacheSize < 0) {
+      throw new IllegalArgumentException("Intern cache size must not be negative");
+    }
+
+    if (internCacheSize > 1 << 30) {
+      throw new IllegalArgumentException("Intern cache size must not be more than 2^30");
+    }
+
+    this.internCacheSize = internCacheSize;
+    return this;
+  }
+
+  /**
+   * Gets the number of entries in the cache the bridge uses to intern strings which repeat across messages. Defaults
+   * to {@value #DEFAULT_INTERN_CACHE_SIZE}.
+   *
+   * @return the number of cache entries
+   */
+  public int getInternCacheSize() {
+    return internCacheSize;
+  }
+
+  /**
+   * Sets the maximum depth to which the maps and lists of a single message value may be nested within each other, such
+   * as in the body or an application property. Values being sent which exceed it are rejected rather than being
+   * translated or encoded. Received values are not limited. Defaults to {@value #DEFAULT_MAX_NESTING_DEPTH}.
+   *
+   * @param maxNestingDepth the maximum depth
+   * @return the options
+   */
+  public AmqpBridgeOptions setMaxNestingDepth(int maxNestingDepth) {
+    if (maxNestingDepth < 1) {
+      throw new IllegalArgumentException("Max nesting depth must be positive");
+    }
+
+    this.maxNestingDepth = maxNestingDepth;
+    return this;
+  }
+
+  /**
+   * Gets the maximum depth to which the maps and lists of a single message value may be nested within each other.
+   * Defaults to {@value #DEFAULT_MAX_NESTING_DEPTH}.
+   *
+   * @return the maximum depth
+   */
+  public int getMaxNestingDepth() {
+    return maxNestingDepth;
+  }
+
+  /**
+   * Sets the maximum number of elements the maps and lists of a single message value may contain in total, including
+   * those nested within each other, such as in the body or an application property. Values being sent which exceed it
+   * are rejected rather than being translated or encoded. Received values are not limited. Defaults to
+   * {@value #DEFAULT_MAX_NESTED_ELEMENTS}.
+   *
+   * @param maxNestedElements the maximum number of elements
+   * @return the options
+   */
+  public AmqpBridgeOptions setMaxNestedElements(int maxNestedElements) {
+    if (maxNestedElements < 1) {
+      throw new IllegalArgumentException("Max nested elements must be positive");
+    }
+
+    this.maxNestedElements = maxNestedElements;
+    return this;
+  }
+
+  /**
+   * Gets the maximum number of elements the maps and lists of a single message value may contain in total. Defaults
+   * to {@value #DEFAULT_MAX_NESTED_ELEMENTS}.
+   *
+   * @return the maximum number of elements
+   */
+  public int getMaxNestedElements() {
+    return maxNestedElements;
+  }
+
+  /**
+   * Sets the translator used to convert between AMQP messages and the bodies of the Vert.x messages of the bridge
+   * consumers and producers, for addresses which have no translator of their own. Defaults to null, indicating the
+   * bridge will represent messages as a JsonObject.
+   *
+   * @param messageTranslator the translator, or null to use the default JsonObject representation
+   * @return the options
+   */
+  @GenIgnore
+  public AmqpBridgeOptions setMessageTranslator(MessageTranslator<?> messageTranslator) {
+    this.messageTranslator = messageTranslator;
+    return this;
+  }
+
+  /**
+   * Gets the translator used for addresses which have no translator of their own. Defaults to null, indicating the
+   * bridge will represent messages as a JsonObject.
+   *
+   * @return the translator, or null if the default JsonObject representation is used
+   */
+  @GenIgnore
+  public MessageTranslator<?> getMessageTranslator() {
+    return messageTranslator;
+  }
+
+  /**
+   * Adds a translator to use for the consumers and producers of the given address, overriding any set using
+   * {@link #setMessageTranslator(MessageTranslator)}. Replies to messages are translated using the translator of the
+   * message being replied to.
+   *
+   * @param amqpAddress the address
+   * @param messageTranslator the translator
+   * @return the options
+   */
+  @GenIgnore
+  public AmqpBridgeOptions addAddressMessageTranslator(String amqpAddress, MessageTranslator<?> messageTranslator) {
+    if (amqpAddress == null || messageTranslator == null) {
+      throw new NullPointerException("Address and translator must not be null");
+    }
+
+    addressMessageTranslators.put(amqpAddress, messageTranslator);
+    return this;
+  }
+
+  /**
+   * Gets the translators configured for particular addresses, keyed by address.
+   *
+   * @return the translators
+   */
+  @GenIgnore
+  public Map<String, MessageTranslator<?>> getAddressMessageTranslators() {
+    return addressMessageTranslators;
+  }
+
   @Override
   public AmqpBridgeOptions addEnabledSaslMechanism(String saslMechanism) {
     super.addEnabledSaslMechanism(saslMechanism);
@@ -401,6 +617,13 @@ public class AmqpBridgeOptions extends ProtonClientOptions {
     result = prime * result + (replyHandlingSupport ? 1231 : 1237);
     result = prime * result + ((containerId == null) ? 0 : containerId.hashCode());
     result = prime * result + ((vhost == null) ? 0 : vhost.hashCode());
+    result = prime * result + (dataBodyAsBuffer ? 1231 : 1237);
+    result = prime * result + (typedIds ? 1231 : 1237);
+    result = prime * result + internCacheSize;
+    result = prime * result + maxNestingDepth;
+    result = prime * result + maxNestedElements;
+    result = prime * result + ((messageTranslator == null) ? 0 : messageTranslator.hashCode());
+    result = prime * result + addressMessageTranslators.hashCode();
 
     return result;
   }
@@ -440,6 +663,34 @@ public class AmqpBridgeOptions extends ProtonClientOptions {
       return false;
     }
 
+    if (dataBodyAsBuffer != other.dataBodyAsBuffer) {
+      return false;
+    }
+
+    if (typedIds != other.typedIds) {
+      return false;
+    }
+
+    if (internCacheSize != other.internCacheSize) {
+      return false;
+    }
+
+    if (maxNestingDepth != other.maxNestingDepth || maxNestedElements != other.maxNestedElements) {
+      return false;
+    }
+
+    if (messageTranslator == null) {
+      if (other.messageTranslator != null) {
+        return false;
+      }
+    } else if (!messageTranslator.equals(other.messageTranslator)) {
+      return false;
+    }
+
+    if (!addressMessageTranslators.equals(other.addressMessageTranslators)) {
+      return false;
+    }
+
     return true;
   }
 
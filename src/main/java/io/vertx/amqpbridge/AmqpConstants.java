@@ -56,4 +56,16 @@ public class AmqpConstants {
   public static final String PROPERTIES_CREATION_TIME = "creation_time";
   public static final String PROPERTIES_ABSOLUTE_EXPIRY_TIME = "absolute_expiry_time";
   public static final String PROPERTIES_USER_ID = "user_id";
+
+  // id types, given by the message_id_type and correlation_id_type properties for ids with no JSON equivalent
+  public static final String PROPERTIES_MESSAGE_ID_TYPE = "message_id_type";
+  public static final String PROPERTIES_CORRELATION_ID_TYPE = "correlation_id_type";
+  public static final String ID_TYPE_STRING = "string";
+  public static final String ID_TYPE_ULONG = "ulong";
+  public static final String ID_TYPE_UUID = "uuid";
+  public static final String ID_TYPE_BINARY = "binary";
+
+  // content encodings with which Data bodies can be compressed and decompressed
+  public static final String CONTENT_ENCODING_GZIP = "gzip";
+  public static final String CONTENT_ENCODING_DEFLATE = "deflate";
 }
@@ -0,0 +1,279 @@
+/*
+* Copyright 2016 the original author or authors.
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package io.vertx.amqpbridge;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import io.vertx.codegen.annotations.DataObject;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Options for configuring a consumer created by the AmqpBridge.
+ */
+@DataObject(generateConverter = true)
+public class AmqpConsumerOptions {
+
+  /**
+   * The default maximum size in bytes to which a compressed Data body may be decompressed = 16777216
+   */
+  public static final long DEFAULT_MAX_DECOMPRESSED_SIZE = 16 * 1024 * 1024;
+
+  private Set<String> includedSections;
+  private long maxMessageSize;
+  private boolean decompressDataBodies = true;
+  private long maxDecompressedSize = DEFAULT_MAX_DECOMPRESSED_SIZE;
+  private String selector;
+
+  public AmqpConsumerOptions() {
+  }
+
+  public AmqpConsumerOptions(AmqpConsumerOptions other) {
+    this.includedSections = other.includedSections == null ? null : new LinkedHashSet<>(other.includedSections);
+    this.maxMessageSize = other.maxMessageSize;
+    this.decompressDataBodies = other.decompressDataBodies;
+    this.maxDecompressedSize = other.maxDecompressedSize;
+    this.selector = other.selector;
+  }
+
+  public AmqpConsumerOptions(JsonObject json) {
+    AmqpConsumerOptionsConverter.fromJson(json, this);
+  }
+
+  public JsonObject toJson() {
+    JsonObject json = new JsonObject();
+    AmqpConsumerOptionsConverter.toJson(this, json);
+    return json;
+  }
+
+  /**
+   * Sets the sections of received messages to include in their JsonObject form, named as the elements of that form:
+   * "body", "properties", "header", "application_properties" and "message_annotations". Sections which are not
+   * included are never translated, and are absent from the JsonObject. Defaults to null, meaning all sections are
+   * included. Only applies when the consumer uses the default JsonObject message translator.
+   *
+   * @param includedSections the names of the sections to include, or null to include all of them
+   * @return the options
+   * @throws IllegalArgumentException if a name is not that of a section
+   */
+  public AmqpConsumerOptions setIncludedSections(Set<String> includedSections) throws IllegalArgumentException {
+    if (includedSections == null) {
+      this.includedSections = null;
+    } else {
+      this.includedSections = new LinkedHashSet<>();
+      includedSections.forEach(this::addIncludedSection);
+    }
+
+    return this;
+  }
+
+  /**
+   * Adds a section of received messages to include in their JsonObject form. See
+   * {@link #setIncludedSections(Set)}.
+   *
+   * @param includedSection the name of the section to include
+   * @return the options
+   * @throws IllegalArgumentException if the name is not that of a section
+   */
+  public AmqpConsumerOptions addIncludedSection(String includedSection) throws IllegalArgumentException {
+    switch (String.valueOf(includedSection)) {
+      case AmqpConstants.BODY:
+      case AmqpConstants.PROPERTIES:
+      case AmqpConstants.HEADER:
+      case AmqpConstants.APPLICATION_PROPERTIES:
+      case AmqpConstants.MESSAGE_ANNOTATIONS:
+        break;
+      default:
+        throw new IllegalArgumentException("Unknown message section: " + includedSection);
+    }
+
+    if (includedSections == null) {
+      includedSections = new LinkedHashSet<>();
+    }
+
+    includedSections.add(includedSection);
+    return this;
+  }
+
+  /**
+   * Gets the sections of received messages to include in their JsonObject form. Defaults to null, meaning all
+   * sections are included.
+   *
+   * @return the names of the sections to include, or null if all of them are
+   */
+  public Set<String> getIncludedSections() {
+    return includedSections;
+  }
+
+  /**
+   * Sets the maximum size in bytes of the messages the consumer will accept, which is advertised to the sending peer
+   * when the consumer link is attached so that it does not send larger messages. Messages are received in full before
+   * being delivered to the consumer handler, so this bounds the memory each of them can take up. Defaults to 0,
+   * meaning there is no limit.
+   *
+   * @param maxMessageSize the maximum message size in bytes, or 0 for no limit
+   * @return the options
+   * @throws IllegalArgumentException if the size is negative
+   */
+  public AmqpConsumerOptions setMaxMessageSize(long maxMessageSize) throws IllegalArgumentException {
+    if (maxMessageSize < 0) {
+      throw new IllegalArgumentException("Max message size must not be negative");
+    }
+
+    this.maxMessageSize = maxMessageSize;
+    return this;
+  }
+
+  /**
+   * Gets the maximum size in bytes of the messages the consumer will accept. Defaults to 0, meaning there is no limit.
+   *
+   * @return the maximum message size in bytes, or 0 if there is no limit
+   */
+  public long getMaxMessageSize() {
+    return maxMessageSize;
+  }
+
+  /**
+   * Sets whether Data bodies of received messages with a content_encoding property of "gzip" or "deflate" are
+   * decompressed before the messages are delivered, with the content_encoding then removed. Messages whose body can
+   * not be decompressed, or whose decompressed body would exceed the max decompressed size or any max message size,
+   * are rejected. Messages received by a forwarder are forwarded as received. Defaults to true.
+   *
+   * @param decompressDataBodies whether to decompress Data bodies
+   * @return the options
+   */
+  public AmqpConsumerOptions setDecompressDataBodies(boolean decompressDataBodies) {
+    this.decompressDataBodies = decompressDataBodies;
+    return this;
+  }
+
+  /**
+   * Gets whether Data bodies of received messages with a content_encoding property of "gzip" or "deflate" are
+   * decompressed before the messages are delivered. Defaults to true.
+   *
+   * @return whether to decompress Data bodies
+   */
+  public boolean isDecompressDataBodies() {
+    return decompressDataBodies;
+  }
+
+  /**
+   * Sets the maximum size in bytes to which a compressed Data body of a received message may be decompressed, so that
+   * a small message can not expand to take up an unbounded amount of memory. A max message size, if also set and
+   * smaller, applies instead. Defaults to {@value #DEFAULT_MAX_DECOMPRESSED_SIZE}.
+   *
+   * @param maxDecompressedSize the maximum decompressed size in bytes, or 0 for no limit
+   * @return the options
+   * @throws IllegalArgumentException if the size is negative
+   */
+  public AmqpConsumerOptions setMaxDecompressedSize(long maxDecompressedSize) throws IllegalArgumentException {
+    if (maxDecompressedSize < 0) {
+      throw new IllegalArgumentException("Max decompressed size must not be negative");
+    }
+
+    this.maxDecompressedSize = maxDecompressedSize;
+    return this;
+  }
+
+  /**
+   * Gets the maximum size in bytes to which a compressed Data body of a received message may be decompressed.
+   * Defaults to {@value #DEFAULT_MAX_DECOMPRESSED_SIZE}.
+   *
+   * @return the maximum decompressed size in bytes, or 0 if there is no limit
+   */
+  public long getMaxDecompressedSize() {
+    return maxDecompressedSize;
+  }
+
+  /**
+   * Sets a JMS selector for the consumer, which is installed as a filter on the source of the consumer link so that
+   * only messages matching it are sent by the broker, rather than being discarded after they are received. Requires a
+   * broker supporting the "apache.org:selector-filter:string" filter type. Defaults to null, meaning no selector is
+   * used.
+   *
+   * @param selector the JMS selector, or null
+   * @return the options
+   */
+  public AmqpConsumerOptions setSelector(String selector) {
+    this.selector = selector;
+    return this;
+  }
+
+  /**
+   * Gets the JMS selector for the consumer. Defaults to null, meaning no selector is used.
+   *
+   * @return the JMS selector, or null
+   */
+  public String getSelector() {
+    return selector;
+  }
+
+  @Override
+  public int hashCode() {
+    final int prime = 31;
+
+    int result = 1;
+    result = prime * result + ((includedSections == null) ? 0 : includedSections.hashCode());
+    result = prime * result + (int) (maxMessageSize ^ (maxMessageSize >>> 32));
+    result = prime * result + (decompressDataBodies ? 1231 : 1237);
+    result = prime * result + (int) (maxDecompressedSize ^ (maxDecompressedSize >>> 32));
+    result = prime * result + ((selector == null) ? 0 : selector.hashCode());
+
+    return result;
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    if (this == obj) {
+      return true;
+    }
+
+    if (obj == null || getClass() != obj.getClass()) {
+      return false;
+    }
+
+    AmqpConsumerOptions other = (AmqpConsumerOptions) obj;
+    if (includedSections == null) {
+      if (other.includedSections != null) {
+        return false;
+      }
+    } else if (!includedSections.equals(other.includedSections)) {
+      return false;
+    }
+
+    if (maxMessageSize != other.maxMessageSize) {
+      return false;
+    }
+
+    if (decompressDataBodies != other.decompressDataBodies) {
+      return false;
+    }
+
+    if (maxDecompressedSize != other.maxDecompressedSize) {
+      return false;
+    }
+
+    if (selector == null) {
+      if (other.selector != null) {
+        return false;
+      }
+    } else if (!selector.equals(other.selector)) {
+      return false;
+    }
+
+    return true;
+  }
+}
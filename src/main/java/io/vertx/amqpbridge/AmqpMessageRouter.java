@@ -0,0 +1,81 @@
+/*
+* Copyright 2016 the original author or authors.
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package io.vertx.amqpbridge;
+
+import io.vertx.amqpbridge.impl.AmqpMessageRouterImpl;
+import io.vertx.core.Handler;
+import io.vertx.core.eventbus.Message;
+
+/**
+ * Consumer handler which dispatches each message received to one of a number of handlers, chosen by the value of a
+ * routing key of the message: its subject, its group-id, or one of its application properties. The routing key is
+ * read from the AMQP message directly and looked up in a hash index, so the rest of the message is not translated in
+ * order to choose the handler.
+ *
+ * Routes should be added before the router is set as the handler of a consumer, and not changed while it is in use.
+ *
+ * @param <T> the type of the Vert.x message body
+ */
+public interface AmqpMessageRouter<T> extends Handler<Message<T>> {
+
+  /**
+   * Creates a router which routes messages by their subject.
+   *
+   * @return the router
+   */
+  static <T> AmqpMessageRouter<T> bySubject() {
+    return new AmqpMessageRouterImpl<>(AmqpConstants.PROPERTIES_SUBJECT, null);
+  }
+
+  /**
+   * Creates a router which routes messages by their group-id.
+   *
+   * @return the router
+   */
+  static <T> AmqpMessageRouter<T> byGroupId() {
+    return new AmqpMessageRouterImpl<>(AmqpConstants.PROPERTIES_GROUP_ID, null);
+  }
+
+  /**
+   * Creates a router which routes messages by the value of the given application property, compared in its string
+   * form.
+   *
+   * @param name the name of the application property
+   * @return the router
+   */
+  static <T> AmqpMessageRouter<T> byApplicationProperty(String name) {
+    return new AmqpMessageRouterImpl<>(null, name);
+  }
+
+  /**
+   * Routes messages whose routing key has the given value to the given handler, replacing any handler previously
+   * routed to for the value.
+   *
+   * @param value the routing key value
+   * @param handler the handler
+   * @return the router
+   */
+  AmqpMessageRouter<T> route(String value, Handler<Message<T>> handler);
+
+  /**
+   * Sets the handler for messages whose routing key is absent, or has a value with no route. Defaults to null,
+   * meaning such messages are discarded.
+   *
+   * @param handler the handler, or null
+   * @return the router
+   */
+  AmqpMessageRouter<T> otherwise(Handler<Message<T>> handler);
+}
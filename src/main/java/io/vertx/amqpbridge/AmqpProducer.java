@@ -0,0 +1,88 @@
+/*
+* Copyright 2016 the original author or authors.
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package io.vertx.amqpbridge;
+
+import java.util.List;
+
+import io.vertx.codegen.annotations.Fluent;
+import io.vertx.codegen.annotations.GenIgnore;
+import io.vertx.codegen.annotations.VertxGen;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.eventbus.MessageProducer;
+
+/**
+ * Producer created by the AmqpBridge, adding AMQP specific operations to those of a MessageProducer. The producers
+ * created by {@link AmqpBridge#createProducer(String)} are an AmqpProducer, as returned by
+ * {@link #of(MessageProducer)}.
+ *
+ * @param <T> the type of the Vert.x message body
+ */
+@VertxGen
+public interface AmqpProducer<T> extends MessageProducer<T> {
+
+  /**
+   * Returns the given producer, created by an AmqpBridge, as an AmqpProducer.
+   *
+   * @param producer the producer
+   * @param <T> the type of the Vert.x message body
+   * @return the producer, as an AmqpProducer
+   * @throws IllegalArgumentException if the producer was not created by an AmqpBridge
+   */
+  @GenIgnore
+  static <T> AmqpProducer<T> of(MessageProducer<T> producer) throws IllegalArgumentException {
+    if (!(producer instanceof AmqpProducer)) {
+      throw new IllegalArgumentException("The producer must have been created by an AmqpBridge");
+    }
+
+    return (AmqpProducer<T>) producer;
+  }
+
+  /**
+   * Sends the given message bodies, in order. All of the messages are translated on the calling thread, and then sent
+   * together in one task on the bridge Context thread, rather than each send being scheduled separately.
+   *
+   * @param messageBodies the message bodies
+   * @return the producer
+   */
+  @Fluent
+  @GenIgnore
+  AmqpProducer<T> sendBatch(List<T> messageBodies);
+
+  /**
+   * Sends the given message bodies, in order, as {@link #sendBatch(List)}, notifying the given handler of the outcome
+   * of the batch. The handler succeeds once every message has been accepted, or fails as soon as any message is not.
+   *
+   * @param messageBodies the message bodies
+   * @param completionHandler the handler for the outcome of the batch
+   * @return the producer
+   */
+  @Fluent
+  @GenIgnore
+  AmqpProducer<T> writeBatch(List<T> messageBodies, Handler<AsyncResult<Void>> completionHandler);
+
+  /**
+   * Sends the given message body, returning a future for its outcome, which succeeds once the message is accepted or
+   * fails if it is not. Many such sends can be pipelined, with the number of unsettled messages bounded locally by
+   * {@link AmqpProducerOptions#setMaxInFlight(int)}.
+   *
+   * @param messageBody the message body
+   * @return a future for the outcome of the send
+   */
+  @GenIgnore
+  Future<Void> sendWithAck(T messageBody);
+}
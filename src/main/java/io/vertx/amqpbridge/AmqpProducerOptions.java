@@ -0,0 +1,390 @@
+/*
+* Copyright 2016 the original author or authors.
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package io.vertx.amqpbridge;
+
+import io.vertx.codegen.annotations.DataObject;
+import io.vertx.core.json.JsonObject;
+import io.vertx.proton.ProtonQoS;
+
+/**
+ * Options for configuring a producer created by the AmqpBridge.
+ */
+@DataObject(generateConverter = true)
+public class AmqpProducerOptions {
+
+  /**
+   * The default size in bytes from which Data bodies are compressed = 1024
+   */
+  public static final int DEFAULT_COMPRESSION_THRESHOLD = 1024;
+
+  private JsonObject template;
+  private String compression;
+  private int compressionThreshold = DEFAULT_COMPRESSION_THRESHOLD;
+  private ProtonQoS qos = ProtonQoS.AT_LEAST_ONCE;
+  private int maxInFlight;
+  private long writeQueueMaxBytes;
+  private WriteQueueOverflowPolicy writeQueueOverflowPolicy = WriteQueueOverflowPolicy.FAIL;
+  private int links = 1;
+  private LinkDispatchPolicy linkDispatchPolicy = LinkDispatchPolicy.ROUND_ROBIN;
+
+  public AmqpProducerOptions() {
+  }
+
+  public AmqpProducerOptions(AmqpProducerOptions other) {
+    this.template = other.template == null ? null : other.template.copy();
+    this.compression = other.compression;
+    this.compressionThreshold = other.compressionThreshold;
+    this.qos = other.qos;
+    this.maxInFlight = other.maxInFlight;
+    this.writeQueueMaxBytes = other.writeQueueMaxBytes;
+    this.writeQueueOverflowPolicy = other.writeQueueOverflowPolicy;
+    this.links = other.links;
+    this.linkDispatchPolicy = other.linkDispatchPolicy;
+  }
+
+  public AmqpProducerOptions(JsonObject json) {
+    AmqpProducerOptionsConverter.fromJson(json, this);
+  }
+
+  public JsonObject toJson() {
+    JsonObject json = new JsonObject();
+    AmqpProducerOptionsConverter.toJson(this, json);
+    return json;
+  }
+
+  /**
+   * Sets a template message for the producer, in the same JsonObject form as the messages it sends. The header,
+   * message annotations, properties and application properties sections of the template are encoded once when the
+   * producer is created, and then used for each message sent which does not contain its own equivalent section, so
+   * that only the body and any such sections are encoded for each send. Any body in the template is ignored.
+   * Defaults to null, meaning no template is used.
+   *
+   * @param template the template message
+   * @return the options
+   */
+  public AmqpProducerOptions setTemplate(JsonObject template) {
+    this.template = template;
+    return this;
+  }
+
+  /**
+   * Gets the template message for the producer. Defaults to null, meaning no template is used.
+   *
+   * @return the template message, or null if there is none
+   */
+  public JsonObject getTemplate() {
+    return template;
+  }
+
+  /**
+   * Sets the content encoding with which to compress the Data bodies of messages sent by the producer, either "gzip"
+   * or "deflate". Bodies of at least the compression threshold size are compressed, and the content_encoding property
+   * of their message set accordingly, unless it already has a content_encoding. Defaults to null, meaning no
+   * compression is used.
+   *
+   * @param compression the content encoding to compress with, or null
+   * @return the options
+   * @throws IllegalArgumentException if the content encoding is not supported
+   */
+  public AmqpProducerOptions setCompression(String compression) throws IllegalArgumentException {
+    if (compression != null && !AmqpConstants.CONTENT_ENCODING_GZIP.equals(compression)
+        && !AmqpConstants.CONTENT_ENCODING_DEFLATE.equals(compression)) {
+      throw new IllegalArgumentException("Unsupported compression: " + compression);
+    }
+
+    this.compression = compression;
+    return this;
+  }
+
+  /**
+   * Gets the content encoding with which to compress the Data bodies of messages sent by the producer. Defaults to
+   * null, meaning no compression is used.
+   *
+   * @return the content encoding to compress with, or null
+   */
+  public String getCompression() {
+    return compression;
+  }
+
+  /**
+   * Sets the size in bytes from which Data bodies are compressed, when compression is used. Defaults to
+   * {@value #DEFAULT_COMPRESSION_THRESHOLD}.
+   *
+   * @param compressionThreshold the size in bytes from which to compress
+   * @return the options
+   * @throws IllegalArgumentException if the size is negative
+   */
+  public AmqpProducerOptions setCompressionThreshold(int compressionThreshold) throws IllegalArgumentException {
+    if (compressionThreshold < 0) {
+      throw new IllegalArgumentException("Compression threshold must not be negative");
+    }
+
+    this.compressionThreshold = compressionThreshold;
+    return this;
+  }
+
+  /**
+   * Gets the size in bytes from which Data bodies are compressed, when compression is used. Defaults to
+   * {@value #DEFAULT_COMPRESSION_THRESHOLD}.
+   *
+   * @return the size in bytes from which to compress
+   */
+  public int getCompressionThreshold() {
+    return compressionThreshold;
+  }
+
+  /**
+   * Sets the quality of service of the producer link. With {@link ProtonQoS#AT_MOST_ONCE} messages are sent
+   * pre-settled, so the peer sends no disposition for them and no delivery state is tracked while they are in flight,
+   * but messages may be lost. The outcome of sending such a message is reported as a success once it has been sent.
+   * Defaults to {@link ProtonQoS#AT_LEAST_ONCE}, where messages are sent unsettled and their outcome is that given
+   * by the peer.
+   *
+   * @param qos the quality of service
+   * @return the options
+   */
+  public AmqpProducerOptions setQos(ProtonQoS qos) {
+    if (qos == null) {
+      throw new NullPointerException("The quality of service must not be null");
+    }
+
+    this.qos = qos;
+    return this;
+  }
+
+  /**
+   * Gets the quality of service of the producer link. Defaults to {@link ProtonQoS#AT_LEAST_ONCE}.
+   *
+   * @return the quality of service
+   */
+  public ProtonQoS getQos() {
+    return qos;
+  }
+
+  /**
+   * Sets the maximum number of messages the producer has sent, or been asked to send, which are not yet settled.
+   * Once the limit is reached further messages are held locally until earlier ones are settled, regardless of the
+   * credit granted by the peer, and the write queue of the producer reports being full. Defaults to 0, meaning no
+   * limit is applied beyond the peer's credit.
+   *
+   * @param maxInFlight the maximum number of unsettled messages, or 0 for no limit
+   * @return the options
+   * @throws IllegalArgumentException if the limit is negative
+   */
+  public AmqpProducerOptions setMaxInFlight(int maxInFlight) throws IllegalArgumentException {
+    if (maxInFlight < 0) {
+      throw new IllegalArgumentException("Max in-flight must not be negative");
+    }
+
+    this.maxInFlight = maxInFlight;
+    return this;
+  }
+
+  /**
+   * Gets the maximum number of messages the producer has sent, or been asked to send, which are not yet settled.
+   * Defaults to 0, meaning no limit is applied beyond the peer's credit.
+   *
+   * @return the maximum number of unsettled messages, or 0 for no limit
+   */
+  public int getMaxInFlight() {
+    return maxInFlight;
+  }
+
+  /**
+   * Sets the maximum total encoded size in bytes of the messages held in the write queue of the producer, those sent
+   * but not yet passed to the link, such as while the peer grants no credit. Applies alongside any limit on the number
+   * of messages set using {@link io.vertx.core.eventbus.MessageProducer#setWriteQueueMaxSize(int)}. Defaults to 0,
+   * meaning no limit.
+   *
+   * @param writeQueueMaxBytes the maximum size in bytes, or 0 for no limit
+   * @return the options
+   * @throws IllegalArgumentException if the size is negative
+   */
+  public AmqpProducerOptions setWriteQueueMaxBytes(long writeQueueMaxBytes) throws IllegalArgumentException {
+    if (writeQueueMaxBytes < 0) {
+      throw new IllegalArgumentException("Write queue max bytes must not be negative");
+    }
+
+    this.writeQueueMaxBytes = writeQueueMaxBytes;
+    return this;
+  }
+
+  /**
+   * Gets the maximum total encoded size in bytes of the messages held in the write queue of the producer. Defaults to
+   * 0, meaning no limit.
+   *
+   * @return the maximum size in bytes, or 0 for no limit
+   */
+  public long getWriteQueueMaxBytes() {
+    return writeQueueMaxBytes;
+  }
+
+  /**
+   * Sets what the producer does with a message sent while its bounded write queue is full. Defaults to
+   * {@link WriteQueueOverflowPolicy#FAIL}.
+   *
+   * @param writeQueueOverflowPolicy the overflow policy
+   * @return the options
+   */
+  public AmqpProducerOptions setWriteQueueOverflowPolicy(WriteQueueOverflowPolicy writeQueueOverflowPolicy) {
+    if (writeQueueOverflowPolicy == null) {
+      throw new NullPointerException("The overflow policy must not be null");
+    }
+
+    this.writeQueueOverflowPolicy = writeQueueOverflowPolicy;
+    return this;
+  }
+
+  /**
+   * Gets what the producer does with a message sent while its bounded write queue is full. Defaults to
+   * {@link WriteQueueOverflowPolicy#FAIL}.
+   *
+   * @return the overflow policy
+   */
+  public WriteQueueOverflowPolicy getWriteQueueOverflowPolicy() {
+    return writeQueueOverflowPolicy;
+  }
+
+  /**
+   * Sets the number of sender links the producer opens to its address, each on its own session, and spreads the
+   * messages it sends across according to the link dispatch policy. Messages sent on different links may arrive out
+   * of order relative to each other, though each batch is sent on a single link. The other options apply to each
+   * link individually, as does any write queue max size. Defaults to 1.
+   *
+   * @param links the number of links
+   * @return the options
+   * @throws IllegalArgumentException if the number is less than 1
+   */
+  public AmqpProducerOptions setLinks(int links) throws IllegalArgumentException {
+    if (links < 1) {
+      throw new IllegalArgumentException("Links must be at least 1");
+    }
+
+    this.links = links;
+    return this;
+  }
+
+  /**
+   * Gets the number of sender links the producer opens to its address. Defaults to 1.
+   *
+   * @return the number of links
+   */
+  public int getLinks() {
+    return links;
+  }
+
+  /**
+   * Sets how a producer using several links chooses the link to send each message on. Defaults to
+   * {@link LinkDispatchPolicy#ROUND_ROBIN}.
+   *
+   * @param linkDispatchPolicy the link dispatch policy
+   * @return the options
+   */
+  public AmqpProducerOptions setLinkDispatchPolicy(LinkDispatchPolicy linkDispatchPolicy) {
+    if (linkDispatchPolicy == null) {
+      throw new NullPointerException("The link dispatch policy must not be null");
+    }
+
+    this.linkDispatchPolicy = linkDispatchPolicy;
+    return this;
+  }
+
+  /**
+   * Gets how a producer using several links chooses the link to send each message on. Defaults to
+   * {@link LinkDispatchPolicy#ROUND_ROBIN}.
+   *
+   * @return the link dispatch policy
+   */
+  public LinkDispatchPolicy getLinkDispatchPolicy() {
+    return linkDispatchPolicy;
+  }
+
+  @Override
+  public int hashCode() {
+    final int prime = 31;
+
+    int result = 1;
+    result = prime * result + ((template == null) ? 0 : template.hashCode());
+    result = prime * result + ((compression == null) ? 0 : compression.hashCode());
+    result = prime * result + compressionThreshold;
+    result = prime * result + qos.hashCode();
+    result = prime * result + maxInFlight;
+    result = prime * result + (int) (writeQueueMaxBytes ^ (writeQueueMaxBytes >>> 32));
+    result = prime * result + writeQueueOverflowPolicy.hashCode();
+    result = prime * result + links;
+    result = prime * result + linkDispatchPolicy.hashCode();
+
+    return result;
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    if (this == obj) {
+      return true;
+    }
+
+    if (obj == null || getClass() != obj.getClass()) {
+      return false;
+    }
+
+    AmqpProducerOptions other = (AmqpProducerOptions) obj;
+    if (template == null) {
+      if (other.template != null) {
+        return false;
+      }
+    } else if (!template.equals(other.template)) {
+      return false;
+    }
+
+    if (compression == null) {
+      if (other.compression != null) {
+        return false;
+      }
+    } else if (!compression.equals(other.compression)) {
+      return false;
+    }
+
+    if (compressionThreshold != other.compressionThreshold) {
+      return false;
+    }
+
+    if (qos != other.qos) {
+      return false;
+    }
+
+    if (maxInFlight != other.maxInFlight) {
+      return false;
+    }
+
+    if (writeQueueMaxBytes != other.writeQueueMaxBytes) {
+      return false;
+    }
+
+    if (writeQueueOverflowPolicy != other.writeQueueOverflowPolicy) {
+      return false;
+    }
+
+    if (links != other.links) {
+      return false;
+    }
+
+    if (linkDispatchPolicy != other.linkDispatchPolicy) {
+      return false;
+    }
+
+    return true;
+  }
+}
@@ -0,0 +1,62 @@
+/*
+* Copyright 2016 the original author or authors.
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package io.vertx.amqpbridge;
+
+import org.apache.qpid.proton.message.Message;
+
+import io.vertx.amqpbridge.impl.ProtonMessageTranslatorImpl;
+
+/**
+ * Translates between AMQP messages and the bodies of the Vert.x messages used by the consumers and producers of the
+ * bridge. By default the bridge represents messages as a JsonObject, a different translator can be configured for the
+ * bridge or for particular addresses using {@link AmqpBridgeOptions}, allowing applications to work with their own
+ * types directly.
+ *
+ * Translators may be used concurrently from multiple threads.
+ *
+ * @param <T> the type of the Vert.x message body
+ */
+public interface MessageTranslator<T> {
+
+  /**
+   * Returns a translator which uses the proton message itself as the Vert.x message body, without any translation.
+   *
+   * @return the translator
+   */
+  static MessageTranslator<Message> protonMessage() {
+    return ProtonMessageTranslatorImpl.INSTANCE;
+  }
+
+  /**
+   * Converts a received AMQP message into a Vert.x message body.
+   *
+   * @param protonMessage the received message
+   * @return the message body
+   * @throws IllegalArgumentException if the message can not be converted
+   */
+  T convertToBody(Message protonMessage) throws IllegalArgumentException;
+
+  /**
+   * Converts a Vert.x message body into the AMQP message to send. The message returned must be one created using the
+   * proton message factory, and must not be modified once returned, other than by the bridge itself setting any
+   * address, reply-to, message-id and correlation-id values it needs to.
+   *
+   * @param body the message body
+   * @return the message to send
+   * @throws IllegalArgumentException if the body can not be converted
+   */
+  Message convertToAmqpMessage(T body) throws IllegalArgumentException;
+}
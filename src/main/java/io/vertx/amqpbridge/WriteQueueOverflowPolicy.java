@@ -0,0 +1,42 @@
+/*
+* Copyright 2016 the original author or authors.
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package io.vertx.amqpbridge;
+
+import io.vertx.codegen.annotations.VertxGen;
+
+/**
+ * What a producer does with a message sent while its bounded write queue is full.
+ */
+@VertxGen
+public enum WriteQueueOverflowPolicy {
+
+  /**
+   * The message is not sent, and the outcome of the send is a failure.
+   */
+  FAIL,
+
+  /**
+   * The message is queued, and the oldest queued message is discarded to make room for it, the outcome of that send
+   * being a failure.
+   */
+  DROP_OLDEST,
+
+  /**
+   * The sending thread is blocked until there is room for the message. Sends made on the bridge context thread, which
+   * must not block, fail instead.
+   */
+  BLOCK
+}
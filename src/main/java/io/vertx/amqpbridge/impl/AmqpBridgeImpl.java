@@ -17,14 +17,20 @@ package io.vertx.amqpbridge.impl;
 
 import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 
 import io.vertx.amqpbridge.AmqpBridge;
 import io.vertx.amqpbridge.AmqpBridgeOptions;
-import io.vertx.amqpbridge.AmqpConstants;
+import io.vertx.amqpbridge.AmqpConsumerOptions;
+import io.vertx.amqpbridge.AmqpProducer;
+import io.vertx.amqpbridge.AmqpProducerOptions;
+import io.vertx.amqpbridge.MessageTranslator;
 import org.apache.qpid.proton.amqp.Symbol;
+import org.apache.qpid.proton.amqp.UnsignedLong;
 import org.apache.qpid.proton.amqp.messaging.Source;
 import org.apache.qpid.proton.engine.EndpointState;
 
@@ -43,6 +49,7 @@ import io.vertx.core.logging.LoggerFactory;
 import io.vertx.proton.ProtonClient;
 import io.vertx.proton.ProtonConnection;
 import io.vertx.proton.ProtonDelivery;
+import io.vertx.proton.ProtonMessageHandler;
 import io.vertx.proton.ProtonReceiver;
 import io.vertx.proton.impl.ProtonConnectionImpl;
 
@@ -55,9 +62,10 @@ public class AmqpBridgeImpl implements AmqpBridge {
   private ProtonConnection connection;
   private ProtonReceiver replyToConsumer;
   private String replyToConsumerAddress;
-  private AmqpProducerImpl replySender;
-  private Map<String, Handler<?>> replyToMapping = new ConcurrentHashMap<>();
-  private MessageTranslatorImpl translator = new MessageTranslatorImpl();
+  private AmqpProducerImpl<?> replySender;
+  private Map<Object, ProtonMessageHandler> replyToMapping = new ConcurrentHashMap<>();
+  private final AtomicLong replyMessageIds = new AtomicLong();
+  private final InternCache internCache;
   private AtomicBoolean started = new AtomicBoolean();
   private AtomicBoolean closed = new AtomicBoolean();
   private volatile Handler<Void> endHandler;
@@ -66,6 +74,7 @@ public class AmqpBridgeImpl implements AmqpBridge {
     this.vertx = vertx;
     this.options = options;
     bridgeContext = vertx.getOrCreateContext();
+    internCache = new InternCache(options.getInternCacheSize());
   }
 
   private static final Logger LOG = LoggerFactory.getLogger(AmqpBridgeImpl.class);
@@ -126,7 +135,7 @@ public class AmqpBridgeImpl implements AmqpBridge {
             }
 
             // Create a reply sender
-            replySender = new AmqpProducerImpl(this, connection, null);
+            replySender = new AmqpProducerImpl<>(this, connection, null);
 
             // Create a receiver, requesting a dynamic address, which we will inspect once attached and use as the
             // replyTo value on outgoing messages sent with replyHandler specified.
@@ -167,24 +176,71 @@ public class AmqpBridgeImpl implements AmqpBridge {
     }
   }
 
-  @SuppressWarnings("unchecked")
   @Override
-  public MessageConsumer<JsonObject> createConsumer(String amqpAddress) {
+  public <T> MessageConsumer<T> createConsumer(String amqpAddress) {
     if (!started.get()) {
       throw new IllegalStateException("Bridge was not successfully started");
     }
 
-    return new AmqpConsumerImpl(this, connection, amqpAddress);
+    return new AmqpConsumerImpl<>(this, connection, amqpAddress);
+  }
+
+  @Override
+  public <T> MessageConsumer<T> createConsumer(String amqpAddress, AmqpConsumerOptions options) {
+    if (!started.get()) {
+      throw new IllegalStateException("Bridge was not successfully started");
+    }
+
+    return new AmqpConsumerImpl<>(this, connection, amqpAddress, options);
+  }
+
+  @Override
+  public <T> MessageConsumer<T> createForwarder(String amqpAddress, MessageProducer<T> producer) {
+    return createForwarder(amqpAddress, producer, null);
+  }
+
+  @Override
+  public <T> MessageConsumer<T> createForwarder(String amqpAddress, MessageProducer<T> producer,
+                                                JsonObject messageAnnotations) {
+    if (!started.get()) {
+      throw new IllegalStateException("Bridge was not successfully started");
+    }
+
+    if (!(producer instanceof MessageForwarder)) {
+      throw new IllegalArgumentException("The producer must have been created by an AmqpBridge");
+    }
+
+    Map<Symbol, Object> annotations = null;
+    if (messageAnnotations != null) {
+      annotations = createTranslator().createAmqpMessageAnnotations(messageAnnotations).getValue();
+    }
+
+    AmqpConsumerImpl<T> consumer = new AmqpConsumerImpl<>(this, connection, amqpAddress);
+    consumer.forwardTo((MessageForwarder) producer, annotations);
+
+    return consumer;
+  }
+
+  @Override
+  public <T> AmqpProducer<T> createProducer(String amqpAddress) {
+    if (!started.get()) {
+      throw new IllegalStateException("Bridge was not successfully started");
+    }
+
+    return new AmqpProducerImpl<>(this, connection, amqpAddress);
   }
 
-  @SuppressWarnings("unchecked")
   @Override
-  public MessageProducer<JsonObject> createProducer(String amqpAddress) {
+  public <T> AmqpProducer<T> createProducer(String amqpAddress, AmqpProducerOptions options) {
     if (!started.get()) {
       throw new IllegalStateException("Bridge was not successfully started");
     }
 
-    return new AmqpProducerImpl(this, connection, amqpAddress);
+    if (options.getLinks() > 1) {
+      return new AmqpProducerPoolImpl<>(this, connection, amqpAddress, options);
+    }
+
+    return new AmqpProducerImpl<>(this, connection, amqpAddress, options);
   }
 
   @Override
@@ -247,15 +303,42 @@ public class AmqpBridgeImpl implements AmqpBridge {
     this.endHandler = endHandler;
   }
 
-  <R> void registerReplyToHandler(org.apache.qpid.proton.message.Message msg,
+  @Override
+  public JsonObject getInternCacheStats() {
+    return internCache.stats();
+  }
+
+  /**
+   * Returns a message-id for a message sent with a reply handler, which incoming replies are matched on using their
+   * correlation-id as-is. Unless ids are typed this is a random uuid string. Otherwise, as they only need to be unique
+   * amongst the replies to the reply-to address of this bridge, they are ulongs taken from a counter.
+   */
+  Object nextReplyMessageId() {
+    if (!options.isTypedIds()) {
+      return UUID.randomUUID().toString();
+    }
+
+    return UnsignedLong.valueOf(replyMessageIds.incrementAndGet());
+  }
+
+  <R> void registerReplyToHandler(Object messageId, MessageTranslator<?> translator,
                                   Handler<AsyncResult<Message<R>>> replyHandler) {
-    verifyReplyToAddressAvailable();
-    msg.setReplyTo(replyToConsumerAddress);
+    // The reply is translated using the translator the request was sent with.
+    @SuppressWarnings("unchecked")
+    MessageTranslator<R> replyTranslator = (MessageTranslator<R>) translator;
 
-    String generatedMessageId = UUID.randomUUID().toString();
-    msg.setMessageId(generatedMessageId);
+    replyToMapping.put(messageId, (delivery, protonMessage) -> {
+      R body = replyTranslator.convertToBody(protonMessage);
+      Message<R> msg = new AmqpMessageImpl<>(body, replyTranslator, AmqpBridgeImpl.this, protonMessage, delivery,
+          replyToConsumerAddress, protonMessage.getReplyTo());
 
-    replyToMapping.put(generatedMessageId, replyHandler);
+      replyHandler.handle(Future.succeededFuture(msg));
+    });
+  }
+
+  String getReplyToAddress() throws IllegalStateException {
+    verifyReplyToAddressAvailable();
+    return replyToConsumerAddress;
   }
 
   void verifyReplyToAddressAvailable() throws IllegalStateException {
@@ -270,18 +353,10 @@ public class AmqpBridgeImpl implements AmqpBridge {
     Object correlationId = protonMessage.getCorrelationId();
     if (correlationId != null) {
       // Remove the associated handler from the map (only 1 reply permitted).
-      Handler<?> handler = replyToMapping.remove(correlationId);
+      ProtonMessageHandler handler = replyToMapping.remove(correlationId);
 
       if (handler != null) {
-        @SuppressWarnings("unchecked")
-        Handler<AsyncResult<Message<JsonObject>>> h = (Handler<AsyncResult<Message<JsonObject>>>) handler;
-
-        JsonObject body = translator.convertToJsonObject(protonMessage);
-        Message<JsonObject> msg = new AmqpMessageImpl(body, AmqpBridgeImpl.this, protonMessage, delivery,
-            replyToConsumerAddress, protonMessage.getReplyTo());
-
-        AsyncResult<Message<JsonObject>> result = Future.succeededFuture(msg);
-        h.handle(result);
+        handler.handle(delivery, protonMessage);
         return;
       }
     }
@@ -289,8 +364,8 @@ public class AmqpBridgeImpl implements AmqpBridge {
     LOG.error("Received message on replyTo consumer, could not match to a replyHandler: " + protonMessage);
   }
 
-  <R> void sendReply(org.apache.qpid.proton.message.Message origIncomingMessage, JsonObject replyBody,
-                     Handler<AsyncResult<Message<R>>> replyHandler) {
+  <B, R> void sendReply(org.apache.qpid.proton.message.Message origIncomingMessage, MessageTranslator<B> translator,
+                        B replyBody, Handler<AsyncResult<Message<R>>> replyHandler) {
     if(replySender == null) {
       throw new IllegalStateException(
           "No reply sender available, unable to send implicit replies. Try an explicit producer for replies.");
@@ -304,17 +379,41 @@ public class AmqpBridgeImpl implements AmqpBridge {
     // Set the correlationId to the messageId value if there was one, so that if the reply recipient is also a
     // vertx amqp bridge it can match the response to a reply handler if set when sending.
     Object origMessageId = origIncomingMessage.getMessageId();
-    if (origMessageId != null) {
-      JsonObject replyBodyProps = replyBody.getJsonObject(AmqpConstants.PROPERTIES);
-      if (replyBodyProps == null) {
-        replyBodyProps = new JsonObject();
-        replyBody.put(AmqpConstants.PROPERTIES, replyBodyProps);
-      }
+    replySender.doSend(translator, replyBody, origMessageId, null, replyHandler, replyAddress);
+  }
+
+  MessageTranslatorImpl createTranslator() {
+    return new MessageTranslatorImpl(internCache).setDataBodyAsBuffer(options.isDataBodyAsBuffer())
+        .setTypedIds(options.isTypedIds())
+        .setMaxNestingDepth(options.getMaxNestingDepth()).setMaxNestedElements(options.getMaxNestedElements());
+  }
+
+  <T> MessageTranslator<T> createTranslator(String amqpAddress) {
+    return createTranslator(amqpAddress, null);
+  }
+
+  /**
+   * Returns the translator to use for the given address: that configured for the address itself if any, otherwise
+   * that configured for the bridge, otherwise the default JsonObject translator including only the given sections.
+   */
+  @SuppressWarnings("unchecked")
+  <T> MessageTranslator<T> createTranslator(String amqpAddress, Set<String> includedSections) {
+    MessageTranslator<?> translator = null;
+    if (amqpAddress != null) {
+      translator = options.getAddressMessageTranslators().get(amqpAddress);
+    }
+
+    if (translator == null) {
+      translator = options.getMessageTranslator();
+    }
 
-      replyBodyProps.put(AmqpConstants.PROPERTIES_CORRELATION_ID, origMessageId);
+    if (translator == null) {
+      translator = createTranslator().setIncludedSections(includedSections);
+    } else if (includedSections != null) {
+      throw new IllegalArgumentException("Sections can only be selected for the default JsonObject message translator");
     }
 
-    replySender.doSend(replyBody, null, replyHandler, replyAddress);
+    return (MessageTranslator<T>) translator;
   }
 
   boolean onContextEventLoop() {
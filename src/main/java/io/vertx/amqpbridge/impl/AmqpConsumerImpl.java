@@ -16,8 +16,16 @@
 package io.vertx.amqpbridge.impl;
 
 import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Queue;
 
+import io.vertx.amqpbridge.AmqpConsumerOptions;
+import io.vertx.amqpbridge.MessageTranslator;
+import org.apache.qpid.proton.amqp.DescribedType;
+import org.apache.qpid.proton.amqp.Symbol;
+import org.apache.qpid.proton.amqp.UnsignedLong;
+import org.apache.qpid.proton.amqp.messaging.Source;
 import io.vertx.core.AsyncResult;
 import io.vertx.core.Future;
 import io.vertx.core.Handler;
@@ -25,38 +33,60 @@ import io.vertx.core.VertxException;
 import io.vertx.core.eventbus.Message;
 import io.vertx.core.eventbus.MessageConsumer;
 import io.vertx.core.eventbus.impl.BodyReadStream;
-import io.vertx.core.json.JsonObject;
 import io.vertx.core.logging.Logger;
 import io.vertx.core.logging.LoggerFactory;
 import io.vertx.core.streams.ReadStream;
 import io.vertx.proton.ProtonConnection;
+import io.vertx.proton.ProtonHelper;
 import io.vertx.proton.ProtonReceiver;
 
-public class AmqpConsumerImpl implements MessageConsumer<JsonObject> {
+public class AmqpConsumerImpl<T> implements MessageConsumer<T> {
 
   private static final Logger LOG = LoggerFactory.getLogger(AmqpConsumerImpl.class);
 
   private final AmqpBridgeImpl bridge;
   private final ProtonReceiver receiver;
   private final String amqpAddress;
-  private final MessageTranslatorImpl translator = new MessageTranslatorImpl();
-  private final Queue<AmqpMessageImpl> buffered = new ArrayDeque<>();
-  private Handler<Message<JsonObject>> handler;
+  private final MessageTranslator<T> translator;
+  private final boolean decompressDataBodies;
+  private final long maxDecompressedSize;
+  private final Queue<AmqpMessageImpl<T>> buffered = new ArrayDeque<>();
+  private Handler<Message<T>> handler;
   private long demand = Long.MAX_VALUE;
   private boolean closed;
   private Handler<Throwable> exceptionHandler;
   private Handler<Void> endHandler;
   private boolean initialCreditGiven;
   private int initialCredit = 1000;
+  private MessageForwarder forwardProducer;
+  private Map<Symbol, Object> forwardAnnotations;
 
   public AmqpConsumerImpl(AmqpBridgeImpl bridge, ProtonConnection connection, String amqpAddress) {
+    this(bridge, connection, amqpAddress, new AmqpConsumerOptions());
+  }
+
+  public AmqpConsumerImpl(AmqpBridgeImpl bridge, ProtonConnection connection, String amqpAddress,
+                          AmqpConsumerOptions options) {
     if(!bridge.onContextEventLoop()) {
       throw new IllegalStateException("Consumer creation was not executed on the bridge context thread");
     }
 
     this.bridge = bridge;
     this.amqpAddress = amqpAddress;
+    this.translator = bridge.createTranslator(amqpAddress, options.getIncludedSections());
+    this.decompressDataBodies = options.isDecompressDataBodies();
+    this.maxDecompressedSize = maxDecompressedSize(options);
     receiver = connection.createReceiver(amqpAddress);
+    if (options.getMaxMessageSize() > 0) {
+      receiver.setMaxMessageSize(UnsignedLong.valueOf(options.getMaxMessageSize()));
+    }
+
+    if (options.getSelector() != null) {
+      // Filter at the broker, so that messages not matching are never sent.
+      Map<Symbol, DescribedType> filters = new HashMap<>();
+      filters.put(SelectorFilter.NAME, new SelectorFilter(options.getSelector()));
+      ((Source) receiver.getSource()).setFilter(filters);
+    }
     receiver.closeHandler(res -> {
       Handler<Void> endh = null;
       Handler<Throwable> exh = null;
@@ -96,9 +126,24 @@ public class AmqpConsumerImpl implements MessageConsumer<JsonObject> {
       }
     });
     receiver.handler((delivery, protonMessage) -> {
-      JsonObject body = translator.convertToJsonObject(protonMessage);
-      AmqpMessageImpl vertxMessage = new AmqpMessageImpl(body, this.bridge, protonMessage, delivery, amqpAddress,
-          protonMessage.getReplyTo());
+      // Forwarded messages are sent on as received, still compressed.
+      if (decompressDataBodies && !isForwarding()) {
+        try {
+          DataBodyCompression.decompress(protonMessage, maxDecompressedSize);
+        } catch (IllegalArgumentException e) {
+          LOG.warn("Rejecting message received on address " + amqpAddress + ": " + e.getMessage());
+          ProtonHelper.rejected(delivery, true);
+          receiver.flow(1);
+          return;
+        }
+      }
+
+      // The delivery bytes are decoded into the proton message by the receiver before this handler is called, and are
+      // not otherwise exposed to it. The default translator defers translation on from that until each section is
+      // actually accessed. Forwarded messages are not translated at all.
+      T body = isForwarding() ? null : translator.convertToBody(protonMessage);
+      AmqpMessageImpl<T> vertxMessage = new AmqpMessageImpl<>(body, translator, this.bridge, protonMessage, delivery,
+          amqpAddress, protonMessage.getReplyTo());
 
       handleMessage(vertxMessage);
     });
@@ -110,8 +155,8 @@ public class AmqpConsumerImpl implements MessageConsumer<JsonObject> {
     receiver.open();
   }
 
-  private void handleMessage(AmqpMessageImpl vertxMessage) {
-    Handler<Message<JsonObject>> h = null;
+  private void handleMessage(AmqpMessageImpl<T> vertxMessage) {
+    Handler<Message<T>> h = null;
     boolean schedule = false;
 
     synchronized (AmqpConsumerImpl.this) {
@@ -148,10 +193,64 @@ public class AmqpConsumerImpl implements MessageConsumer<JsonObject> {
     }
   }
 
-  private void deliverMessageToHandler(AmqpMessageImpl vertxMessage, Handler<Message<JsonObject>> h) {
+  private void deliverMessageToHandler(AmqpMessageImpl<T> vertxMessage, Handler<Message<T>> h) {
     h.handle(vertxMessage);
-    vertxMessage.accept();
-    receiver.flow(1);
+
+    // Forwarded messages are instead settled, and credit replenished, once the outcome of forwarding them is known.
+    if (!isForwarding()) {
+      vertxMessage.accept();
+      receiver.flow(1);
+    }
+  }
+
+  /**
+   * Forwards the messages received by the consumer to the given producer, rather than delivering them to a handler.
+   * The proton message decoded from each delivery is sent on as-is, without translation, and the delivery is settled
+   * with the outcome of sending it.
+   *
+   * @param producer the producer to forward the messages to
+   * @param messageAnnotations message annotations to add to each message forwarded, replacing any with the same key,
+   *          or null
+   */
+  void forwardTo(MessageForwarder producer, Map<Symbol, Object> messageAnnotations) {
+    synchronized (AmqpConsumerImpl.this) {
+      if (handler != null) {
+        throw new IllegalStateException("Consumer already has a handler");
+      }
+
+      forwardProducer = producer;
+      forwardAnnotations = messageAnnotations;
+    }
+
+    registerHandler(this::forward);
+  }
+
+  /**
+   * @return the smaller of the max decompressed size and any max message size, or 0 if neither is limited
+   */
+  private static long maxDecompressedSize(AmqpConsumerOptions options) {
+    long maxSize = options.getMaxDecompressedSize();
+    long maxMessageSize = options.getMaxMessageSize();
+    if (maxMessageSize > 0 && (maxSize == 0 || maxMessageSize < maxSize)) {
+      maxSize = maxMessageSize;
+    }
+
+    return maxSize;
+  }
+
+  private synchronized boolean isForwarding() {
+    return forwardProducer != null;
+  }
+
+  private void forward(Message<T> message) {
+    AmqpMessageImpl<T> vertxMessage = (AmqpMessageImpl<T>) message;
+
+    forwardProducer.forward(vertxMessage.getProtonMessage(), forwardAnnotations, remoteState -> {
+      bridge.runOnContext(true, v -> {
+        vertxMessage.settle(remoteState);
+        receiver.flow(1);
+      });
+    });
   }
 
   private void scheduleBufferedMessageDelivery() {
@@ -163,8 +262,8 @@ public class AmqpConsumerImpl implements MessageConsumer<JsonObject> {
 
     if (schedule) {
       bridge.runOnContext(false, v -> {
-        Handler<Message<JsonObject>> h = null;
-        AmqpMessageImpl message = null;
+        Handler<Message<T>> h = null;
+        AmqpMessageImpl<T> message = null;
 
         synchronized (AmqpConsumerImpl.this) {
           h = handler;
@@ -188,13 +287,23 @@ public class AmqpConsumerImpl implements MessageConsumer<JsonObject> {
   }
 
   @Override
-  public synchronized MessageConsumer<JsonObject> exceptionHandler(Handler<Throwable> handler) {
+  public synchronized MessageConsumer<T> exceptionHandler(Handler<Throwable> handler) {
     exceptionHandler = handler;
     return this;
   }
 
   @Override
-  public MessageConsumer<JsonObject> handler(final Handler<Message<JsonObject>> handler) {
+  public MessageConsumer<T> handler(final Handler<Message<T>> handler) {
+    if (isForwarding()) {
+      throw new IllegalStateException("Consumer is forwarding its messages, a handler can not be set");
+    }
+
+    registerHandler(handler);
+
+    return this;
+  }
+
+  private void registerHandler(Handler<Message<T>> handler) {
     int creditToFlow = 0;
     boolean schedule = false;
 
@@ -221,18 +330,16 @@ public class AmqpConsumerImpl implements MessageConsumer<JsonObject> {
     if(schedule) {
       scheduleBufferedMessageDelivery();
     }
-
-    return this;
   }
 
   @Override
-  public synchronized MessageConsumer<JsonObject> pause() {
+  public synchronized MessageConsumer<T> pause() {
     demand = 0L;
     return this;
   }
 
   @Override
-  public synchronized MessageConsumer<JsonObject> fetch(long amount) {
+  public synchronized MessageConsumer<T> fetch(long amount) {
     if (amount > 0) {
       demand += amount;
       if (demand < 0L) {
@@ -244,18 +351,18 @@ public class AmqpConsumerImpl implements MessageConsumer<JsonObject> {
   }
 
   @Override
-  public synchronized MessageConsumer<JsonObject> resume() {
+  public synchronized MessageConsumer<T> resume() {
     return fetch(Long.MAX_VALUE);
   }
 
   @Override
-  public synchronized MessageConsumer<JsonObject> endHandler(Handler<Void> endHandler) {
+  public synchronized MessageConsumer<T> endHandler(Handler<Void> endHandler) {
     this.endHandler = endHandler;
     return this;
   }
 
   @Override
-  public ReadStream<JsonObject> bodyStream() {
+  public ReadStream<T> bodyStream() {
     return new BodyReadStream<>(this);
   }
 
@@ -270,7 +377,7 @@ public class AmqpConsumerImpl implements MessageConsumer<JsonObject> {
   }
 
   @Override
-  public synchronized MessageConsumer<JsonObject> setMaxBufferedMessages(int maxBufferedMessages) {
+  public synchronized MessageConsumer<T> setMaxBufferedMessages(int maxBufferedMessages) {
     if(!initialCreditGiven) {
       initialCredit = maxBufferedMessages;
     }
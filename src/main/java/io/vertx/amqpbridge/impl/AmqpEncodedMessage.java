@@ -0,0 +1,89 @@
+/*
+* Copyright 2016 the original author or authors.
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package io.vertx.amqpbridge.impl;
+
+import java.nio.BufferOverflowException;
+
+import org.apache.qpid.proton.amqp.Binary;
+import org.apache.qpid.proton.codec.WritableBuffer;
+import org.apache.qpid.proton.message.impl.MessageImpl;
+
+/**
+ * Message whose AMQP encoding has already been produced, which is written out as-is when the sender encodes it.
+ *
+ * The encoding is held as the bytes of the leading sections, plus optionally the content of a trailing Data section,
+ * which is referenced rather than copied in with the rest.
+ */
+public class AmqpEncodedMessage extends MessageImpl {
+
+  private final byte[] encoded;
+  private final Binary payload;
+  private final String address;
+
+  public AmqpEncodedMessage(byte[] encoded, Binary payload, String address) {
+    this.encoded = encoded;
+    this.payload = payload;
+    this.address = address;
+  }
+
+  public int getEncodedSize() {
+    return payload == null ? encoded.length : encoded.length + payload.getLength();
+  }
+
+  @Override
+  public String getAddress() {
+    return address;
+  }
+
+  @Override
+  public int encode(WritableBuffer buffer) {
+    buffer.put(encoded, 0, encoded.length);
+    if (payload != null) {
+      buffer.put(payload.getArray(), payload.getArrayOffset(), payload.getLength());
+    }
+
+    return getEncodedSize();
+  }
+
+  @Override
+  public int encode(byte[] data, int offset, int length) {
+    int size = getEncodedSize();
+    if (size > length) {
+      throw new BufferOverflowException();
+    }
+
+    copyTo(data, offset);
+    return size;
+  }
+
+  @Override
+  public int encode2(byte[] data, int offset, int length) {
+    int size = getEncodedSize();
+    if (size <= length) {
+      copyTo(data, offset);
+    }
+
+    return size;
+  }
+
+  private void copyTo(byte[] data, int offset) {
+    System.arraycopy(encoded, 0, data, offset, encoded.length);
+    if (payload != null) {
+      System.arraycopy(payload.getArray(), payload.getArrayOffset(), data, offset + encoded.length,
+          payload.getLength());
+    }
+  }
+}
@@ -0,0 +1,831 @@
+/*
+* Copyright 2016 the original author or authors.
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package io.vertx.amqpbridge.impl;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.UUID;
+import java.util.function.Function;
+
+import io.vertx.amqpbridge.AmqpConstants;
+import org.apache.qpid.proton.amqp.Binary;
+import org.apache.qpid.proton.amqp.Symbol;
+import org.apache.qpid.proton.amqp.UnsignedByte;
+import org.apache.qpid.proton.amqp.UnsignedInteger;
+import org.apache.qpid.proton.amqp.UnsignedLong;
+import org.apache.qpid.proton.amqp.UnsignedShort;
+
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Encodes the JsonObject representation of a message directly into its AMQP encoding, in a single walk of the
+ * JsonObject, without first building the intermediate collections and proton message that
+ * {@link MessageTranslatorImpl#convertToAmqpMessage(JsonObject)} does.
+ *
+ * Lists and maps are always given their 32-bit width encodings, so their sizes can be filled in once their content
+ * has been written.
+ */
+public class AmqpMessageEncoder {
+
+  // Buffers which have grown beyond this are not retained for reuse by the thread once the encoding completes.
+  private static final int MAX_RETAINED_BUFFER_SIZE = 64 * 1024;
+  private static final ThreadLocal<EncodingBuffer> BUFFER = ThreadLocal.withInitial(() -> new EncodingBuffer(1024));
+
+  private static final byte DESCRIBED_TYPE = 0x00;
+  private static final byte NULL = 0x40;
+  private static final byte TRUE = 0x41;
+  private static final byte FALSE = 0x42;
+  private static final byte UINT0 = 0x43;
+  private static final byte ULONG0 = 0x44;
+  private static final byte LIST0 = 0x45;
+  private static final byte UBYTE = 0x50;
+  private static final byte BYTE = 0x51;
+  private static final byte SMALLUINT = 0x52;
+  private static final byte SMALLULONG = 0x53;
+  private static final byte SMALLINT = 0x54;
+  private static final byte SMALLLONG = 0x55;
+  private static final byte USHORT = 0x60;
+  private static final byte SHORT = 0x61;
+  private static final byte UINT = 0x70;
+  private static final byte INT = 0x71;
+  private static final byte FLOAT = 0x72;
+  private static final byte CHAR = 0x73;
+  private static final byte ULONG = (byte) 0x80;
+  private static final byte LONG = (byte) 0x81;
+  private static final byte DOUBLE = (byte) 0x82;
+  private static final byte TIMESTAMP = (byte) 0x83;
+  private static final byte UUID_16 = (byte) 0x98;
+  private static final byte VBIN8 = (byte) 0xa0;
+  private static final byte STR8 = (byte) 0xa1;
+  private static final byte SYM8 = (byte) 0xa3;
+  private static final byte VBIN32 = (byte) 0xb0;
+  private static final byte STR32 = (byte) 0xb1;
+  private static final byte SYM32 = (byte) 0xb3;
+  private static final byte LIST32 = (byte) 0xd0;
+  private static final byte MAP32 = (byte) 0xd1;
+
+  private static final byte HEADER_DESCRIPTOR = 0x70;
+  private static final byte MESSAGE_ANNOTATIONS_DESCRIPTOR = 0x72;
+  private static final byte PROPERTIES_DESCRIPTOR = 0x73;
+  private static final byte APPLICATION_PROPERTIES_DESCRIPTOR = 0x74;
+  private static final byte DATA_DESCRIPTOR = 0x75;
+  private static final byte AMQP_SEQUENCE_DESCRIPTOR = 0x76;
+  private static final byte AMQP_VALUE_DESCRIPTOR = 0x77;
+
+  private static final int HEADER_FIELD_COUNT = 5;
+  private static final int PROPERTIES_FIELD_COUNT = 13;
+
+  // Kinds of value held in the intern cache for the encoder, see also those of the translator.
+  static final int INTERN_STRING_ENCODING = 2;
+  static final int INTERN_SYMBOL_ENCODING = 3;
+
+  private static final Function<String, byte[]> STRING_ENCODING_FACTORY = AmqpMessageEncoder::encodeString;
+  private static final Function<String, byte[]> SYMBOL_ENCODING_FACTORY = AmqpMessageEncoder::encodeSymbol;
+
+  private final MessageTranslatorImpl translator;
+
+  public AmqpMessageEncoder(MessageTranslatorImpl translator) {
+    this.translator = translator;
+  }
+
+  /**
+   * Encodes the given JsonObject representation of a message.
+   *
+   * @param jsonObject the message to encode
+   * @param address the 'to' address to give the message in place of any it has, or null
+   * @param replyTo the 'reply-to' address to give the message in place of any it has, or null
+   * @param messageId the message-id to give the message in place of any it has, or null
+   * @return the encoded message
+   * @throws IllegalArgumentException if the message contains a value with no AMQP encoding
+   */
+  public AmqpEncodedMessage encode(JsonObject jsonObject, String address, String replyTo, Object messageId)
+      throws IllegalArgumentException {
+    return encode(jsonObject, null, address, replyTo, messageId, null);
+  }
+
+  /**
+   * Encodes the given JsonObject representation of a message, using the already encoded sections of the given
+   * template for any header, message-annotations, properties or application-properties sections the message does not
+   * contain itself. A section of the message replaces the equivalent template section entirely.
+   *
+   * @param jsonObject the message to encode
+   * @param template the template to use, or null
+   * @param address the 'to' address to give the message in place of any it has, or null
+   * @param replyTo the 'reply-to' address to give the message in place of any it has, or null
+   * @param messageId the message-id to give the message in place of any it has, or null
+   * @param correlationId the correlation-id to give the message in place of any it has, or null
+   * @return the encoded message
+   * @throws IllegalArgumentException if the message contains a value with no AMQP encoding
+   */
+  public AmqpEncodedMessage encode(JsonObject jsonObject, AmqpMessageTemplate template, String address,
+                                   String replyTo, Object messageId, Object correlationId)
+      throws IllegalArgumentException {
+    EncodingBuffer buffer = BUFFER.get();
+    buffer.clear();
+
+    try {
+      if (jsonObject.containsKey(AmqpConstants.HEADER)) {
+        writeHeader(buffer, jsonObject.getJsonObject(AmqpConstants.HEADER));
+      } else if (template != null) {
+        writeEncoded(buffer, template.getHeader());
+      }
+
+      if (jsonObject.containsKey(AmqpConstants.MESSAGE_ANNOTATIONS)) {
+        writeMessageAnnotations(buffer, jsonObject.getJsonObject(AmqpConstants.MESSAGE_ANNOTATIONS));
+      } else if (template != null) {
+        writeEncoded(buffer, template.getMessageAnnotations());
+      }
+
+      JsonObject jsonProps = null;
+      boolean templateProps = false;
+      if (jsonObject.containsKey(AmqpConstants.PROPERTIES)) {
+        jsonProps = jsonObject.getJsonObject(AmqpConstants.PROPERTIES);
+      } else if (template != null && template.getJsonProperties() != null) {
+        jsonProps = template.getJsonProperties();
+        // The encoded template properties are only usable as-is if none of their values are being replaced.
+        templateProps = replyTo == null && messageId == null && correlationId == null
+            && (address == null || address.equals(template.getAddress()));
+      }
+
+      if (address == null && jsonProps != null) {
+        address = jsonProps.getString(AmqpConstants.PROPERTIES_TO);
+      }
+
+      if (templateProps) {
+        writeEncoded(buffer, template.getProperties());
+      } else if (jsonProps != null || address != null || replyTo != null || messageId != null
+          || correlationId != null) {
+        writeProperties(buffer, jsonProps, address, replyTo, messageId, correlationId);
+      }
+
+      if (jsonObject.containsKey(AmqpConstants.APPLICATION_PROPERTIES)) {
+        writeApplicationProperties(buffer, jsonObject.getJsonObject(AmqpConstants.APPLICATION_PROPERTIES));
+      } else if (template != null) {
+        writeEncoded(buffer, template.getApplicationProperties());
+      }
+
+      Binary payload = null;
+      if (jsonObject.containsKey(AmqpConstants.BODY)) {
+        String bodyType = jsonObject.getString(AmqpConstants.BODY_TYPE);
+        if (bodyType == null || AmqpConstants.BODY_TYPE_VALUE.equals(bodyType)) {
+          writeDescriptor(buffer, AMQP_VALUE_DESCRIPTOR);
+          writeValue(buffer, jsonObject.getValue(AmqpConstants.BODY));
+        } else if (AmqpConstants.BODY_TYPE_DATA.equals(bodyType)) {
+          // Only the constructor is written here, the content is referenced to be written out after the rest.
+          payload = translator.createAmqpDataBinary(jsonObject);
+          writeDescriptor(buffer, DATA_DESCRIPTOR);
+          buffer.put(VBIN32);
+          buffer.putInt(payload.getLength());
+        } else if (AmqpConstants.BODY_TYPE_SEQUENCE.equals(bodyType)) {
+          writeDescriptor(buffer, AMQP_SEQUENCE_DESCRIPTOR);
+          writeValue(buffer, jsonObject.getJsonArray(AmqpConstants.BODY));
+        }
+      } else {
+        // messages are meant to have a body section, write an 'empty' body (an amqp-value containing null).
+        writeDescriptor(buffer, AMQP_VALUE_DESCRIPTOR);
+        buffer.put(NULL);
+      }
+
+      return new AmqpEncodedMessage(buffer.toByteArray(), payload, address);
+    } finally {
+      if (buffer.capacity() > MAX_RETAINED_BUFFER_SIZE) {
+        BUFFER.remove();
+      }
+    }
+  }
+
+  /**
+   * Encodes the header, message-annotations, properties and application-properties sections of the given template
+   * message, for use in encoding messages sent with it. Any body of the template is ignored.
+   *
+   * @param template the template message
+   * @return the encoded template
+   * @throws IllegalArgumentException if the template contains a value with no AMQP encoding
+   */
+  public AmqpMessageTemplate createTemplate(JsonObject template) throws IllegalArgumentException {
+    JsonObject copy = template.copy();
+
+    byte[] header = null;
+    if (copy.containsKey(AmqpConstants.HEADER)) {
+      EncodingBuffer buffer = new EncodingBuffer(64);
+      writeHeader(buffer, copy.getJsonObject(AmqpConstants.HEADER));
+      header = buffer.toByteArray();
+    }
+
+    byte[] messageAnnotations = null;
+    if (copy.containsKey(AmqpConstants.MESSAGE_ANNOTATIONS)) {
+      EncodingBuffer buffer = new EncodingBuffer(256);
+      writeMessageAnnotations(buffer, copy.getJsonObject(AmqpConstants.MESSAGE_ANNOTATIONS));
+      messageAnnotations = buffer.toByteArray();
+    }
+
+    byte[] properties = null;
+    JsonObject jsonProps = null;
+    String address = null;
+    if (copy.containsKey(AmqpConstants.PROPERTIES)) {
+      jsonProps = copy.getJsonObject(AmqpConstants.PROPERTIES);
+      address = jsonProps.getString(AmqpConstants.PROPERTIES_TO);
+
+      EncodingBuffer buffer = new EncodingBuffer(256);
+      writeProperties(buffer, jsonProps, address, null, null, null);
+      properties = buffer.toByteArray();
+    }
+
+    byte[] applicationProperties = null;
+    if (copy.containsKey(AmqpConstants.APPLICATION_PROPERTIES)) {
+      EncodingBuffer buffer = new EncodingBuffer(256);
+      writeApplicationProperties(buffer, copy.getJsonObject(AmqpConstants.APPLICATION_PROPERTIES));
+      applicationProperties = buffer.toByteArray();
+    }
+
+    return new AmqpMessageTemplate(header, messageAnnotations, properties, applicationProperties, jsonProps, address);
+  }
+
+  private static void writeEncoded(EncodingBuffer buffer, byte[] encoded) {
+    if (encoded != null) {
+      buffer.put(encoded, 0, encoded.length);
+    }
+  }
+
+  private void writeHeader(EncodingBuffer buffer, JsonObject jsonHeader) {
+    writeDescriptor(buffer, HEADER_DESCRIPTOR);
+    int sizePosition = startCompound(buffer, LIST32, HEADER_FIELD_COUNT);
+
+    if (jsonHeader.containsKey(AmqpConstants.HEADER_DURABLE)) {
+      writeValue(buffer, jsonHeader.getBoolean(AmqpConstants.HEADER_DURABLE));
+    } else {
+      buffer.put(NULL);
+    }
+
+    if (jsonHeader.containsKey(AmqpConstants.HEADER_PRIORITY)) {
+      int priority = jsonHeader.getInteger(AmqpConstants.HEADER_PRIORITY);
+      buffer.put(UBYTE);
+      buffer.put((byte) priority);
+    } else {
+      buffer.put(NULL);
+    }
+
+    if (jsonHeader.containsKey(AmqpConstants.HEADER_TTL)) {
+      writeUnsignedInt(buffer, UnsignedInteger.valueOf(jsonHeader.getLong(AmqpConstants.HEADER_TTL)).intValue());
+    } else {
+      buffer.put(NULL);
+    }
+
+    if (jsonHeader.containsKey(AmqpConstants.HEADER_FIRST_ACQUIRER)) {
+      writeValue(buffer, jsonHeader.getBoolean(AmqpConstants.HEADER_FIRST_ACQUIRER));
+    } else {
+      buffer.put(NULL);
+    }
+
+    if (jsonHeader.containsKey(AmqpConstants.HEADER_DELIVERY_COUNT)) {
+      Long dc = jsonHeader.getLong(AmqpConstants.HEADER_DELIVERY_COUNT);
+      writeUnsignedInt(buffer, UnsignedInteger.valueOf(dc).intValue());
+    } else {
+      buffer.put(NULL);
+    }
+
+    endCompound(buffer, sizePosition);
+  }
+
+  private void writeMessageAnnotations(EncodingBuffer buffer, JsonObject jsonMsgAnn) {
+    Map<String, Object> underlying = jsonMsgAnn.getMap();
+
+    writeDescriptor(buffer, MESSAGE_ANNOTATIONS_DESCRIPTOR);
+    int sizePosition = startCompound(buffer, MAP32, underlying.size() * 2);
+    for (Entry<String, Object> entry : underlying.entrySet()) {
+      writeInterned(buffer, SYMBOL_ENCODING_FACTORY, INTERN_SYMBOL_ENCODING, entry.getKey());
+      writeValue(buffer, entry.getValue());
+    }
+    endCompound(buffer, sizePosition);
+  }
+
+  private void writeProperties(EncodingBuffer buffer, JsonObject jsonProps, String address, String replyTo,
+                               Object messageId, Object correlationId) {
+    writeDescriptor(buffer, PROPERTIES_DESCRIPTOR);
+    int sizePosition = startCompound(buffer, LIST32, PROPERTIES_FIELD_COUNT);
+
+    writeValue(buffer, messageId != null ? messageId : translator.createAmqpId(jsonProps,
+        AmqpConstants.PROPERTIES_MESSAGE_ID, AmqpConstants.PROPERTIES_MESSAGE_ID_TYPE));
+
+    String userId = getString(jsonProps, AmqpConstants.PROPERTIES_USER_ID);
+    if (userId != null) {
+      int length = utf8Length(userId);
+      writeWidth(buffer, VBIN8, VBIN32, length);
+      buffer.putUtf8(userId, length);
+    } else {
+      buffer.put(NULL);
+    }
+
+    writeInterned(buffer, STRING_ENCODING_FACTORY, INTERN_STRING_ENCODING, address);
+    writeInterned(buffer, STRING_ENCODING_FACTORY, INTERN_STRING_ENCODING,
+        getString(jsonProps, AmqpConstants.PROPERTIES_SUBJECT));
+    writeInterned(buffer, STRING_ENCODING_FACTORY, INTERN_STRING_ENCODING,
+        replyTo != null ? replyTo : getString(jsonProps, AmqpConstants.PROPERTIES_REPLY_TO));
+    writeValue(buffer, correlationId != null ? correlationId : translator.createAmqpId(jsonProps,
+        AmqpConstants.PROPERTIES_CORRELATION_ID, AmqpConstants.PROPERTIES_CORRELATION_ID_TYPE));
+    writeInterned(buffer, SYMBOL_ENCODING_FACTORY, INTERN_SYMBOL_ENCODING,
+        getString(jsonProps, AmqpConstants.PROPERTIES_CONTENT_TYPE));
+    writeInterned(buffer, SYMBOL_ENCODING_FACTORY, INTERN_SYMBOL_ENCODING,
+        getString(jsonProps, AmqpConstants.PROPERTIES_CONTENT_ENCODING));
+    writeTimestamp(buffer, getLong(jsonProps, AmqpConstants.PROPERTIES_ABSOLUTE_EXPIRY_TIME));
+    writeTimestamp(buffer, getLong(jsonProps, AmqpConstants.PROPERTIES_CREATION_TIME));
+    writeInterned(buffer, STRING_ENCODING_FACTORY, INTERN_STRING_ENCODING,
+        getString(jsonProps, AmqpConstants.PROPERTIES_GROUP_ID));
+
+    Long seq = getLong(jsonProps, AmqpConstants.PROPERTIES_GROUP_SEQUENCE);
+    if (seq != null) {
+      writeUnsignedInt(buffer, UnsignedInteger.valueOf(seq).intValue());
+    } else {
+      buffer.put(NULL);
+    }
+
+    writeInterned(buffer, STRING_ENCODING_FACTORY, INTERN_STRING_ENCODING,
+        getString(jsonProps, AmqpConstants.PROPERTIES_REPLY_TO_GROUP_ID));
+
+    endCompound(buffer, sizePosition);
+  }
+
+  private void writeApplicationProperties(EncodingBuffer buffer, JsonObject jsonAppProps) {
+    Map<String, Object> underlying = jsonAppProps.getMap();
+
+    writeDescriptor(buffer, APPLICATION_PROPERTIES_DESCRIPTOR);
+    int sizePosition = startCompound(buffer, MAP32, underlying.size() * 2);
+    for (Entry<String, Object> entry : underlying.entrySet()) {
+      writeInterned(buffer, STRING_ENCODING_FACTORY, INTERN_STRING_ENCODING, entry.getKey());
+      writeValue(buffer, entry.getValue());
+    }
+    endCompound(buffer, sizePosition);
+  }
+
+  /**
+   * Writes the encoding of a string which is likely to be repeated across messages, using the intern cache to avoid
+   * encoding it each time.
+   */
+  private void writeInterned(EncodingBuffer buffer, Function<String, byte[]> factory, int kind, String value) {
+    if (value == null) {
+      buffer.put(NULL);
+      return;
+    }
+
+    byte[] encoded = translator.getInternCache().get(kind, value, factory);
+    buffer.put(encoded, 0, encoded.length);
+  }
+
+  private static byte[] encodeString(String value) {
+    EncodingBuffer buffer = new EncodingBuffer(value.length() + 5);
+    writeString(buffer, value);
+
+    return buffer.toByteArray();
+  }
+
+  private static byte[] encodeSymbol(String value) {
+    EncodingBuffer buffer = new EncodingBuffer(value.length() + 5);
+    writeSymbol(buffer, value);
+
+    return buffer.toByteArray();
+  }
+
+  private static String getString(JsonObject jsonObject, String key) {
+    return jsonObject == null ? null : jsonObject.getString(key);
+  }
+
+  private static Long getLong(JsonObject jsonObject, String key) {
+    return jsonObject == null ? null : jsonObject.getLong(key);
+  }
+
+  private void writeValue(EncodingBuffer buffer, Object value) {
+    if (isCompound(value)) {
+      writeCompound(buffer, value);
+    } else {
+      writeScalar(buffer, value);
+    }
+  }
+
+  private static boolean isCompound(Object value) {
+    return value instanceof JsonObject || value instanceof Map || value instanceof JsonArray || value instanceof List;
+  }
+
+  /**
+   * Writes a map or list, iteratively writing any maps and lists nested within it. Each is started when reached and
+   * then ended, back-patching its size, once all of its elements have been written.
+   */
+  private void writeCompound(EncodingBuffer buffer, Object root) {
+    Deque<CompoundFrame> stack = new ArrayDeque<>();
+    int elements = 0;
+
+    Object value = root;
+    while (true) {
+      if (isCompound(value)) {
+        translator.checkNestingDepth(stack.size() + 1);
+        CompoundFrame started = startCompoundFrame(buffer, value);
+        if (started != null) {
+          stack.push(started);
+        }
+      } else {
+        writeScalar(buffer, value);
+      }
+
+      CompoundFrame frame = stack.peek();
+      while (frame != null && !frame.hasNext()) {
+        endCompound(buffer, frame.sizePosition);
+        stack.pop();
+        frame = stack.peek();
+      }
+
+      if (frame == null) {
+        return;
+      }
+
+      if (!frame.hasPendingValue()) {
+        translator.checkElementCount(++elements);
+      }
+
+      value = frame.next();
+    }
+  }
+
+  private CompoundFrame startCompoundFrame(EncodingBuffer buffer, Object value) {
+    if (value instanceof JsonObject) {
+      value = ((JsonObject) value).getMap();
+    } else if (value instanceof JsonArray) {
+      value = ((JsonArray) value).getList();
+    }
+
+    if (value instanceof Map) {
+      Map<?, ?> map = (Map<?, ?>) value;
+      int sizePosition = startCompound(buffer, MAP32, map.size() * 2);
+      return new CompoundFrame(map.entrySet().iterator(), sizePosition, true);
+    }
+
+    List<?> list = (List<?>) value;
+    if (list.isEmpty()) {
+      buffer.put(LIST0);
+      return null;
+    }
+
+    int sizePosition = startCompound(buffer, LIST32, list.size());
+    return new CompoundFrame(list.iterator(), sizePosition, false);
+  }
+
+  private void writeScalar(EncodingBuffer buffer, Object value) {
+    if (value == null) {
+      buffer.put(NULL);
+    } else if (value instanceof String) {
+      writeString(buffer, (String) value);
+    } else if (value instanceof Boolean) {
+      buffer.put((Boolean) value ? TRUE : FALSE);
+    } else if (value instanceof Integer) {
+      int i = (Integer) value;
+      if (i >= Byte.MIN_VALUE && i <= Byte.MAX_VALUE) {
+        buffer.put(SMALLINT);
+        buffer.put((byte) i);
+      } else {
+        buffer.put(INT);
+        buffer.putInt(i);
+      }
+    } else if (value instanceof Long) {
+      long l = (Long) value;
+      if (l >= Byte.MIN_VALUE && l <= Byte.MAX_VALUE) {
+        buffer.put(SMALLLONG);
+        buffer.put((byte) l);
+      } else {
+        buffer.put(LONG);
+        buffer.putLong(l);
+      }
+    } else if (value instanceof Double) {
+      buffer.put(DOUBLE);
+      buffer.putLong(Double.doubleToLongBits((Double) value));
+    } else if (value instanceof Float) {
+      buffer.put(FLOAT);
+      buffer.putInt(Float.floatToIntBits((Float) value));
+    } else if (value instanceof Short) {
+      buffer.put(SHORT);
+      buffer.putShort((Short) value);
+    } else if (value instanceof Byte) {
+      buffer.put(BYTE);
+      buffer.put((Byte) value);
+    } else if (value instanceof Character) {
+      buffer.put(CHAR);
+      buffer.putInt((Character) value);
+    } else if (value instanceof UnsignedByte) {
+      buffer.put(UBYTE);
+      buffer.put(((UnsignedByte) value).byteValue());
+    } else if (value instanceof UnsignedShort) {
+      buffer.put(USHORT);
+      buffer.putShort(((UnsignedShort) value).shortValue());
+    } else if (value instanceof UnsignedInteger) {
+      writeUnsignedInt(buffer, ((UnsignedInteger) value).intValue());
+    } else if (value instanceof UnsignedLong) {
+      writeUnsignedLong(buffer, ((UnsignedLong) value).longValue());
+    } else if (value instanceof Binary) {
+      Binary bin = (Binary) value;
+      writeBinary(buffer, bin.getArray(), bin.getArrayOffset(), bin.getLength());
+    } else if (value instanceof byte[]) {
+      byte[] bytes = (byte[]) value;
+      writeBinary(buffer, bytes, 0, bytes.length);
+    } else if (value instanceof Buffer) {
+      byte[] bytes = ((Buffer) value).getBytes();
+      writeBinary(buffer, bytes, 0, bytes.length);
+    } else if (value instanceof Symbol) {
+      writeSymbol(buffer, value.toString());
+    } else if (value instanceof Date) {
+      writeTimestamp(buffer, ((Date) value).getTime());
+    } else if (value instanceof UUID) {
+      UUID uuid = (UUID) value;
+      buffer.put(UUID_16);
+      buffer.putLong(uuid.getMostSignificantBits());
+      buffer.putLong(uuid.getLeastSignificantBits());
+    } else {
+      throw new IllegalArgumentException("No AMQP encoding is known for " + value.getClass().getName());
+    }
+  }
+
+  /**
+   * A map or list being written. The entries of a map are returned as their key followed by their value.
+   */
+  private static final class CompoundFrame {
+    private final Iterator<?> iterator;
+    private final int sizePosition;
+    private final boolean map;
+    private Object pendingValue;
+    private boolean pending;
+
+    CompoundFrame(Iterator<?> iterator, int sizePosition, boolean map) {
+      this.iterator = iterator;
+      this.sizePosition = sizePosition;
+      this.map = map;
+    }
+
+    boolean hasNext() {
+      return pending || iterator.hasNext();
+    }
+
+    boolean hasPendingValue() {
+      return pending;
+    }
+
+    Object next() {
+      if (pending) {
+        Object value = pendingValue;
+        pendingValue = null;
+        pending = false;
+        return value;
+      }
+
+      Object next = iterator.next();
+      if (map) {
+        Entry<?, ?> entry = (Entry<?, ?>) next;
+        pendingValue = entry.getValue();
+        pending = true;
+        return entry.getKey();
+      }
+
+      return next;
+    }
+  }
+
+  private static void writeDescriptor(EncodingBuffer buffer, byte descriptor) {
+    buffer.put(DESCRIBED_TYPE);
+    buffer.put(SMALLULONG);
+    buffer.put(descriptor);
+  }
+
+  /**
+   * Writes the constructor, a size placeholder and the element count of a 32-bit width list or map.
+   *
+   * @return the position of the size placeholder, to pass to {@link #endCompound(EncodingBuffer, int)}
+   */
+  private static int startCompound(EncodingBuffer buffer, byte constructor, int count) {
+    buffer.put(constructor);
+    int sizePosition = buffer.position();
+    buffer.putInt(0);
+    buffer.putInt(count);
+
+    return sizePosition;
+  }
+
+  private static void endCompound(EncodingBuffer buffer, int sizePosition) {
+    buffer.putInt(sizePosition, buffer.position() - sizePosition - 4);
+  }
+
+  private static void writeWidth(EncodingBuffer buffer, byte constructor8, byte constructor32, int length) {
+    if (length <= 255) {
+      buffer.put(constructor8);
+      buffer.put((byte) length);
+    } else {
+      buffer.put(constructor32);
+      buffer.putInt(length);
+    }
+  }
+
+  private static void writeString(EncodingBuffer buffer, String value) {
+    if (value == null) {
+      buffer.put(NULL);
+      return;
+    }
+
+    int length = utf8Length(value);
+    writeWidth(buffer, STR8, STR32, length);
+    buffer.putUtf8(value, length);
+  }
+
+  private static void writeSymbol(EncodingBuffer buffer, String value) {
+    if (value == null) {
+      buffer.put(NULL);
+      return;
+    }
+
+    writeWidth(buffer, SYM8, SYM32, value.length());
+    buffer.putAscii(value);
+  }
+
+  private static void writeBinary(EncodingBuffer buffer, byte[] bytes, int offset, int length) {
+    writeWidth(buffer, VBIN8, VBIN32, length);
+    buffer.put(bytes, offset, length);
+  }
+
+  private static void writeTimestamp(EncodingBuffer buffer, Long time) {
+    if (time == null) {
+      buffer.put(NULL);
+      return;
+    }
+
+    buffer.put(TIMESTAMP);
+    buffer.putLong(time);
+  }
+
+  private static void writeUnsignedInt(EncodingBuffer buffer, int value) {
+    if (value == 0) {
+      buffer.put(UINT0);
+    } else if ((value & 0xffffff00) == 0) {
+      buffer.put(SMALLUINT);
+      buffer.put((byte) value);
+    } else {
+      buffer.put(UINT);
+      buffer.putInt(value);
+    }
+  }
+
+  private static void writeUnsignedLong(EncodingBuffer buffer, long value) {
+    if (value == 0) {
+      buffer.put(ULONG0);
+    } else if ((value & 0xffffffffffffff00L) == 0) {
+      buffer.put(SMALLULONG);
+      buffer.put((byte) value);
+    } else {
+      buffer.put(ULONG);
+      buffer.putLong(value);
+    }
+  }
+
+  /**
+   * Returns the length of the UTF-8 encoding of the given string, as produced by {@code String.getBytes(UTF_8)}, which
+   * encodes unpaired surrogates as '?'.
+   */
+  static int utf8Length(String value) {
+    int length = value.length();
+    int encoded = length;
+    for (int i = 0; i < length; i++) {
+      char c = value.charAt(i);
+      if (c >= 0x80) {
+        if (c < 0x800) {
+          encoded += 1;
+        } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(value.charAt(i + 1))) {
+          encoded += 2;
+          i++;
+        } else if (!Character.isSurrogate(c)) {
+          encoded += 2;
+        }
+      }
+    }
+
+    return encoded;
+  }
+
+  private static final class EncodingBuffer {
+
+    private byte[] array;
+    private int position;
+
+    EncodingBuffer(int capacity) {
+      array = new byte[capacity];
+    }
+
+    int position() {
+      return position;
+    }
+
+    int capacity() {
+      return array.length;
+    }
+
+    void clear() {
+      position = 0;
+    }
+
+    byte[] toByteArray() {
+      return Arrays.copyOf(array, position);
+    }
+
+    private void ensureRemaining(int required) {
+      if (array.length - position < required) {
+        array = Arrays.copyOf(array, Math.max(array.length << 1, position + required));
+      }
+    }
+
+    void put(byte value) {
+      ensureRemaining(1);
+      array[position++] = value;
+    }
+
+    void put(byte[] bytes, int offset, int length) {
+      ensureRemaining(length);
+      System.arraycopy(bytes, offset, array, position, length);
+      position += length;
+    }
+
+    void putShort(short value) {
+      ensureRemaining(2);
+      array[position++] = (byte) (value >>> 8);
+      array[position++] = (byte) value;
+    }
+
+    void putInt(int value) {
+      ensureRemaining(4);
+      putInt(position, value);
+      position += 4;
+    }
+
+    void putInt(int index, int value) {
+      array[index] = (byte) (value >>> 24);
+      array[index + 1] = (byte) (value >>> 16);
+      array[index + 2] = (byte) (value >>> 8);
+      array[index + 3] = (byte) value;
+    }
+
+    void putLong(long value) {
+      ensureRemaining(8);
+      putInt(position, (int) (value >>> 32));
+      putInt(position + 4, (int) value);
+      position += 8;
+    }
+
+    void putAscii(String value) {
+      int length = value.length();
+      ensureRemaining(length);
+      for (int i = 0; i < length; i++) {
+        char c = value.charAt(i);
+        array[position++] = c < 0x80 ? (byte) c : (byte) '?';
+      }
+    }
+
+    void putUtf8(String value, int encodedLength) {
+      ensureRemaining(encodedLength);
+      byte[] a = array;
+      int p = position;
+      for (int i = 0, length = value.length(); i < length; i++) {
+        char c = value.charAt(i);
+        if (c < 0x80) {
+          a[p++] = (byte) c;
+        } else if (c < 0x800) {
+          a[p++] = (byte) (0xc0 | (c >> 6));
+          a[p++] = (byte) (0x80 | (c & 0x3f));
+        } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(value.charAt(i + 1))) {
+          int codePoint = Character.toCodePoint(c, value.charAt(++i));
+          a[p++] = (byte) (0xf0 | (codePoint >> 18));
+          a[p++] = (byte) (0x80 | ((codePoint >> 12) & 0x3f));
+          a[p++] = (byte) (0x80 | ((codePoint >> 6) & 0x3f));
+          a[p++] = (byte) (0x80 | (codePoint & 0x3f));
+        } else if (Character.isSurrogate(c)) {
+          a[p++] = (byte) '?';
+        } else {
+          a[p++] = (byte) (0xe0 | (c >> 12));
+          a[p++] = (byte) (0x80 | ((c >> 6) & 0x3f));
+          a[p++] = (byte) (0x80 | (c & 0x3f));
+        }
+      }
+      position = p;
+    }
+  }
+}
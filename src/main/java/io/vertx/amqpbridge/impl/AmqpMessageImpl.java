@@ -15,6 +15,7 @@
 */
 package io.vertx.amqpbridge.impl;
 
+import io.vertx.amqpbridge.MessageTranslator;
 import io.vertx.core.AsyncResult;
 import io.vertx.core.Handler;
 import io.vertx.core.MultiMap;
@@ -23,19 +24,25 @@ import io.vertx.core.eventbus.Message;
 import io.vertx.core.json.JsonObject;
 import io.vertx.proton.ProtonDelivery;
 import io.vertx.proton.ProtonHelper;
+import org.apache.qpid.proton.amqp.messaging.Outcome;
+import org.apache.qpid.proton.amqp.messaging.Released;
+import org.apache.qpid.proton.amqp.transport.DeliveryState;
 
-public class AmqpMessageImpl implements Message<JsonObject> {
+public class AmqpMessageImpl<T> implements Message<T> {
 
-  private final JsonObject body;
+  private final T body;
+  private final MessageTranslator<T> translator;
   private final AmqpBridgeImpl bridge;
   private final org.apache.qpid.proton.message.Message protonMessage;
   private final ProtonDelivery delivery;
   private final String amqpAddress;
   private final String amqpReplyAddress;
 
-  public AmqpMessageImpl(JsonObject body, AmqpBridgeImpl bridge, org.apache.qpid.proton.message.Message protonMessage,
-      ProtonDelivery delivery, String amqpAddress, String amqpReplyAddress) {
+  public AmqpMessageImpl(T body, MessageTranslator<T> translator, AmqpBridgeImpl bridge,
+      org.apache.qpid.proton.message.Message protonMessage, ProtonDelivery delivery, String amqpAddress,
+      String amqpReplyAddress) {
     this.body = body;
+    this.translator = translator;
     this.bridge = bridge;
     this.protonMessage = protonMessage;
     this.delivery = delivery;
@@ -55,7 +62,7 @@ public class AmqpMessageImpl implements Message<JsonObject> {
   }
 
   @Override
-  public JsonObject body() {
+  public T body() {
     return body;
   }
 
@@ -71,12 +78,14 @@ public class AmqpMessageImpl implements Message<JsonObject> {
     return true;
   }
 
+  @SuppressWarnings("unchecked")
   private <R> void doReply(Object replyMessageBody, Handler<AsyncResult<Message<R>>> replyHandler) {
-    if(!(replyMessageBody instanceof JsonObject)) {
+    if(translator instanceof MessageTranslatorImpl && !(replyMessageBody instanceof JsonObject)) {
       throw new IllegalArgumentException("The reply body must be an instance of JsonObject");
     }
 
-    bridge.sendReply(protonMessage, (JsonObject) replyMessageBody, replyHandler);
+    // Replies use the same translator as the message being replied to.
+    bridge.sendReply(protonMessage, translator, (T) replyMessageBody, replyHandler);
   }
 
   @Override
@@ -107,4 +116,17 @@ public class AmqpMessageImpl implements Message<JsonObject> {
   void accept() {
     ProtonHelper.accepted(delivery, true);
   }
+
+  /**
+   * Settles the delivery with the outcome of forwarding the message, releasing it for redelivery if there was none.
+   *
+   * @param forwardedState the remote state of the delivery of the forwarded message
+   */
+  void settle(DeliveryState forwardedState) {
+    delivery.disposition(forwardedState instanceof Outcome ? forwardedState : Released.getInstance(), true);
+  }
+
+  org.apache.qpid.proton.message.Message getProtonMessage() {
+    return protonMessage;
+  }
 }
@@ -0,0 +1,100 @@
+/*
+* Copyright 2016 the original author or authors.
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package io.vertx.amqpbridge.impl;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import io.vertx.amqpbridge.AmqpConstants;
+import io.vertx.amqpbridge.AmqpMessageRouter;
+import org.apache.qpid.proton.amqp.messaging.ApplicationProperties;
+
+import io.vertx.core.Handler;
+import io.vertx.core.eventbus.Message;
+
+public class AmqpMessageRouterImpl<T> implements AmqpMessageRouter<T> {
+
+  private final Map<String, Handler<Message<T>>> routes = new HashMap<>();
+  private final String property;
+  private final String applicationProperty;
+  private Handler<Message<T>> otherwise;
+
+  /**
+   * @param property the properties section element to route by, or null
+   * @param applicationProperty the application property to route by, if not routing by a properties section element
+   */
+  public AmqpMessageRouterImpl(String property, String applicationProperty) {
+    if (property == null && applicationProperty == null) {
+      throw new NullPointerException("The application property name must not be null");
+    }
+
+    this.property = property;
+    this.applicationProperty = applicationProperty;
+  }
+
+  @Override
+  public AmqpMessageRouter<T> route(String value, Handler<Message<T>> handler) {
+    if (value == null || handler == null) {
+      throw new NullPointerException("The value and handler must not be null");
+    }
+
+    routes.put(value, handler);
+    return this;
+  }
+
+  @Override
+  public AmqpMessageRouter<T> otherwise(Handler<Message<T>> handler) {
+    otherwise = handler;
+    return this;
+  }
+
+  @Override
+  public void handle(Message<T> message) {
+    String key = routingKey(message);
+
+    Handler<Message<T>> handler = key == null ? null : routes.get(key);
+    if (handler == null) {
+      handler = otherwise;
+    }
+
+    if (handler != null) {
+      handler.handle(message);
+    }
+  }
+
+  private String routingKey(Message<T> message) {
+    if (!(message instanceof AmqpMessageImpl)) {
+      return null;
+    }
+
+    org.apache.qpid.proton.message.Message protonMessage = ((AmqpMessageImpl<T>) message).getProtonMessage();
+    if (applicationProperty != null) {
+      ApplicationProperties appProps = protonMessage.getApplicationProperties();
+      if (appProps == null || appProps.getValue() == null) {
+        return null;
+      }
+
+      Object value = appProps.getValue().get(applicationProperty);
+      return value == null ? null : value.toString();
+    }
+
+    if (AmqpConstants.PROPERTIES_SUBJECT.equals(property)) {
+      return protonMessage.getSubject();
+    }
+
+    return protonMessage.getGroupId();
+  }
+}
@@ -0,0 +1,72 @@
+/*
+* Copyright 2016 the original author or authors.
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package io.vertx.amqpbridge.impl;
+
+import io.vertx.core.json.JsonObject;
+
+/**
+ * The sections of a template message, encoded once by {@link AmqpMessageEncoder#createTemplate(JsonObject)} so they
+ * can be written as-is into each message sent using the template.
+ */
+public class AmqpMessageTemplate {
+
+  private final byte[] header;
+  private final byte[] messageAnnotations;
+  private final byte[] properties;
+  private final byte[] applicationProperties;
+  private final JsonObject jsonProperties;
+  private final String address;
+
+  AmqpMessageTemplate(byte[] header, byte[] messageAnnotations, byte[] properties, byte[] applicationProperties,
+                      JsonObject jsonProperties, String address) {
+    this.header = header;
+    this.messageAnnotations = messageAnnotations;
+    this.properties = properties;
+    this.applicationProperties = applicationProperties;
+    this.jsonProperties = jsonProperties;
+    this.address = address;
+  }
+
+  byte[] getHeader() {
+    return header;
+  }
+
+  byte[] getMessageAnnotations() {
+    return messageAnnotations;
+  }
+
+  byte[] getProperties() {
+    return properties;
+  }
+
+  byte[] getApplicationProperties() {
+    return applicationProperties;
+  }
+
+  /**
+   * @return the template properties, used to re-encode them when a message overrides some of their values
+   */
+  JsonObject getJsonProperties() {
+    return jsonProperties;
+  }
+
+  /**
+   * @return the 'to' address of the template properties, or null
+   */
+  String getAddress() {
+    return address;
+  }
+}
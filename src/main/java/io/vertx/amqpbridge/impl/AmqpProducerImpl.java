@@ -15,40 +15,135 @@
 */
 package io.vertx.amqpbridge.impl;
 
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import io.vertx.amqpbridge.AmqpProducer;
+import io.vertx.amqpbridge.AmqpProducerOptions;
+import io.vertx.amqpbridge.MessageTranslator;
+import io.vertx.amqpbridge.WriteQueueOverflowPolicy;
 import io.vertx.core.AsyncResult;
 import io.vertx.core.Future;
 import io.vertx.core.Handler;
+import io.vertx.core.Promise;
 import io.vertx.core.VertxException;
 import io.vertx.core.eventbus.DeliveryOptions;
 import io.vertx.core.eventbus.Message;
 import io.vertx.core.eventbus.MessageProducer;
+import io.vertx.core.impl.NoStackTraceThrowable;
 import io.vertx.core.json.JsonObject;
 import io.vertx.proton.ProtonConnection;
 import io.vertx.proton.ProtonDelivery;
+import io.vertx.proton.ProtonQoS;
 import io.vertx.proton.ProtonSender;
 import io.vertx.proton.impl.ProtonSenderImpl;
+import org.apache.qpid.proton.amqp.Symbol;
+import org.apache.qpid.proton.amqp.messaging.Accepted;
+import org.apache.qpid.proton.amqp.messaging.MessageAnnotations;
+import org.apache.qpid.proton.amqp.messaging.Released;
 import org.apache.qpid.proton.amqp.transport.DeliveryState;
 
-public class AmqpProducerImpl implements MessageProducer<JsonObject> {
+public class AmqpProducerImpl<T> implements AmqpProducer<T>, MessageForwarder {
+
+  // Outcomes are created once, rather than for each delivery, and are stackless, so can be shared.
+  private static final AsyncResult<Void> REJECTED_OUTCOME = Future.failedFuture("message rejected (REJECTED)");
+  private static final AsyncResult<Void> MODIFIED_OUTCOME = Future.failedFuture("message rejected (MODIFIED)");
+  private static final AsyncResult<Void> RELEASED_OUTCOME = Future.failedFuture("message rejected (RELEASED)");
+  private static final NoStackTraceThrowable WRITE_QUEUE_FULL =
+      new NoStackTraceThrowable("Producer write queue is full");
+  private static final NoStackTraceThrowable PRODUCER_CLOSED = new NoStackTraceThrowable("Producer closed");
 
   private final ProtonSender sender;
-  private final MessageTranslatorImpl translator = new MessageTranslatorImpl();
+  private final MessageTranslator<T> translator;
   private final AmqpBridgeImpl bridge;
   private final String amqpAddress;
+  private final AmqpMessageTemplate template;
+  private final String compression;
+  private final int compressionThreshold;
+  private final boolean presettled;
+  private final int maxInFlight;
+  private final long writeQueueMaxBytes;
+  private final WriteQueueOverflowPolicy writeQueueOverflowPolicy;
+  private volatile int writeQueueMaxSize;
   private boolean closed;
   private Handler<Throwable> exceptionHandler;
-  private Handler<Void> drainHandler;
-  private long remoteCredit = 0;
+  private volatile Handler<Void> drainHandler;
+  // Credit tracking is atomic rather than guarded by the producer monitor, so that threads sending concurrently only
+  // contend on the one counter.
+  private final AtomicLong remoteCredit = new AtomicLong();
+  private final Queue<PendingSend> pendingSends = new ConcurrentLinkedQueue<>();
+  private final AtomicBoolean drainScheduled = new AtomicBoolean();
+  // Messages the producer has been asked to send and which are not yet settled, whether sent or held by the window.
+  private final AtomicInteger unsettled = new AtomicInteger();
+  // Messages held until there is credit or room in the in-flight window, and the number sent and not yet settled.
+  // Both are only used on the context, which is also where the oldest messages are dropped from the write queue.
+  private final Queue<PendingSend> heldSends = new ConcurrentLinkedQueue<>();
+  private int windowSent;
+  private boolean releasingHeldSends;
+  // Messages sent but not yet passed to the sender, and their encoded size when that is bounded, forming the write
+  // queue. The bounds are checked before adding to them, so may be exceeded slightly by concurrent sends.
+  private final AtomicInteger queued = new AtomicInteger();
+  private final AtomicLong queuedBytes = new AtomicLong();
+  private final AtomicBoolean writeQueueDrainPending = new AtomicBoolean();
+  private final AtomicInteger blockedSenders = new AtomicInteger();
+  private final Object writeQueueLock = new Object();
+  // Tags of settled deliveries available for reuse, and the number of tags created. Only used on the context.
+  private final Deque<byte[]> freeDeliveryTags = new ArrayDeque<>();
+  private long deliveryTagCount;
+  // Handlers used for every send without a completion handler, so that none are created per send.
+  private final Handler<ProtonDelivery> settledHandler = this::settled;
+  private final Handler<Throwable> writeQueueOverflowHandler = this::handleWriteQueueOverflow;
 
   public AmqpProducerImpl(AmqpBridgeImpl bridge, ProtonConnection connection, String amqpAddress) {
+    this(bridge, connection, amqpAddress, new AmqpProducerOptions());
+  }
+
+  public AmqpProducerImpl(AmqpBridgeImpl bridge, ProtonConnection connection, String amqpAddress,
+                          AmqpProducerOptions options) {
+    this(bridge, createSender(bridge, connection, amqpAddress), amqpAddress, options);
+  }
+
+  /**
+   * Creates a producer sending on the given unopened sender, e.g. one created on a particular session.
+   */
+  AmqpProducerImpl(AmqpBridgeImpl bridge, ProtonSender sender, String amqpAddress, AmqpProducerOptions options) {
     if(!bridge.onContextEventLoop()) {
       throw new IllegalStateException("Should be executing on the bridge context thread");
     }
 
     this.bridge = bridge;
     this.amqpAddress= amqpAddress;
+    this.translator = bridge.createTranslator(amqpAddress);
+
+    if (options.getTemplate() == null) {
+      template = null;
+    } else if (translator instanceof MessageTranslatorImpl) {
+      template = ((MessageTranslatorImpl) translator).createMessageTemplate(options.getTemplate());
+    } else {
+      throw new IllegalArgumentException("Templates can only be used with the default JsonObject message translator");
+    }
+
+    compression = options.getCompression();
+    compressionThreshold = options.getCompressionThreshold();
+
+    presettled = options.getQos() == ProtonQoS.AT_MOST_ONCE;
+    maxInFlight = options.getMaxInFlight();
+    writeQueueMaxBytes = options.getWriteQueueMaxBytes();
+    writeQueueOverflowPolicy = options.getWriteQueueOverflowPolicy();
 
-    sender = connection.createSender(amqpAddress);
+    this.sender = sender;
+    sender.setQoS(options.getQos());
     sender.closeHandler(res -> {
       Handler<Throwable> eh = null;
       boolean closeSender = false;
@@ -75,20 +170,17 @@ public class AmqpProducerImpl implements MessageProducer<JsonObject> {
       if(closeSender) {
         sender.close();
       }
+
+      failUnsentSends();
     });
     sender.sendQueueDrainHandler(s -> {
-      Handler<Void> dh = null;
-      synchronized (AmqpProducerImpl.this) {
-        // Update current state of remote credit
-        remoteCredit = ((ProtonSenderImpl) sender).getRemoteCredit();
-
-        // check the user drain handler, fire it outside synchronized block if not null
-        if (drainHandler != null) {
-          dh = drainHandler;
-        }
-      }
+      // Update current state of remote credit, and send any messages held for it
+      updateRemoteCredit();
+      releaseHeldSends();
+      updateRemoteCredit();
 
-      if(dh != null) {
+      Handler<Void> dh = drainHandler;
+      if(dh != null && !writeQueueFull()) {
         dh.handle(null);
       }
     });
@@ -96,112 +188,747 @@ public class AmqpProducerImpl implements MessageProducer<JsonObject> {
     sender.open();
   }
 
+  private static ProtonSender createSender(AmqpBridgeImpl bridge, ProtonConnection connection, String amqpAddress) {
+    if(!bridge.onContextEventLoop()) {
+      throw new IllegalStateException("Should be executing on the bridge context thread");
+    }
+
+    return connection.createSender(amqpAddress);
+  }
+
+  /**
+   * @return the credit the producer has available, less that of messages it has been asked to send but not yet sent
+   */
+  long getAvailableCredit() {
+    return remoteCredit.get();
+  }
+
   @Override
-  public synchronized boolean writeQueueFull() {
-    return remoteCredit <= 0;
+  public boolean writeQueueFull() {
+    boolean full = isFull();
+    if (full && isWriteQueueBounded()) {
+      writeQueueDrainPending.set(true);
+    }
+
+    return full;
+  }
+
+  /**
+   * @return whether the write queue is full, as with {@link #writeQueueFull()}, without the drain handler then being
+   *         notified once it is not
+   */
+  boolean isFull() {
+    if (!isWriteQueueBounded()) {
+      return remoteCredit.get() <= 0 || inFlightWindowFull();
+    }
+
+    return writeQueueAtLimit() || inFlightWindowFull();
+  }
+
+  private synchronized boolean isClosed() {
+    return closed;
+  }
+
+  private boolean isWriteQueueBounded() {
+    return writeQueueMaxSize > 0 || writeQueueMaxBytes > 0;
+  }
+
+  private boolean writeQueueAtLimit() {
+    int maxSize = writeQueueMaxSize;
+    return (maxSize > 0 && queued.get() >= maxSize)
+        || (writeQueueMaxBytes > 0 && queuedBytes.get() >= writeQueueMaxBytes);
+  }
+
+  private boolean inFlightWindowFull() {
+    return maxInFlight > 0 && unsettled.get() >= maxInFlight;
   }
 
   @Override
-  public MessageProducer<JsonObject> send(JsonObject messageBody) {
+  public MessageProducer<T> send(T messageBody) {
     return send(messageBody, null);
   }
 
   @Override
-  public <R> MessageProducer<JsonObject> send(JsonObject messageBody, Handler<AsyncResult<Message<R>>> replyHandler) {
-    return doSend(messageBody, null, replyHandler, null);
+  public <R> MessageProducer<T> send(T messageBody, Handler<AsyncResult<Message<R>>> replyHandler) {
+    doSend(translator, messageBody, null, null, replyHandler, null);
+    return this;
   }
 
-  protected <R> MessageProducer<JsonObject> doSend(JsonObject messageBody,
-                                                   Handler<AsyncResult<Void>> completionHandler,
-                                                   Handler<AsyncResult<Message<R>>> replyHandler, String toAddress) {
+  /**
+   * Sends the given message body, translated using the given translator rather than necessarily that of the producer.
+   *
+   * @param bodyTranslator the translator for the body, which is also used for any reply
+   * @param messageBody the message body
+   * @param correlationId the correlation-id to give the message, or null
+   * @param completionHandler the handler for the outcome of the send, or null
+   * @param replyHandler the handler for any reply, or null
+   * @param toAddress the address to send the message to, or null to use the address of the producer
+   */
+  <B, R> void doSend(MessageTranslator<B> bodyTranslator, B messageBody, Object correlationId,
+                     Handler<AsyncResult<Void>> completionHandler, Handler<AsyncResult<Message<R>>> replyHandler,
+                     String toAddress) {
+    String replyTo = null;
+    Object replyMessageId = null;
     if (replyHandler != null) {
-      bridge.verifyReplyToAddressAvailable();
+      replyTo = bridge.getReplyToAddress();
+      replyMessageId = bridge.nextReplyMessageId();
     }
 
-    org.apache.qpid.proton.message.Message msg = translator.convertToAmqpMessage(messageBody);
+    org.apache.qpid.proton.message.Message msg = convertToAmqpMessage(bodyTranslator, messageBody, correlationId,
+        toAddress, replyTo, replyMessageId);
 
-    if (toAddress != null) {
-      msg.setAddress(toAddress);
+    if (replyHandler != null) {
+      bridge.registerReplyToHandler(replyMessageId, bodyTranslator, replyHandler);
     }
 
-    synchronized (AmqpProducerImpl.this) {
-      // Update the credit tracking. We only need to adjust this here because the sends etc may not be on the context
-      // thread and if that is the case we can't use the ProtonSender sendQueueFull method to check that credit has been
-      // exhausted following this doSend call since we will have only scheduled the actual send for later.
-      remoteCredit--;
+    Handler<ProtonDelivery> deliveryHandler = null;
+    Handler<Throwable> overflowHandler = writeQueueOverflowHandler;
+    if (completionHandler != null) {
+      deliveryHandler = delivery -> {
+        if (hasFinalOutcome(delivery)) {
+          completionHandler.handle(deliveryOutcome(delivery));
+        }
+      };
+      overflowHandler = cause -> completionHandler.handle(Future.failedFuture(cause));
     }
 
-    bridge.runOnContext(true, v -> {
-      if (replyHandler != null) {
-        bridge.registerReplyToHandler(msg, replyHandler);
-      }
-
-      if (completionHandler == null) {
-        sender.send(msg);
-      } else {
-        sender.send(msg, delivery -> {
-          switch (delivery.getRemoteState().getType()) {
-            case Rejected:
-              completionHandler.handle(Future.failedFuture("message rejected (REJECTED"));
-              break;
-            case Modified:
-              completionHandler.handle(Future.failedFuture("message rejected (MODIFIED)"));
-              break;
-            case Released:
-              completionHandler.handle(Future.failedFuture("message rejected (RELEASED)"));
-              break;
-            case Accepted:
-              completionHandler.handle(Future.succeededFuture());
-              break;
-            default:
-              completionHandler.handle(Future.failedFuture("Unsupported delivery type: " + delivery.getRemoteState().getType()));
+    sendMessage(msg, deliveryHandler, overflowHandler);
+  }
+
+  @Override
+  public AmqpProducer<T> sendBatch(List<T> messageBodies) {
+    doSendBatch(messageBodies, null);
+    return this;
+  }
+
+  @Override
+  public AmqpProducer<T> writeBatch(List<T> messageBodies, Handler<AsyncResult<Void>> completionHandler) {
+    doSendBatch(messageBodies, completionHandler);
+    return this;
+  }
+
+  @Override
+  public Future<Void> sendWithAck(T messageBody) {
+    Promise<Void> promise = Promise.promise();
+    doSend(translator, messageBody, null, promise, null, null);
+    return promise.future();
+  }
+
+  private void doSendBatch(List<T> messageBodies, Handler<AsyncResult<Void>> completionHandler) {
+    int size = messageBodies.size();
+    if (size == 0) {
+      if (completionHandler != null) {
+        completionHandler.handle(Future.succeededFuture());
+      }
+
+      return;
+    }
+
+    // Translate all of the messages up front on the calling thread, leaving only the sends for the context thread.
+    org.apache.qpid.proton.message.Message[] msgs = new org.apache.qpid.proton.message.Message[size];
+    for (int i = 0; i < size; i++) {
+      msgs[i] = convertToAmqpMessage(translator, messageBodies.get(i), null, null, null, null);
+    }
+
+    long[] sizes = new long[size];
+    long totalSize = 0;
+    if (writeQueueMaxBytes > 0) {
+      for (int i = 0; i < size; i++) {
+        msgs[i] = encode(msgs[i]);
+        sizes[i] = ((AmqpEncodedMessage) msgs[i]).getEncodedSize();
+        totalSize += sizes[i];
+      }
+    }
+
+    Handler<ProtonDelivery> deliveryHandler = null;
+    Handler<Throwable> overflowHandler = writeQueueOverflowHandler;
+    if (completionHandler != null) {
+      BatchOutcomeHandler batchHandler = new BatchOutcomeHandler(size, completionHandler);
+      deliveryHandler = batchHandler;
+      overflowHandler = batchHandler::fail;
+    }
+
+    // The whole batch is admitted to the write queue, or refused, at once.
+    if (!reserveWriteQueue(size, totalSize)) {
+      failWriteQueueOverflow(overflowHandler);
+      return;
+    }
+
+    // Update the credit tracking for the whole batch at once, see sendMessage.
+    remoteCredit.addAndGet(-size);
+    if (maxInFlight > 0) {
+      unsettled.addAndGet(size);
+    }
+
+    if (canSendImmediately()) {
+      for (int i = 0; i < size; i++) {
+        send(msgs[i], deliveryHandler, overflowHandler, sizes[i]);
+      }
+
+      updateRemoteCredit();
+    } else {
+      for (int i = 0; i < size; i++) {
+        pendingSends.add(new PendingSend(msgs[i], deliveryHandler, overflowHandler, sizes[i]));
+      }
+
+      scheduleDrain();
+    }
+  }
+
+  private static AsyncResult<Void> deliveryOutcome(ProtonDelivery delivery) {
+    if (delivery.getRemoteState() == null) {
+      // Sent pre-settled, so there is no outcome beyond the message having been sent.
+      return Future.succeededFuture();
+    }
+
+    switch (delivery.getRemoteState().getType()) {
+      case Rejected:
+        return REJECTED_OUTCOME;
+      case Modified:
+        return MODIFIED_OUTCOME;
+      case Released:
+        return RELEASED_OUTCOME;
+      case Accepted:
+        return Future.succeededFuture();
+      default:
+        return Future.failedFuture("Unsupported delivery type: " + delivery.getRemoteState().getType());
+    }
+  }
+
+  /**
+   * Whether the delivery has its final outcome, having been sent pre-settled or since settled by the peer, rather than
+   * being updated with an interim state, e.g. received, which the peer follows with an outcome later.
+   */
+  private static boolean hasFinalOutcome(ProtonDelivery delivery) {
+    return delivery.remotelySettled() || delivery.isSettled();
+  }
+
+  /**
+   * Collects the outcomes of the deliveries of a batch, which are all updated on the bridge context thread, into the
+   * outcome of the batch.
+   */
+  private static class BatchOutcomeHandler implements Handler<ProtonDelivery> {
+
+    private final Handler<AsyncResult<Void>> completionHandler;
+    private int remaining;
+    private boolean completed;
+
+    BatchOutcomeHandler(int size, Handler<AsyncResult<Void>> completionHandler) {
+      this.remaining = size;
+      this.completionHandler = completionHandler;
+    }
+
+    @Override
+    public void handle(ProtonDelivery delivery) {
+      if (completed || !hasFinalOutcome(delivery)) {
+        return;
+      }
+
+      AsyncResult<Void> outcome = deliveryOutcome(delivery);
+      if (outcome.failed() || --remaining == 0) {
+        completed = true;
+        completionHandler.handle(outcome);
+      }
+    }
+
+    void fail(Throwable cause) {
+      if (!completed) {
+        completed = true;
+        completionHandler.handle(Future.failedFuture(cause));
+      }
+    }
+  }
+
+  @Override
+  public void forward(org.apache.qpid.proton.message.Message msg, Map<Symbol, Object> messageAnnotations,
+                      Handler<DeliveryState> outcomeHandler) {
+    if (messageAnnotations != null) {
+      MessageAnnotations msgAnn = msg.getMessageAnnotations();
+      Map<Symbol, Object> patched = new HashMap<>();
+      if (msgAnn != null && msgAnn.getValue() != null) {
+        patched.putAll(msgAnn.getValue());
+      }
+
+      patched.putAll(messageAnnotations);
+      msg.setMessageAnnotations(new MessageAnnotations(patched));
+    }
+
+    // Pre-settled messages have no remote state, and are not redelivered, so count as accepted once sent. Messages
+    // refused by the write queue are released, leaving them to be redelivered. Interim states, e.g. received, are
+    // ignored, as the forwarded message must only be settled once, with the outcome of the delivery.
+    Handler<ProtonDelivery> deliveryHandler = new Handler<ProtonDelivery>() {
+      private boolean notified;
+
+      @Override
+      public void handle(ProtonDelivery delivery) {
+        if (!notified && hasFinalOutcome(delivery)) {
+          notified = true;
+          outcomeHandler.handle(presettled ? Accepted.getInstance() : delivery.getRemoteState());
+        }
+      }
+    };
+
+    sendMessage(msg, deliveryHandler, cause -> outcomeHandler.handle(Released.getInstance()));
+  }
+
+  private void sendMessage(org.apache.qpid.proton.message.Message msg, Handler<ProtonDelivery> deliveryHandler,
+                           Handler<Throwable> overflowHandler) {
+    long size = 0;
+    if (writeQueueMaxBytes > 0) {
+      msg = encode(msg);
+      size = ((AmqpEncodedMessage) msg).getEncodedSize();
+    }
+
+    if (!reserveWriteQueue(1, size)) {
+      failWriteQueueOverflow(overflowHandler);
+      return;
+    }
+
+    // Update the credit tracking. We only need to adjust this here because the sends etc may not be on the context
+    // thread and if that is the case we can't use the ProtonSender sendQueueFull method to check that credit has been
+    // exhausted following this send call since we will have only scheduled the actual send for later.
+    remoteCredit.decrementAndGet();
+    if (maxInFlight > 0) {
+      unsettled.incrementAndGet();
+    }
+
+    if (canSendImmediately()) {
+      send(msg, deliveryHandler, overflowHandler, size);
+      updateRemoteCredit();
+    } else {
+      pendingSends.add(new PendingSend(msg, deliveryHandler, overflowHandler, size));
+      scheduleDrain();
+    }
+  }
+
+  /**
+   * Admits the given number of messages, of the given total encoded size, to the write queue, applying the overflow
+   * policy if that would take it beyond its bounds. A send is always admitted to an empty queue, however large.
+   *
+   * @return whether the messages were admitted
+   */
+  private boolean reserveWriteQueue(int count, long size) {
+    if (writeQueueOverflows(count, size)) {
+      switch (writeQueueOverflowPolicy) {
+        case DROP_OLDEST:
+          if (bridge.onContextEventLoop()) {
+            dropOldest(count, size);
+          } else {
+            // Admitted now, with the oldest messages dropped on the context once the messages are queued.
+            bridge.runOnContext(false, v -> dropOldest(0, 0));
+          }
+          break;
+        case BLOCK:
+          if (bridge.onContextEventLoop() || !awaitWriteQueue(count, size)) {
+            return false;
           }
-        });
+          break;
+        default:
+          return false;
       }
+    }
 
-      synchronized (AmqpProducerImpl.this) {
-        // Update the credit tracking *again*. We need to reinitialise it here in case the doSend call was performed on
-        // a thread other than the bridge context, to ensure we didn't fall foul of a race between the above pre-send
-        // update on that thread, the above send on the context thread, and the sendQueueDrainHandler based updates on
-        // the context thread.
-        remoteCredit = ((ProtonSenderImpl) sender).getRemoteCredit();
+    queued.addAndGet(count);
+    if (size > 0) {
+      queuedBytes.addAndGet(size);
+    }
+
+    return true;
+  }
+
+  private boolean writeQueueOverflows(int count, long size) {
+    int current = queued.get();
+    if (current == 0) {
+      return false;
+    }
+
+    int maxSize = writeQueueMaxSize;
+    return (maxSize > 0 && current + count > maxSize)
+        || (writeQueueMaxBytes > 0 && queuedBytes.get() + size > writeQueueMaxBytes);
+  }
+
+  /**
+   * Drops the oldest messages, held or queued, until the given number of messages of the given total size can be
+   * admitted to the write queue, or given none, until the messages already admitted are within its bounds, keeping
+   * at least the newest. Only used on the context.
+   */
+  private void dropOldest(int count, long size) {
+    PendingSend oldest;
+    while (writeQueueOverflows(count, size) && (count > 0 || queued.get() > 1)
+        && ((oldest = heldSends.poll()) != null || (oldest = pendingSends.poll()) != null)) {
+      writeQueueReleased(oldest.size);
+      remoteCredit.incrementAndGet();
+      if (maxInFlight > 0) {
+        unsettled.decrementAndGet();
       }
-    });
 
-    return this;
+      failWriteQueueOverflow(oldest.overflowHandler);
+    }
+  }
+
+  private boolean awaitWriteQueue(int count, long size) {
+    blockedSenders.incrementAndGet();
+    try {
+      synchronized (writeQueueLock) {
+        while (writeQueueOverflows(count, size)) {
+          synchronized (this) {
+            if (closed) {
+              return false;
+            }
+          }
+
+          writeQueueLock.wait();
+        }
+      }
+
+      return true;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return false;
+    } finally {
+      blockedSenders.decrementAndGet();
+    }
+  }
+
+  /**
+   * Removes a message from the write queue once it is passed to the sender or dropped, waking any blocked senders.
+   */
+  private void writeQueueReleased(long size) {
+    queued.decrementAndGet();
+    if (size > 0) {
+      queuedBytes.addAndGet(-size);
+    }
+
+    if (blockedSenders.get() > 0) {
+      synchronized (writeQueueLock) {
+        writeQueueLock.notifyAll();
+      }
+    }
+  }
+
+  private void failWriteQueueOverflow(Handler<Throwable> overflowHandler) {
+    bridge.runOnContext(true, v -> overflowHandler.handle(WRITE_QUEUE_FULL));
+  }
+
+  private void handleWriteQueueOverflow(Throwable cause) {
+    Handler<Throwable> eh;
+    synchronized (this) {
+      eh = exceptionHandler;
+    }
+
+    if (eh != null) {
+      eh.handle(cause);
+    }
+  }
+
+  /**
+   * Encodes the given message, unless already encoded, so that its size is known and it is held in encoded form.
+   */
+  private static AmqpEncodedMessage encode(org.apache.qpid.proton.message.Message msg) {
+    if (msg instanceof AmqpEncodedMessage) {
+      return (AmqpEncodedMessage) msg;
+    }
+
+    byte[] buffer = new byte[1024];
+    while (true) {
+      try {
+        int size = msg.encode(buffer, 0, buffer.length);
+        return new AmqpEncodedMessage(Arrays.copyOf(buffer, size), null, msg.getAddress());
+      } catch (BufferOverflowException boe) {
+        buffer = new byte[buffer.length * 2];
+      }
+    }
+  }
+
+  /**
+   * Whether a message can be sent directly, rather than being queued, which is only when on the bridge context thread
+   * and there are no queued messages it would otherwise overtake.
+   */
+  private boolean canSendImmediately() {
+    return bridge.onContextEventLoop() && pendingSends.isEmpty();
+  }
+
+  /**
+   * Schedules a task on the bridge context to send the queued messages, unless one is already scheduled. Messages
+   * queued from any thread are then sent by that one task, rather than each scheduling its own.
+   */
+  private void scheduleDrain() {
+    if (drainScheduled.compareAndSet(false, true)) {
+      bridge.runOnContext(false, v -> drain());
+    }
+  }
+
+  private void drain() {
+    // Cleared before polling, so that a message queued once the queue appears empty schedules another drain.
+    drainScheduled.set(false);
+
+    if (isClosed()) {
+      // Queued after the producer was closed, or while it was closing, so the messages will not be sent.
+      failUnsentSends();
+      return;
+    }
+
+    PendingSend pending;
+    while ((pending = pendingSends.poll()) != null) {
+      send(pending);
+    }
+
+    updateRemoteCredit();
+
+    if (isWriteQueueBounded() && writeQueueDrainPending.get() && !writeQueueFull()
+        && writeQueueDrainPending.compareAndSet(true, false)) {
+      Handler<Void> dh = drainHandler;
+      if (dh != null) {
+        dh.handle(null);
+      }
+    }
+  }
+
+  /**
+   * Sends the given message on the bridge context thread, unless it must be held for credit or room in the in-flight
+   * window, or behind messages that already are.
+   */
+  private void send(org.apache.qpid.proton.message.Message msg, Handler<ProtonDelivery> deliveryHandler,
+                    Handler<Throwable> overflowHandler, long size) {
+    if (heldSends.isEmpty() && canTransmit()) {
+      transmit(msg, deliveryHandler, size);
+    } else {
+      heldSends.add(new PendingSend(msg, deliveryHandler, overflowHandler, size));
+    }
+  }
+
+  private void send(PendingSend pending) {
+    if (heldSends.isEmpty() && canTransmit()) {
+      transmit(pending.message, pending.deliveryHandler, pending.size);
+    } else {
+      heldSends.add(pending);
+    }
+  }
+
+  private boolean canTransmit() {
+    return !sender.sendQueueFull() && (maxInFlight == 0 || windowSent < maxInFlight);
+  }
+
+  private void releaseHeldSends() {
+    if (releasingHeldSends) {
+      // Settled synchronously by a send being released, e.g. when pre-settled, which this loop will carry on from.
+      return;
+    }
+
+    releasingHeldSends = true;
+    try {
+      PendingSend held;
+      while (canTransmit() && (held = heldSends.poll()) != null) {
+        transmit(held.message, held.deliveryHandler, held.size);
+      }
+    } finally {
+      releasingHeldSends = false;
+    }
+  }
+
+  /**
+   * Fails the messages held for credit or room in the in-flight window, and those queued from other threads, which
+   * will not be sent now that the producer is closed, notifying their completion handlers. Only used on the context.
+   */
+  private void failUnsentSends() {
+    PendingSend unsent;
+    while ((unsent = heldSends.poll()) != null || (unsent = pendingSends.poll()) != null) {
+      failUnsent(unsent);
+    }
+  }
+
+  private void failUnsent(PendingSend pending) {
+    writeQueueReleased(pending.size);
+    if (maxInFlight > 0) {
+      unsettled.decrementAndGet();
+    }
+
+    // Messages without a completion handler are dropped silently, the producer having been closed.
+    if (pending.overflowHandler != writeQueueOverflowHandler) {
+      pending.overflowHandler.handle(PRODUCER_CLOSED);
+    }
+  }
+
+  private void transmit(org.apache.qpid.proton.message.Message msg, Handler<ProtonDelivery> deliveryHandler,
+                        long size) {
+    writeQueueReleased(size);
+
+    if (maxInFlight > 0) {
+      windowSent++;
+    }
+
+    byte[] tag = nextDeliveryTag();
+    if (presettled) {
+      // The delivery is settled as it is sent and will not be updated, so its outcome is known immediately.
+      ProtonDelivery delivery = sender.send(tag, msg);
+      freeDeliveryTags.push(tag);
+      if (maxInFlight > 0) {
+        inFlightSettled();
+      }
+
+      if (deliveryHandler != null) {
+        deliveryHandler.handle(delivery);
+      }
+    } else if (deliveryHandler == null) {
+      sender.send(tag, msg, settledHandler);
+    } else {
+      // Settled first, so that sends made by the handler can use the tag and window slot of this delivery.
+      sender.send(tag, msg, delivery -> {
+        settled(delivery);
+        deliveryHandler.handle(delivery);
+      });
+    }
+  }
+
+  private byte[] nextDeliveryTag() {
+    byte[] tag = freeDeliveryTags.poll();
+    if (tag == null) {
+      tag = ByteBuffer.allocate(Long.BYTES).putLong(deliveryTagCount++).array();
+    }
+
+    return tag;
+  }
+
+  private void settled(ProtonDelivery delivery) {
+    if (!delivery.remotelySettled()) {
+      return;
+    }
+
+    // Tags need only be unique among unsettled deliveries, so that of a settled delivery can be used again. It is
+    // settled here, rather than left to be settled once the delivery handlers return, as they may already reuse it.
+    if (!delivery.isSettled()) {
+      delivery.settle();
+    }
+
+    freeDeliveryTags.push(delivery.getTag());
+    if (maxInFlight > 0) {
+      inFlightSettled();
+    }
+  }
+
+  /**
+   * Frees the slot of a settled message in the in-flight window, sending any messages held for it, and notifying the
+   * drain handler if the window was full and the write queue is not.
+   */
+  private void inFlightSettled() {
+    windowSent--;
+
+    if (!heldSends.isEmpty()) {
+      releaseHeldSends();
+      updateRemoteCredit();
+    }
+
+    if (unsettled.decrementAndGet() == maxInFlight - 1 && !writeQueueFull()) {
+      Handler<Void> dh = drainHandler;
+      if (dh != null) {
+        dh.handle(null);
+      }
+    }
+  }
+
+  private void updateRemoteCredit() {
+    // Update the credit tracking *again*. We need to reinitialise it here in case the send call was performed on a
+    // thread other than the bridge context, to ensure we didn't fall foul of a race between the pre-send update on
+    // that thread, the send on the context thread, and the sendQueueDrainHandler based updates on the context thread.
+    remoteCredit.set(((ProtonSenderImpl) sender).getRemoteCredit());
+  }
+
+  /**
+   * A message queued to be sent on the bridge context thread, with the handler to fail it with if it is not sent.
+   */
+  private static final class PendingSend {
+
+    private final org.apache.qpid.proton.message.Message message;
+    private final Handler<ProtonDelivery> deliveryHandler;
+    private final Handler<Throwable> overflowHandler;
+    private final long size;
+
+    PendingSend(org.apache.qpid.proton.message.Message message, Handler<ProtonDelivery> deliveryHandler,
+                Handler<Throwable> overflowHandler, long size) {
+      this.message = message;
+      this.deliveryHandler = deliveryHandler;
+      this.overflowHandler = overflowHandler;
+      this.size = size;
+    }
+  }
+
+  private <B> org.apache.qpid.proton.message.Message convertToAmqpMessage(MessageTranslator<B> bodyTranslator,
+                                                                          B messageBody, Object correlationId,
+                                                                          String toAddress, String replyTo,
+                                                                          Object messageId) {
+    if (bodyTranslator instanceof MessageTranslatorImpl) {
+      // Encode the JsonObject directly, rather than via an intermediate proton message.
+      MessageTranslatorImpl jsonTranslator = (MessageTranslatorImpl) bodyTranslator;
+      AmqpMessageTemplate bodyTemplate = bodyTranslator == translator ? template : null;
+
+      JsonObject jsonObject = (JsonObject) messageBody;
+      if (compression != null) {
+        jsonObject = DataBodyCompression.compress(jsonTranslator, jsonObject, bodyTemplate, compression,
+            compressionThreshold);
+      }
+
+      return jsonTranslator.convertToEncodedAmqpMessage(jsonObject, bodyTemplate, toAddress, replyTo, messageId,
+          correlationId);
+    }
+
+    org.apache.qpid.proton.message.Message msg = bodyTranslator.convertToAmqpMessage(messageBody);
+    if (compression != null) {
+      DataBodyCompression.compress(msg, compression, compressionThreshold);
+    }
+
+    if (correlationId != null) {
+      msg.setCorrelationId(correlationId);
+    }
+
+    if (toAddress != null) {
+      msg.setAddress(toAddress);
+    }
+
+    if (replyTo != null) {
+      msg.setReplyTo(replyTo);
+      msg.setMessageId(messageId);
+    }
+
+    return msg;
   }
 
   @Override
-  public synchronized MessageProducer<JsonObject> exceptionHandler(Handler<Throwable> handler) {
+  public synchronized MessageProducer<T> exceptionHandler(Handler<Throwable> handler) {
     exceptionHandler = handler;
 
     return this;
   }
 
   @Override
-  public MessageProducer<JsonObject> write(JsonObject data) {
+  public MessageProducer<T> write(T data) {
     return send(data, null);
   }
 
   @Override
-  public MessageProducer<JsonObject> write(JsonObject data, Handler<AsyncResult<Void>> handler) {
-    return doSend(data, handler, null, null);
+  public MessageProducer<T> write(T data, Handler<AsyncResult<Void>> handler) {
+    doSend(translator, data, null, handler, null, null);
+    return this;
   }
 
   @Override
-  public MessageProducer<JsonObject> setWriteQueueMaxSize(int maxSize) {
-    // No-op, available sending credit is controlled by recipient peer in AMQP 1.0.
+  public MessageProducer<T> setWriteQueueMaxSize(int maxSize) {
+    // Bounds the messages held locally, e.g. while the peer grants no credit, which it controls in AMQP 1.0.
+    if (maxSize < 0) {
+      throw new IllegalArgumentException("Write queue max size must not be negative");
+    }
+
+    writeQueueMaxSize = maxSize;
     return this;
   }
 
   @Override
-  public synchronized MessageProducer<JsonObject> drainHandler(Handler<Void> handler) {
+  public MessageProducer<T> drainHandler(Handler<Void> handler) {
     drainHandler = handler;
     return this;
   }
 
   @Override
-  public MessageProducer<JsonObject> deliveryOptions(DeliveryOptions options) {
+  public MessageProducer<T> deliveryOptions(DeliveryOptions options) {
     throw new UnsupportedOperationException("DeliveryOptions are not supported by this producer");
   }
 
@@ -231,8 +958,13 @@ public class AmqpProducerImpl implements MessageProducer<JsonObject> {
       closed = true;
     }
 
+    synchronized (writeQueueLock) {
+      writeQueueLock.notifyAll();
+    }
+
     bridge.runOnContext(true, v -> {
       sender.close();
+      failUnsentSends();
       if (handler != null) {
         handler.handle(Future.succeededFuture());
       }
@@ -0,0 +1,235 @@
+/*
+* Copyright 2016 the original author or authors.
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package io.vertx.amqpbridge.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.vertx.amqpbridge.AmqpProducer;
+import io.vertx.amqpbridge.AmqpProducerOptions;
+import io.vertx.amqpbridge.LinkDispatchPolicy;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.eventbus.DeliveryOptions;
+import io.vertx.core.eventbus.Message;
+import io.vertx.core.eventbus.MessageProducer;
+import io.vertx.proton.ProtonConnection;
+import io.vertx.proton.ProtonSession;
+import org.apache.qpid.proton.amqp.Symbol;
+import org.apache.qpid.proton.amqp.transport.DeliveryState;
+
+/**
+ * Producer sending over several links to the same address, each on its own session, so that it is not limited to
+ * the credit granted to a single link. Each message is sent on one link, chosen according to the dispatch policy.
+ */
+public class AmqpProducerPoolImpl<T> implements AmqpProducer<T>, MessageForwarder {
+
+  private final String amqpAddress;
+  private final LinkDispatchPolicy dispatchPolicy;
+  private final List<AmqpProducerImpl<T>> links;
+  private final List<ProtonSession> sessions;
+  private final AtomicInteger next = new AtomicInteger();
+
+  public AmqpProducerPoolImpl(AmqpBridgeImpl bridge, ProtonConnection connection, String amqpAddress,
+                              AmqpProducerOptions options) {
+    if(!bridge.onContextEventLoop()) {
+      throw new IllegalStateException("Should be executing on the bridge context thread");
+    }
+
+    this.amqpAddress = amqpAddress;
+    this.dispatchPolicy = options.getLinkDispatchPolicy();
+
+    int count = options.getLinks();
+    links = new ArrayList<>(count);
+    sessions = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      ProtonSession session = connection.createSession();
+      session.open();
+
+      sessions.add(session);
+      links.add(new AmqpProducerImpl<>(bridge, session.createSender(amqpAddress), amqpAddress, options));
+    }
+  }
+
+  /**
+   * Chooses the link to send the next message on, from those with credit and room in their write queue if there are
+   * any, else from those with room, else the next link in turn.
+   */
+  AmqpProducerImpl<T> select() {
+    int size = links.size();
+    int start = (next.getAndIncrement() & Integer.MAX_VALUE) % size;
+
+    // Start from the next link in turn, so that links with equal credit still share the messages.
+    AmqpProducerImpl<T> selected = null;
+    long mostCredit = 0;
+    AmqpProducerImpl<T> withRoom = null;
+    for (int i = 0; i < size; i++) {
+      AmqpProducerImpl<T> link = links.get((start + i) % size);
+      // Checked without marking the link as awaiting a drain, as the caller may never find it full.
+      if (link.isFull()) {
+        continue;
+      }
+
+      long credit = link.getAvailableCredit();
+      if (credit <= 0) {
+        if (withRoom == null) {
+          withRoom = link;
+        }
+      } else if (dispatchPolicy == LinkDispatchPolicy.ROUND_ROBIN) {
+        return link;
+      } else if (credit > mostCredit) {
+        selected = link;
+        mostCredit = credit;
+      }
+    }
+
+    if (selected != null) {
+      return selected;
+    }
+
+    return withRoom != null ? withRoom : links.get(start);
+  }
+
+  @Override
+  public boolean writeQueueFull() {
+    for (AmqpProducerImpl<T> link : links) {
+      if (!link.writeQueueFull()) {
+        return false;
+      }
+    }
+
+    return true;
+  }
+
+  @Override
+  public MessageProducer<T> send(T messageBody) {
+    select().send(messageBody);
+    return this;
+  }
+
+  @Override
+  public <R> MessageProducer<T> send(T messageBody, Handler<AsyncResult<Message<R>>> replyHandler) {
+    select().send(messageBody, replyHandler);
+    return this;
+  }
+
+  @Override
+  public AmqpProducer<T> sendBatch(List<T> messageBodies) {
+    select().sendBatch(messageBodies);
+    return this;
+  }
+
+  @Override
+  public AmqpProducer<T> writeBatch(List<T> messageBodies, Handler<AsyncResult<Void>> completionHandler) {
+    select().writeBatch(messageBodies, completionHandler);
+    return this;
+  }
+
+  @Override
+  public Future<Void> sendWithAck(T messageBody) {
+    return select().sendWithAck(messageBody);
+  }
+
+  @Override
+  public void forward(org.apache.qpid.proton.message.Message msg, Map<Symbol, Object> messageAnnotations,
+                      Handler<DeliveryState> outcomeHandler) {
+    select().forward(msg, messageAnnotations, outcomeHandler);
+  }
+
+  @Override
+  public MessageProducer<T> exceptionHandler(Handler<Throwable> handler) {
+    for (AmqpProducerImpl<T> link : links) {
+      link.exceptionHandler(handler);
+    }
+
+    return this;
+  }
+
+  @Override
+  public MessageProducer<T> write(T data) {
+    select().write(data);
+    return this;
+  }
+
+  @Override
+  public MessageProducer<T> write(T data, Handler<AsyncResult<Void>> handler) {
+    select().write(data, handler);
+    return this;
+  }
+
+  @Override
+  public MessageProducer<T> setWriteQueueMaxSize(int maxSize) {
+    for (AmqpProducerImpl<T> link : links) {
+      link.setWriteQueueMaxSize(maxSize);
+    }
+
+    return this;
+  }
+
+  @Override
+  public MessageProducer<T> drainHandler(Handler<Void> handler) {
+    // Called when any link has room again, which is enough for the producer to accept messages.
+    for (AmqpProducerImpl<T> link : links) {
+      link.drainHandler(handler);
+    }
+
+    return this;
+  }
+
+  @Override
+  public MessageProducer<T> deliveryOptions(DeliveryOptions options) {
+    throw new UnsupportedOperationException("DeliveryOptions are not supported by this producer");
+  }
+
+  @Override
+  public String address() {
+    return amqpAddress;
+  }
+
+  @Override
+  public void end() {
+    close();
+  }
+
+  @Override
+  public void end(Handler<AsyncResult<Void>> handler) {
+    close(handler);
+  }
+
+  @Override
+  public void close() {
+    close(null);
+  }
+
+  @Override
+  public void close(Handler<AsyncResult<Void>> handler) {
+    AtomicInteger remaining = new AtomicInteger(links.size());
+    for (int i = 0; i < links.size(); i++) {
+      ProtonSession session = sessions.get(i);
+      links.get(i).close(res -> {
+        // Links are closed on the bridge context, so their session can be closed along with them.
+        session.close();
+
+        if (remaining.decrementAndGet() == 0 && handler != null) {
+          handler.handle(Future.succeededFuture());
+        }
+      });
+    }
+  }
+}
@@ -0,0 +1,183 @@
+/*
+* Copyright 2016 the original author or authors.
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package io.vertx.amqpbridge.impl;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.LinkedHashMap;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.InflaterInputStream;
+
+import io.vertx.amqpbridge.AmqpConstants;
+import org.apache.qpid.proton.amqp.Binary;
+import org.apache.qpid.proton.amqp.messaging.Data;
+import org.apache.qpid.proton.amqp.messaging.Section;
+import org.apache.qpid.proton.message.Message;
+
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Compresses and decompresses the content of Data body sections, recording the compression used in the
+ * content-encoding property of the message.
+ */
+final class DataBodyCompression {
+
+  private static final int CHUNK_SIZE = 8192;
+
+  private DataBodyCompression() {
+  }
+
+  /**
+   * @param contentEncoding the content encoding
+   * @return whether Data bodies can be compressed and decompressed with the given content encoding
+   */
+  static boolean isSupported(String contentEncoding) {
+    return AmqpConstants.CONTENT_ENCODING_GZIP.equals(contentEncoding)
+        || AmqpConstants.CONTENT_ENCODING_DEFLATE.equals(contentEncoding);
+  }
+
+  /**
+   * Compresses the Data body of the given JsonObject message if it is at least the given size and the message has
+   * no content_encoding property already, also considering the properties of any template it is sent with. The
+   * message itself is left unchanged, with a shallow copy holding the compressed body and properties returned.
+   *
+   * @param translator the translator the message is to be sent with
+   * @param jsonObject the message
+   * @param template the template the message is to be sent with, or null
+   * @param contentEncoding the content encoding to compress with
+   * @param threshold the size in bytes from which to compress the body
+   * @return the message with its body compressed, or the given message if it is not to be compressed
+   */
+  static JsonObject compress(MessageTranslatorImpl translator, JsonObject jsonObject, AmqpMessageTemplate template,
+                             String contentEncoding, int threshold) {
+    if (!AmqpConstants.BODY_TYPE_DATA.equals(jsonObject.getString(AmqpConstants.BODY_TYPE))
+        || !jsonObject.containsKey(AmqpConstants.BODY)) {
+      return jsonObject;
+    }
+
+    JsonObject jsonProps = jsonObject.getJsonObject(AmqpConstants.PROPERTIES);
+    if (jsonProps == null && template != null) {
+      jsonProps = template.getJsonProperties();
+    }
+
+    if (jsonProps != null && jsonProps.containsKey(AmqpConstants.PROPERTIES_CONTENT_ENCODING)) {
+      return jsonObject;
+    }
+
+    Binary content = translator.createAmqpDataBinary(jsonObject);
+    if (content.getLength() < threshold) {
+      return jsonObject;
+    }
+
+    JsonObject compressedProps = new JsonObject();
+    if (jsonProps != null) {
+      compressedProps.getMap().putAll(jsonProps.getMap());
+    }
+    compressedProps.put(AmqpConstants.PROPERTIES_CONTENT_ENCODING, contentEncoding);
+
+    JsonObject compressed = new JsonObject(new LinkedHashMap<>(jsonObject.getMap()));
+    // Placed in the underlying map directly, rather than being converted to base64 by the JsonObject.
+    compressed.getMap().put(AmqpConstants.BODY, compress(content, contentEncoding));
+    compressed.put(AmqpConstants.PROPERTIES, compressedProps);
+
+    return compressed;
+  }
+
+  /**
+   * Compresses the Data body of the given message in place if it is at least the given size and the message has no
+   * content-encoding already.
+   *
+   * @param protonMessage the message
+   * @param contentEncoding the content encoding to compress with
+   * @param threshold the size in bytes from which to compress the body
+   */
+  static void compress(Message protonMessage, String contentEncoding, int threshold) {
+    Section body = protonMessage.getBody();
+    if (!(body instanceof Data) || protonMessage.getContentEncoding() != null) {
+      return;
+    }
+
+    Binary content = ((Data) body).getValue();
+    if (content == null || content.getLength() < threshold) {
+      return;
+    }
+
+    protonMessage.setBody(new Data(new Binary(compress(content, contentEncoding))));
+    protonMessage.setContentEncoding(contentEncoding);
+  }
+
+  /**
+   * Decompresses the Data body of the given message in place if its content-encoding is a supported one, then
+   * removing the content-encoding.
+   *
+   * @param protonMessage the message
+   * @param maxSize the maximum size in bytes of the decompressed body, or 0 for no limit
+   * @throws IllegalArgumentException if the body could not be decompressed, or would exceed the maximum size
+   */
+  static void decompress(Message protonMessage, long maxSize) throws IllegalArgumentException {
+    String contentEncoding = protonMessage.getContentEncoding();
+    Section body = protonMessage.getBody();
+    if (!isSupported(contentEncoding) || !(body instanceof Data) || ((Data) body).getValue() == null) {
+      return;
+    }
+
+    byte[] content = decompress(((Data) body).getValue(), contentEncoding, maxSize);
+
+    protonMessage.setBody(new Data(new Binary(content)));
+    protonMessage.setContentEncoding(null);
+  }
+
+  private static byte[] compress(Binary content, String contentEncoding) {
+    ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(CHUNK_SIZE, content.getLength() / 4));
+    try (DeflaterOutputStream deflater = AmqpConstants.CONTENT_ENCODING_GZIP.equals(contentEncoding)
+        ? new GZIPOutputStream(out, CHUNK_SIZE) : new DeflaterOutputStream(out)) {
+      deflater.write(content.getArray(), content.getArrayOffset(), content.getLength());
+    } catch (IOException e) {
+      // Not expected, as the output is held in memory.
+      throw new UncheckedIOException(e);
+    }
+
+    return out.toByteArray();
+  }
+
+  private static byte[] decompress(Binary content, String contentEncoding, long maxSize) {
+    ByteArrayInputStream in = new ByteArrayInputStream(content.getArray(), content.getArrayOffset(),
+        content.getLength());
+
+    try (InflaterInputStream inflater = AmqpConstants.CONTENT_ENCODING_GZIP.equals(contentEncoding)
+        ? new GZIPInputStream(in, CHUNK_SIZE) : new InflaterInputStream(in)) {
+      ByteArrayOutputStream out = new ByteArrayOutputStream(CHUNK_SIZE);
+      byte[] chunk = new byte[CHUNK_SIZE];
+
+      int read;
+      while ((read = inflater.read(chunk)) != -1) {
+        if (maxSize > 0 && out.size() + read > maxSize) {
+          throw new IllegalArgumentException("Decompressed Data body exceeds the maximum size of " + maxSize);
+        }
+
+        out.write(chunk, 0, read);
+      }
+
+      return out.toByteArray();
+    } catch (IOException e) {
+      throw new IllegalArgumentException("Unable to decompress Data body with content encoding " + contentEncoding, e);
+    }
+  }
+}
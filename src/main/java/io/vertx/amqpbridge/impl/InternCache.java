@@ -0,0 +1,138 @@
+/*
+* Copyright 2016 the original author or authors.
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package io.vertx.amqpbridge.impl;
+
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Bounded cache of values derived from frequently repeated strings, such as annotation keys, symbols and addresses.
+ *
+ * The cache is direct-mapped: each string and kind of value hashes to a single slot, and storing a value evicts
+ * whatever previously occupied it. It takes no locks; the entries are immutable, so a thread reading a slot either
+ * sees a complete entry or misses, and concurrent stores to the same slot simply leave one of them in place.
+ */
+public class InternCache {
+
+  // The largest power of two an int can hold, to which larger capacities are reduced.
+  static final int MAX_CAPACITY = 1 << 30;
+
+  private final Entry[] entries;
+  private final int mask;
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+
+  /**
+   * @param capacity the number of entries, which is rounded up to a power of two of at most 2^30, or 0 to disable
+   *          caching
+   */
+  public InternCache(int capacity) {
+    if (capacity < 0) {
+      throw new IllegalArgumentException("Capacity must not be negative: " + capacity);
+    }
+
+    if (capacity == 0) {
+      entries = null;
+      mask = 0;
+    } else {
+      int size = roundedCapacity(capacity);
+      entries = new Entry[size];
+      mask = size - 1;
+    }
+  }
+
+  /**
+   * @return the given capacity rounded up to a power of two, and reduced to at most {@link #MAX_CAPACITY}
+   */
+  static int roundedCapacity(int capacity) {
+    return capacity <= 1 ? capacity : Integer.highestOneBit(Math.min(capacity, MAX_CAPACITY) - 1) << 1;
+  }
+
+  /**
+   * Gets the value of the given kind for the given string, creating it with the given factory if it is not cached.
+   * Callers use a distinct kind for each factory they pass.
+   *
+   * @param kind the kind of value
+   * @param key the string the value is derived from
+   * @param factory creates the value from the string
+   * @return the value
+   */
+  @SuppressWarnings("unchecked")
+  public <V> V get(int kind, String key, Function<String, V> factory) {
+    if (entries == null) {
+      return factory.apply(key);
+    }
+
+    int hash = key.hashCode() * 31 + kind;
+    int index = (hash ^ (hash >>> 16)) & mask;
+
+    Entry entry = entries[index];
+    if (entry != null && entry.kind == kind && entry.key.equals(key)) {
+      hits.increment();
+      return (V) entry.value;
+    }
+
+    misses.increment();
+    V value = factory.apply(key);
+    entries[index] = new Entry(kind, key, value);
+
+    return value;
+  }
+
+  public int capacity() {
+    return entries == null ? 0 : entries.length;
+  }
+
+  public long hits() {
+    return hits.sum();
+  }
+
+  public long misses() {
+    return misses.sum();
+  }
+
+  /**
+   * @return the capacity, hit and miss counts, and hit rate of the cache
+   */
+  public JsonObject stats() {
+    long hitCount = hits();
+    long missCount = misses();
+    long total = hitCount + missCount;
+
+    JsonObject stats = new JsonObject();
+    stats.put("capacity", capacity());
+    stats.put("hits", hitCount);
+    stats.put("misses", missCount);
+    stats.put("hitRate", total == 0 ? 0.0d : (double) hitCount / total);
+
+    return stats;
+  }
+
+  private static final class Entry {
+
+    private final int kind;
+    private final String key;
+    private final Object value;
+
+    private Entry(int kind, String key, Object value) {
+      this.kind = kind;
+      this.key = key;
+      this.value = value;
+    }
+  }
+}
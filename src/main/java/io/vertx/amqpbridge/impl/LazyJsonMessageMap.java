@@ -0,0 +1,203 @@
+/*
+* Copyright 2016 the original author or authors.
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package io.vertx.amqpbridge.impl;
+
+import java.util.AbstractMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import io.vertx.amqpbridge.AmqpConstants;
+import org.apache.qpid.proton.amqp.messaging.ApplicationProperties;
+import org.apache.qpid.proton.amqp.messaging.MessageAnnotations;
+import org.apache.qpid.proton.message.Message;
+
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Map backing the JsonObject representation of a received message, translating each section of the underlying proton
+ * message only the first time its element is accessed.
+ *
+ * Putting a value for an element whose section has not yet been translated discards that section without translating
+ * it, so the previous value returned is null.
+ */
+public class LazyJsonMessageMap extends AbstractMap<String, Object> {
+
+  static final int BODY_SECTION = 1;
+  static final int PROPERTIES_SECTION = 1 << 1;
+  static final int HEADER_SECTION = 1 << 2;
+  static final int APPLICATION_PROPERTIES_SECTION = 1 << 3;
+  static final int MESSAGE_ANNOTATIONS_SECTION = 1 << 4;
+  static final int ALL_SECTIONS = BODY_SECTION | PROPERTIES_SECTION | HEADER_SECTION | APPLICATION_PROPERTIES_SECTION
+      | MESSAGE_ANNOTATIONS_SECTION;
+
+  private final MessageTranslatorImpl translator;
+  private final Message protonMessage;
+  private final Map<String, Object> decoded = new LinkedHashMap<>();
+  // Wraps the decoded map, used to apply the usual JsonObject value conversions as sections are added.
+  private final JsonObject decodedJson = new JsonObject(decoded);
+  private int pending;
+
+  public LazyJsonMessageMap(MessageTranslatorImpl translator, Message protonMessage) {
+    this.translator = translator;
+    this.protonMessage = protonMessage;
+
+    // Sections which are not included are left out entirely, and so never translated.
+    int included = translator.getIncludedSections();
+
+    String bodyType = (included & BODY_SECTION) != 0 ? translator.getJsonBodyType(protonMessage.getBody()) : null;
+    if (bodyType != null) {
+      pending |= BODY_SECTION;
+      decoded.put(AmqpConstants.BODY_TYPE, bodyType);
+    }
+
+    if (protonMessage.getProperties() != null) {
+      pending |= PROPERTIES_SECTION;
+    }
+
+    if (protonMessage.getHeader() != null) {
+      pending |= HEADER_SECTION;
+    }
+
+    ApplicationProperties appProps = protonMessage.getApplicationProperties();
+    if (appProps != null && appProps.getValue() != null) {
+      pending |= APPLICATION_PROPERTIES_SECTION;
+    }
+
+    MessageAnnotations msgAnn = protonMessage.getMessageAnnotations();
+    if (msgAnn != null && msgAnn.getValue() != null) {
+      pending |= MESSAGE_ANNOTATIONS_SECTION;
+    }
+
+    pending &= included;
+  }
+
+  /**
+   * Returns the sections named by the given JsonObject element names, or all sections if the names are null.
+   */
+  static int sections(Set<String> names) {
+    if (names == null) {
+      return ALL_SECTIONS;
+    }
+
+    int sections = 0;
+    for (String name : names) {
+      sections |= section(name);
+    }
+
+    return sections;
+  }
+
+  private static int section(Object key) {
+    if (!(key instanceof String)) {
+      return 0;
+    }
+
+    switch ((String) key) {
+      case AmqpConstants.BODY:
+        return BODY_SECTION;
+      case AmqpConstants.PROPERTIES:
+        return PROPERTIES_SECTION;
+      case AmqpConstants.HEADER:
+        return HEADER_SECTION;
+      case AmqpConstants.APPLICATION_PROPERTIES:
+        return APPLICATION_PROPERTIES_SECTION;
+      case AmqpConstants.MESSAGE_ANNOTATIONS:
+        return MESSAGE_ANNOTATIONS_SECTION;
+      default:
+        return 0;
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private void decode(int section) {
+    if ((pending & section) == 0) {
+      return;
+    }
+
+    pending &= ~section;
+
+    switch (section) {
+      case BODY_SECTION:
+        translator.putJsonBody(decodedJson, translator.createJsonBody(protonMessage.getBody()));
+        break;
+      case PROPERTIES_SECTION:
+        decodedJson.put(AmqpConstants.PROPERTIES, translator.createJsonProperties(protonMessage.getProperties()));
+        break;
+      case HEADER_SECTION:
+        decodedJson.put(AmqpConstants.HEADER, translator.createJsonHeader(protonMessage.getHeader()));
+        break;
+      case APPLICATION_PROPERTIES_SECTION:
+        decodedJson.put(AmqpConstants.APPLICATION_PROPERTIES,
+            translator.createJsonApplicationProperties(protonMessage.getApplicationProperties().getValue()));
+        break;
+      case MESSAGE_ANNOTATIONS_SECTION:
+        decodedJson.put(AmqpConstants.MESSAGE_ANNOTATIONS,
+            translator.createJsonMessageAnnotations(protonMessage.getMessageAnnotations().getValue()));
+        break;
+      default:
+        break;
+    }
+  }
+
+  private void decodeAll() {
+    decode(BODY_SECTION);
+    decode(PROPERTIES_SECTION);
+    decode(HEADER_SECTION);
+    decode(APPLICATION_PROPERTIES_SECTION);
+    decode(MESSAGE_ANNOTATIONS_SECTION);
+  }
+
+  @Override
+  public Object get(Object key) {
+    decode(section(key));
+    return decoded.get(key);
+  }
+
+  @Override
+  public boolean containsKey(Object key) {
+    return (pending & section(key)) != 0 || decoded.containsKey(key);
+  }
+
+  @Override
+  public Object put(String key, Object value) {
+    pending &= ~section(key);
+    return decoded.put(key, value);
+  }
+
+  @Override
+  public Object remove(Object key) {
+    decode(section(key));
+    return decoded.remove(key);
+  }
+
+  @Override
+  public void clear() {
+    pending = 0;
+    decoded.clear();
+  }
+
+  @Override
+  public int size() {
+    return decoded.size() + Integer.bitCount(pending);
+  }
+
+  @Override
+  public Set<Entry<String, Object>> entrySet() {
+    decodeAll();
+    return decoded.entrySet();
+  }
+}
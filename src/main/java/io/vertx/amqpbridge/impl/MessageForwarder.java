@@ -0,0 +1,39 @@
+/*
+* Copyright 2016 the original author or authors.
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package io.vertx.amqpbridge.impl;
+
+import java.util.Map;
+
+import io.vertx.core.Handler;
+import org.apache.qpid.proton.amqp.Symbol;
+import org.apache.qpid.proton.amqp.transport.DeliveryState;
+import org.apache.qpid.proton.message.Message;
+
+/**
+ * A producer which messages received by a consumer can be forwarded to.
+ */
+interface MessageForwarder {
+
+  /**
+   * Forwards a message received by a consumer, sending the proton message as-is other than for any given message
+   * annotations.
+   *
+   * @param msg the message to forward
+   * @param messageAnnotations message annotations to add to the message, replacing any with the same key, or null
+   * @param outcomeHandler the handler for the remote state of the delivery once it is updated
+   */
+  void forward(Message msg, Map<Symbol, Object> messageAnnotations, Handler<DeliveryState> outcomeHandler);
+}
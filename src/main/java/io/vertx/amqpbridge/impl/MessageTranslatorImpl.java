@@ -16,19 +16,30 @@
 package io.vertx.amqpbridge.impl;
 
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Date;
+import java.util.Deque;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
 
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.vertx.amqpbridge.AmqpBridgeOptions;
 import io.vertx.amqpbridge.AmqpConstants;
+import io.vertx.amqpbridge.MessageTranslator;
 import org.apache.qpid.proton.amqp.Binary;
 import org.apache.qpid.proton.amqp.Symbol;
 import org.apache.qpid.proton.amqp.UnsignedByte;
 import org.apache.qpid.proton.amqp.UnsignedInteger;
+import org.apache.qpid.proton.amqp.UnsignedLong;
 import org.apache.qpid.proton.amqp.messaging.AmqpSequence;
 import org.apache.qpid.proton.amqp.messaging.AmqpValue;
 import org.apache.qpid.proton.amqp.messaging.ApplicationProperties;
@@ -39,56 +50,158 @@ import org.apache.qpid.proton.amqp.messaging.Properties;
 import org.apache.qpid.proton.amqp.messaging.Section;
 import org.apache.qpid.proton.message.Message;
 
+import io.vertx.core.buffer.Buffer;
 import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
 
-public class MessageTranslatorImpl {
+public class MessageTranslatorImpl implements MessageTranslator<JsonObject> {
 
   private static final AmqpValue EMPTY_BODY_SECTION = new AmqpValue(null);
 
+  // Kinds of value held in the intern cache for the translator, see also those of the encoder.
+  static final int INTERN_STRING = 0;
+  static final int INTERN_SYMBOL = 1;
+
+  private static final Function<String, String> STRING_FACTORY = Function.identity();
+  private static final Function<String, Symbol> SYMBOL_FACTORY = Symbol::valueOf;
+
+  private final AmqpMessageEncoder encoder = new AmqpMessageEncoder(this);
+  private final InternCache internCache;
+  private boolean dataBodyAsBuffer;
+  private boolean typedIds;
+  private int maxNestingDepth = AmqpBridgeOptions.DEFAULT_MAX_NESTING_DEPTH;
+  private int maxNestedElements = AmqpBridgeOptions.DEFAULT_MAX_NESTED_ELEMENTS;
+  private int includedSections = LazyJsonMessageMap.ALL_SECTIONS;
+
+  /**
+   * Creates a translator with its own intern cache of the default size.
+   */
+  public MessageTranslatorImpl() {
+    this(new InternCache(AmqpBridgeOptions.DEFAULT_INTERN_CACHE_SIZE));
+  }
+
+  /**
+   * Creates a translator using the given cache to intern the repeated strings of messages, such as addresses and keys,
+   * and values derived from them. It may be shared between translators.
+   *
+   * @param internCache the cache to use
+   */
+  public MessageTranslatorImpl(InternCache internCache) {
+    this.internCache = internCache;
+  }
+
+  /**
+   * Sets whether received Data body sections are represented by a Buffer wrapping the received bytes, rather than a
+   * copy of them in the JsonObject binary form.
+   *
+   * @param dataBodyAsBuffer whether to represent Data bodies as Buffer
+   * @return the translator
+   */
+  public MessageTranslatorImpl setDataBodyAsBuffer(boolean dataBodyAsBuffer) {
+    this.dataBodyAsBuffer = dataBodyAsBuffer;
+    return this;
+  }
+
+  /**
+   * Sets whether message-id and correlation-id values retain their AMQP type in the JsonObject form, rather than
+   * being strings.
+   *
+   * @param typedIds whether ids retain their AMQP type
+   * @return the translator
+   */
+  public MessageTranslatorImpl setTypedIds(boolean typedIds) {
+    this.typedIds = typedIds;
+    return this;
+  }
+
+  /**
+   * Sets the maximum depth to which the maps and lists of a value being sent may be nested, beyond which it is
+   * rejected.
+   *
+   * @param maxNestingDepth the maximum depth
+   * @return the translator
+   */
+  public MessageTranslatorImpl setMaxNestingDepth(int maxNestingDepth) {
+    this.maxNestingDepth = maxNestingDepth;
+    return this;
+  }
+
+  /**
+   * Sets the maximum number of elements the maps and lists of a value being sent may contain in total, beyond which it
+   * is rejected.
+   *
+   * @param maxNestedElements the maximum number of elements
+   * @return the translator
+   */
+  public MessageTranslatorImpl setMaxNestedElements(int maxNestedElements) {
+    this.maxNestedElements = maxNestedElements;
+    return this;
+  }
+
+  /**
+   * Sets the sections of messages to include in their JsonObject form, named as the elements of that form. Sections
+   * which are not included are never translated.
+   *
+   * @param includedSections the names of the sections to include, or null to include all of them
+   * @return the translator
+   */
+  public MessageTranslatorImpl setIncludedSections(Set<String> includedSections) {
+    this.includedSections = LazyJsonMessageMap.sections(includedSections);
+    return this;
+  }
+
+  int getIncludedSections() {
+    return includedSections;
+  }
+
+  InternCache getInternCache() {
+    return internCache;
+  }
+
+  private boolean isIncluded(int section) {
+    return (includedSections & section) != 0;
+  }
+
+  private String intern(String value) {
+    return value == null ? null : internCache.get(INTERN_STRING, value, STRING_FACTORY);
+  }
+
+  private Symbol symbol(String value) {
+    return value == null ? null : internCache.get(INTERN_SYMBOL, value, SYMBOL_FACTORY);
+  }
+
   public JsonObject convertToJsonObject(Message protonMessage) throws IllegalArgumentException {
     JsonObject jsonObject = new JsonObject();
 
     Section body = protonMessage.getBody();
-    if (body instanceof AmqpValue) {
-      Object value = translateToJsonCompatible(((AmqpValue) body).getValue());
-      jsonObject.put(AmqpConstants.BODY, value);
-      jsonObject.put(AmqpConstants.BODY_TYPE, AmqpConstants.BODY_TYPE_VALUE);
-    } else if (body instanceof Data) {
-      Binary bin = ((Data) body).getValue();
-      byte[] bytes = new byte[bin.getLength()];
-      System.arraycopy(bin.getArray(), bin.getArrayOffset(), bytes, 0, bin.getLength());
-
-      jsonObject.put(AmqpConstants.BODY, bytes);
-      jsonObject.put(AmqpConstants.BODY_TYPE, AmqpConstants.BODY_TYPE_DATA);
-    } else if (body instanceof AmqpSequence) {
-      JsonArray jsonSequence = (JsonArray) translateToJsonCompatible(((AmqpSequence) body).getValue());
-
-      jsonObject.put(AmqpConstants.BODY, jsonSequence);
-      jsonObject.put(AmqpConstants.BODY_TYPE, AmqpConstants.BODY_TYPE_SEQUENCE);
+    String bodyType = isIncluded(LazyJsonMessageMap.BODY_SECTION) ? getJsonBodyType(body) : null;
+    if (bodyType != null) {
+      putJsonBody(jsonObject, createJsonBody(body));
+      jsonObject.put(AmqpConstants.BODY_TYPE, bodyType);
     }
 
     Properties props = protonMessage.getProperties();
-    if (props != null) {
+    if (props != null && isIncluded(LazyJsonMessageMap.PROPERTIES_SECTION)) {
       JsonObject jsonProps = createJsonProperties(props);
       jsonObject.put(AmqpConstants.PROPERTIES, jsonProps);
     }
 
     Header header = protonMessage.getHeader();
-    if (header != null) {
+    if (header != null && isIncluded(LazyJsonMessageMap.HEADER_SECTION)) {
       JsonObject jsonHeader = createJsonHeader(header);
       jsonObject.put(AmqpConstants.HEADER, jsonHeader);
     }
 
     ApplicationProperties appProps = protonMessage.getApplicationProperties();
-    if (appProps != null && appProps.getValue() != null) {
+    if (appProps != null && appProps.getValue() != null
+        && isIncluded(LazyJsonMessageMap.APPLICATION_PROPERTIES_SECTION)) {
       @SuppressWarnings("unchecked")
       JsonObject jsonAppProps = createJsonApplicationProperties(appProps.getValue());
       jsonObject.put(AmqpConstants.APPLICATION_PROPERTIES, jsonAppProps);
     }
 
     MessageAnnotations msgAnn = protonMessage.getMessageAnnotations();
-    if (msgAnn != null && msgAnn.getValue() != null) {
+    if (msgAnn != null && msgAnn.getValue() != null && isIncluded(LazyJsonMessageMap.MESSAGE_ANNOTATIONS_SECTION)) {
       JsonObject jsonMsgAnn = createJsonMessageAnnotations(msgAnn.getValue());
       jsonObject.put(AmqpConstants.MESSAGE_ANNOTATIONS, jsonMsgAnn);
     }
@@ -96,7 +209,65 @@ public class MessageTranslatorImpl {
     return jsonObject;
   }
 
-  private JsonObject createJsonHeader(Header protonHeader) {
+  /**
+   * Creates a JsonObject view of the given message, equivalent to that returned by
+   * {@link #convertToJsonObject(Message)}, but which only translates each section of the message the first time its
+   * element is accessed.
+   *
+   * @param protonMessage the message to convert
+   * @return the JsonObject view of the message
+   */
+  public JsonObject convertToLazyJsonObject(Message protonMessage) {
+    return new JsonObject(new LazyJsonMessageMap(this, protonMessage));
+  }
+
+  @Override
+  public JsonObject convertToBody(Message protonMessage) {
+    return convertToLazyJsonObject(protonMessage);
+  }
+
+  String getJsonBodyType(Section body) {
+    if (body instanceof AmqpValue) {
+      return AmqpConstants.BODY_TYPE_VALUE;
+    } else if (body instanceof Data) {
+      return AmqpConstants.BODY_TYPE_DATA;
+    } else if (body instanceof AmqpSequence) {
+      return AmqpConstants.BODY_TYPE_SEQUENCE;
+    }
+
+    return null;
+  }
+
+  Object createJsonBody(Section body) {
+    if (body instanceof AmqpValue) {
+      return translateToJsonCompatible(((AmqpValue) body).getValue());
+    } else if (body instanceof Data) {
+      Binary bin = ((Data) body).getValue();
+      if (dataBodyAsBuffer) {
+        return Buffer.buffer(Unpooled.wrappedBuffer(bin.getArray(), bin.getArrayOffset(), bin.getLength()));
+      }
+
+      byte[] bytes = new byte[bin.getLength()];
+      System.arraycopy(bin.getArray(), bin.getArrayOffset(), bytes, 0, bin.getLength());
+
+      return bytes;
+    } else if (body instanceof AmqpSequence) {
+      return translateToJsonCompatible(((AmqpSequence) body).getValue());
+    }
+
+    return null;
+  }
+
+  void putJsonBody(JsonObject jsonObject, Object body) {
+    if (body instanceof Buffer) {
+      // Not a JSON type, so placed in the underlying map directly rather than being rejected by the JsonObject.
+      jsonObject.getMap().put(AmqpConstants.BODY, body);
+    } else {
+      jsonObject.put(AmqpConstants.BODY, body);
+    }
+  }
+
+  JsonObject createJsonHeader(Header protonHeader) {
     JsonObject jsonHeader = new JsonObject();
 
     if (protonHeader.getDurable() != null) {
@@ -122,7 +293,7 @@ public class MessageTranslatorImpl {
     return jsonHeader;
   }
 
-  private JsonObject createJsonMessageAnnotations(Map<Symbol, Object> msgAnn) {
+  JsonObject createJsonMessageAnnotations(Map<Symbol, Object> msgAnn) {
     JsonObject jsonMsgAnn = new JsonObject();
 
     for (Entry<Symbol, Object> entry : msgAnn.entrySet()) {
@@ -135,33 +306,33 @@ public class MessageTranslatorImpl {
     return jsonMsgAnn;
   }
 
-  private JsonObject createJsonProperties(Properties protonProps) {
+  JsonObject createJsonProperties(Properties protonProps) {
     JsonObject jsonProps = new JsonObject();
 
     if (protonProps.getTo() != null) {
-      jsonProps.put(AmqpConstants.PROPERTIES_TO, protonProps.getTo());
+      jsonProps.put(AmqpConstants.PROPERTIES_TO, intern(protonProps.getTo()));
     }
 
     if (protonProps.getReplyTo() != null) {
-      jsonProps.put(AmqpConstants.PROPERTIES_REPLY_TO, protonProps.getReplyTo());
+      jsonProps.put(AmqpConstants.PROPERTIES_REPLY_TO, intern(protonProps.getReplyTo()));
     }
 
     if (protonProps.getMessageId() != null) {
-      // TODO: handle other types of id
-      jsonProps.put(AmqpConstants.PROPERTIES_MESSAGE_ID, protonProps.getMessageId().toString());
+      putJsonId(jsonProps, AmqpConstants.PROPERTIES_MESSAGE_ID, AmqpConstants.PROPERTIES_MESSAGE_ID_TYPE,
+          protonProps.getMessageId());
     }
 
     if (protonProps.getCorrelationId() != null) {
-      // TODO: handle other types of id
-      jsonProps.put(AmqpConstants.PROPERTIES_CORRELATION_ID, protonProps.getCorrelationId().toString());
+      putJsonId(jsonProps, AmqpConstants.PROPERTIES_CORRELATION_ID, AmqpConstants.PROPERTIES_CORRELATION_ID_TYPE,
+          protonProps.getCorrelationId());
     }
 
     if (protonProps.getSubject() != null) {
-      jsonProps.put(AmqpConstants.PROPERTIES_SUBJECT, protonProps.getSubject());
+      jsonProps.put(AmqpConstants.PROPERTIES_SUBJECT, intern(protonProps.getSubject()));
     }
 
     if (protonProps.getGroupId() != null) {
-      jsonProps.put(AmqpConstants.PROPERTIES_GROUP_ID, protonProps.getGroupId());
+      jsonProps.put(AmqpConstants.PROPERTIES_GROUP_ID, intern(protonProps.getGroupId()));
     }
 
     if (protonProps.getGroupSequence() != null) {
@@ -169,7 +340,7 @@ public class MessageTranslatorImpl {
     }
 
     if (protonProps.getReplyToGroupId() != null) {
-      jsonProps.put(AmqpConstants.PROPERTIES_REPLY_TO_GROUP_ID, protonProps.getReplyToGroupId());
+      jsonProps.put(AmqpConstants.PROPERTIES_REPLY_TO_GROUP_ID, intern(protonProps.getReplyToGroupId()));
     }
 
     if (protonProps.getContentType() != null) {
@@ -197,11 +368,11 @@ public class MessageTranslatorImpl {
     return jsonProps;
   }
 
-  private JsonObject createJsonApplicationProperties(Map<String, Object> appProps) {
+  JsonObject createJsonApplicationProperties(Map<String, Object> appProps) {
     JsonObject jsonAppProps = new JsonObject();
 
     for (Entry<String, Object> entry : appProps.entrySet()) {
-      String key = entry.getKey();
+      String key = intern(entry.getKey());
       Object value = translateToJsonCompatible(entry.getValue());
 
       jsonAppProps.put(key, value);
@@ -211,28 +382,66 @@ public class MessageTranslatorImpl {
   }
 
   private Object translateToJsonCompatible(Object value) {
-    if (value instanceof Map) {
-      JsonObject jsonObject = new JsonObject();
+    if (!(value instanceof Map || value instanceof List)) {
+      return translateScalarToJsonCompatible(value);
+    }
 
-      for (Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
-        String key = String.valueOf(entry.getKey());
-        Object val = translateToJsonCompatible(entry.getValue());
+    // Nested maps and lists are translated iteratively, each being added to its parent before its own contents. The
+    // nesting limits are not applied, as the received value is already decoded in full, and the lazy translation
+    // would only reject it from within the handler of the message.
+    Deque<NestedValueFrame> stack = new ArrayDeque<>();
+    Object root = createJsonCompatibleContainer(value, stack);
 
-        jsonObject.put(key, val);
+    while (!stack.isEmpty()) {
+      NestedValueFrame frame = stack.peek();
+      if (!frame.iterator.hasNext()) {
+        stack.pop();
+        continue;
       }
 
-      value = jsonObject;
-    } else if (value instanceof List) {
-      JsonArray jsonArray = new JsonArray();
+      Object next = frame.iterator.next();
+      if (frame.target instanceof JsonObject) {
+        Entry<?, ?> entry = (Entry<?, ?>) next;
+        Object val = entry.getValue();
+        if (val instanceof Map || val instanceof List) {
+          val = createJsonCompatibleContainer(val, stack);
+        } else {
+          val = translateScalarToJsonCompatible(val);
+        }
+
+        ((JsonObject) frame.target).put(String.valueOf(entry.getKey()), val);
+      } else {
+        Object val = next;
+        if (val instanceof Map || val instanceof List) {
+          val = createJsonCompatibleContainer(val, stack);
+        } else {
+          val = translateScalarToJsonCompatible(val);
+        }
+
+        ((JsonArray) frame.target).add(val);
+      }
+    }
 
-      for (Object entry : (List<?>) value) {
-        Object val = translateToJsonCompatible(entry);
+    return root;
+  }
 
-        jsonArray.add(val);
-      }
+  private Object createJsonCompatibleContainer(Object value, Deque<NestedValueFrame> stack) {
+    Object container;
+    Iterator<?> iterator;
+    if (value instanceof Map) {
+      container = new JsonObject();
+      iterator = ((Map<?, ?>) value).entrySet().iterator();
+    } else {
+      container = new JsonArray();
+      iterator = ((List<?>) value).iterator();
+    }
+
+    stack.push(new NestedValueFrame(iterator, container));
+    return container;
+  }
 
-      value = jsonArray;
-    } else if (value instanceof Binary) {
+  private Object translateScalarToJsonCompatible(Object value) {
+    if (value instanceof Binary) {
       Binary bin = (Binary) value;
       byte[] bytes = new byte[bin.getLength()];
       System.arraycopy(bin.getArray(), bin.getArrayOffset(), bytes, 0, bin.getLength());
@@ -243,6 +452,7 @@ public class MessageTranslatorImpl {
     return value;
   }
 
+  @Override
   public Message convertToAmqpMessage(JsonObject jsonObject) throws IllegalArgumentException {
     Message protonMessage = Message.Factory.create();
 
@@ -252,8 +462,7 @@ public class MessageTranslatorImpl {
         Object value = translateToAmqpCompatible(jsonObject.getValue(AmqpConstants.BODY));
         protonMessage.setBody(new AmqpValue(value));
       } else if (AmqpConstants.BODY_TYPE_DATA.equals(bodyType)) {
-        byte[] bytes = jsonObject.getBinary(AmqpConstants.BODY);
-        protonMessage.setBody(new Data(new Binary(bytes)));
+        protonMessage.setBody(new Data(createAmqpDataBinary(jsonObject)));
       } else if (AmqpConstants.BODY_TYPE_SEQUENCE.equals(bodyType)) {
         JsonArray jsonSequence = jsonObject.getJsonArray(AmqpConstants.BODY);
         @SuppressWarnings("unchecked")
@@ -290,6 +499,79 @@ public class MessageTranslatorImpl {
     return protonMessage;
   }
 
+  /**
+   * Converts the given JsonObject into the AMQP encoding of the equivalent message to that returned by
+   * {@link #convertToAmqpMessage(JsonObject)}, writing it directly without first creating that message.
+   *
+   * @param jsonObject the message to convert
+   * @param address the 'to' address to give the message in place of any it has, or null
+   * @param replyTo the 'reply-to' address to give the message in place of any it has, or null
+   * @param messageId the message-id to give the message in place of any it has, or null
+   * @return the encoded message
+   */
+  public AmqpEncodedMessage convertToEncodedAmqpMessage(JsonObject jsonObject, String address, String replyTo,
+                                                        Object messageId) throws IllegalArgumentException {
+    return encoder.encode(jsonObject, address, replyTo, messageId);
+  }
+
+  /**
+   * Converts the given JsonObject into the AMQP encoding of a message, as with
+   * {@link #convertToEncodedAmqpMessage(JsonObject, String, String, Object)}, using the already encoded sections of the
+   * given template for any it does not contain itself.
+   *
+   * @param jsonObject the message to convert
+   * @param template the template created by {@link #createMessageTemplate(JsonObject)}, or null
+   * @param address the 'to' address to give the message in place of any it has, or null
+   * @param replyTo the 'reply-to' address to give the message in place of any it has, or null
+   * @param messageId the message-id to give the message in place of any it has, or null
+   * @return the encoded message
+   */
+  public AmqpEncodedMessage convertToEncodedAmqpMessage(JsonObject jsonObject, AmqpMessageTemplate template,
+                                                        String address, String replyTo, Object messageId)
+      throws IllegalArgumentException {
+    return encoder.encode(jsonObject, template, address, replyTo, messageId, null);
+  }
+
+  /**
+   * Converts the given JsonObject into the AMQP encoding of a message, as with
+   * {@link #convertToEncodedAmqpMessage(JsonObject, AmqpMessageTemplate, String, String, Object)}, giving it the
+   * correlation-id provided.
+   *
+   * @param jsonObject the message to convert
+   * @param template the template created by {@link #createMessageTemplate(JsonObject)}, or null
+   * @param address the 'to' address to give the message in place of any it has, or null
+   * @param replyTo the 'reply-to' address to give the message in place of any it has, or null
+   * @param messageId the message-id to give the message in place of any it has, or null
+   * @param correlationId the correlation-id to give the message in place of any it has, or null
+   * @return the encoded message
+   */
+  public AmqpEncodedMessage convertToEncodedAmqpMessage(JsonObject jsonObject, AmqpMessageTemplate template,
+                                                        String address, String replyTo, Object messageId,
+                                                        Object correlationId) throws IllegalArgumentException {
+    return encoder.encode(jsonObject, template, address, replyTo, messageId, correlationId);
+  }
+
+  public AmqpMessageTemplate createMessageTemplate(JsonObject template) throws IllegalArgumentException {
+    return encoder.createTemplate(template);
+  }
+
+  Binary createAmqpDataBinary(JsonObject jsonObject) {
+    Object value = jsonObject.getValue(AmqpConstants.BODY);
+    if (value instanceof Buffer) {
+      // Wrap the bytes of the buffer as-is, rather than copying them.
+      ByteBuf byteBuf = ((Buffer) value).getByteBuf();
+      if (byteBuf.hasArray()) {
+        return new Binary(byteBuf.array(), byteBuf.arrayOffset() + byteBuf.readerIndex(), byteBuf.readableBytes());
+      }
+
+      return new Binary(((Buffer) value).getBytes());
+    } else if (value instanceof byte[]) {
+      return new Binary((byte[]) value);
+    }
+
+    return new Binary(jsonObject.getBinary(AmqpConstants.BODY));
+  }
+
   private Header createAmqpHeader(JsonObject jsonHeader) {
     Header protonHeader = new Header();
 
@@ -319,7 +601,7 @@ public class MessageTranslatorImpl {
     return protonHeader;
   }
 
-  private MessageAnnotations createAmqpMessageAnnotations(JsonObject jsonMsgAnn) {
+  MessageAnnotations createAmqpMessageAnnotations(JsonObject jsonMsgAnn) {
     Map<Symbol, Object> ann = new HashMap<>();
     MessageAnnotations protonMsgAnn = new MessageAnnotations(ann);
 
@@ -327,7 +609,7 @@ public class MessageTranslatorImpl {
 
     for (Entry<String, Object> entry : underlying.entrySet()) {
       Object value = translateToAmqpCompatible(entry.getValue());
-      ann.put(Symbol.valueOf(entry.getKey()), value);
+      ann.put(symbol(entry.getKey()), value);
     }
 
     return protonMsgAnn;
@@ -348,29 +630,151 @@ public class MessageTranslatorImpl {
   }
 
   private Object translateToAmqpCompatible(Object value) {
-    if (value instanceof JsonObject) {
-      Map<String, Object> map = new LinkedHashMap<>();
+    if (!(value instanceof JsonObject || value instanceof JsonArray)) {
+      return value;
+    }
 
-      for (Entry<String, Object> entry : ((JsonObject) value)) {
-        Object val = translateToAmqpCompatible(entry.getValue());
+    // Nested objects and arrays are translated iteratively, each being added to its parent before its own contents.
+    Deque<NestedValueFrame> stack = new ArrayDeque<>();
+    Object root = createAmqpCompatibleContainer(value, stack);
+    int elements = 0;
 
-        map.put(entry.getKey(), val);
+    while (!stack.isEmpty()) {
+      NestedValueFrame frame = stack.peek();
+      if (!frame.iterator.hasNext()) {
+        stack.pop();
+        continue;
       }
 
-      value = map;
-    } else if (value instanceof JsonArray) {
-      List<Object> list = new ArrayList<>();
+      checkElementCount(++elements);
 
-      for (Object entry : ((JsonArray) value)) {
-        Object val = translateToAmqpCompatible(entry);
+      Object next = frame.iterator.next();
+      if (frame.target instanceof Map) {
+        @SuppressWarnings("unchecked")
+        Entry<String, Object> entry = (Entry<String, Object>) next;
+        Object val = entry.getValue();
+        if (val instanceof JsonObject || val instanceof JsonArray) {
+          val = createAmqpCompatibleContainer(val, stack);
+        }
 
+        @SuppressWarnings("unchecked")
+        Map<String, Object> map = (Map<String, Object>) frame.target;
+        map.put(entry.getKey(), val);
+      } else {
+        Object val = next;
+        if (val instanceof JsonObject || val instanceof JsonArray) {
+          val = createAmqpCompatibleContainer(val, stack);
+        }
+
+        @SuppressWarnings("unchecked")
+        List<Object> list = (List<Object>) frame.target;
         list.add(val);
       }
+    }
 
-      value = list;
+    return root;
+  }
+
+  private Object createAmqpCompatibleContainer(Object value, Deque<NestedValueFrame> stack) {
+    checkNestingDepth(stack.size() + 1);
+
+    Object container;
+    Iterator<?> iterator;
+    if (value instanceof JsonObject) {
+      container = new LinkedHashMap<String, Object>();
+      iterator = ((JsonObject) value).iterator();
+    } else {
+      container = new ArrayList<Object>();
+      iterator = ((JsonArray) value).iterator();
     }
 
-    return value;
+    stack.push(new NestedValueFrame(iterator, container));
+    return container;
+  }
+
+  void checkNestingDepth(int depth) throws IllegalArgumentException {
+    if (depth > maxNestingDepth) {
+      throw new IllegalArgumentException("Value nesting depth exceeds the maximum of " + maxNestingDepth);
+    }
+  }
+
+  void checkElementCount(int elements) throws IllegalArgumentException {
+    if (elements > maxNestedElements) {
+      throw new IllegalArgumentException("Value element count exceeds the maximum of " + maxNestedElements);
+    }
+  }
+
+  /**
+   * A map or list being translated, along with the container its translated entries are added to.
+   */
+  private static final class NestedValueFrame {
+    private final Iterator<?> iterator;
+    private final Object target;
+
+    NestedValueFrame(Iterator<?> iterator, Object target) {
+      this.iterator = iterator;
+      this.target = target;
+    }
+  }
+
+  /**
+   * Puts the JSON form of the given message-id or correlation-id into the properties. Unless ids are typed, this is
+   * always a string. Otherwise string and ulong ids are given as a string and a number, while uuid and binary ids are
+   * given as a string and base64 string respectively, along with their type under the given type key.
+   */
+  void putJsonId(JsonObject jsonProps, String idKey, String idTypeKey, Object id) {
+    if (!typedIds || id instanceof String) {
+      jsonProps.put(idKey, id.toString());
+    } else if (id instanceof UnsignedLong) {
+      jsonProps.put(idKey, ((UnsignedLong) id).longValue());
+    } else if (id instanceof UUID) {
+      jsonProps.put(idKey, id.toString());
+      jsonProps.put(idTypeKey, AmqpConstants.ID_TYPE_UUID);
+    } else if (id instanceof Binary) {
+      Binary bin = (Binary) id;
+      byte[] bytes = new byte[bin.getLength()];
+      System.arraycopy(bin.getArray(), bin.getArrayOffset(), bytes, 0, bin.getLength());
+      jsonProps.put(idKey, bytes);
+      jsonProps.put(idTypeKey, AmqpConstants.ID_TYPE_BINARY);
+    } else {
+      jsonProps.put(idKey, id.toString());
+    }
+  }
+
+  /**
+   * Creates the AMQP message-id or correlation-id given by the JSON form in the properties, as written by
+   * {@link #putJsonId(JsonObject, String, String, Object)}. An id with no type given is a string, unless ids are typed,
+   * in which case a number is a ulong id.
+   */
+  Object createAmqpId(JsonObject jsonProps, String idKey, String idTypeKey) throws IllegalArgumentException {
+    if (jsonProps == null) {
+      return null;
+    }
+
+    Object id = jsonProps.getValue(idKey);
+    if (id == null) {
+      return null;
+    }
+
+    String idType = jsonProps.getString(idTypeKey);
+    if (idType == null) {
+      return typedIds && id instanceof Number ? UnsignedLong.valueOf(((Number) id).longValue())
+          : jsonProps.getString(idKey);
+    }
+
+    switch (idType) {
+      case AmqpConstants.ID_TYPE_STRING:
+        return id.toString();
+      case AmqpConstants.ID_TYPE_ULONG:
+        return id instanceof Number ? UnsignedLong.valueOf(((Number) id).longValue()) : UnsignedLong.valueOf(
+            jsonProps.getString(idKey));
+      case AmqpConstants.ID_TYPE_UUID:
+        return UUID.fromString(jsonProps.getString(idKey));
+      case AmqpConstants.ID_TYPE_BINARY:
+        return new Binary(jsonProps.getBinary(idKey));
+      default:
+        throw new IllegalArgumentException("Unknown id type: " + idType);
+    }
   }
 
   private Properties createAmqpProperties(JsonObject jsonProps) {
@@ -385,13 +789,13 @@ public class MessageTranslatorImpl {
     }
 
     if (jsonProps.containsKey(AmqpConstants.PROPERTIES_MESSAGE_ID)) {
-      // TODO: handle other types of id
-      proptonProps.setMessageId(jsonProps.getString(AmqpConstants.PROPERTIES_MESSAGE_ID));
+      proptonProps.setMessageId(createAmqpId(jsonProps, AmqpConstants.PROPERTIES_MESSAGE_ID,
+          AmqpConstants.PROPERTIES_MESSAGE_ID_TYPE));
     }
 
     if (jsonProps.containsKey(AmqpConstants.PROPERTIES_CORRELATION_ID)) {
-      // TODO: handle other types of id
-      proptonProps.setCorrelationId(jsonProps.getString(AmqpConstants.PROPERTIES_CORRELATION_ID));
+      proptonProps.setCorrelationId(createAmqpId(jsonProps, AmqpConstants.PROPERTIES_CORRELATION_ID,
+          AmqpConstants.PROPERTIES_CORRELATION_ID_TYPE));
     }
 
     if (jsonProps.containsKey(AmqpConstants.PROPERTIES_SUBJECT)) {
@@ -413,12 +817,12 @@ public class MessageTranslatorImpl {
 
     if (jsonProps.containsKey(AmqpConstants.PROPERTIES_CONTENT_TYPE)) {
       String contentType = jsonProps.getString(AmqpConstants.PROPERTIES_CONTENT_TYPE);
-      proptonProps.setContentType(Symbol.valueOf(contentType));
+      proptonProps.setContentType(symbol(contentType));
     }
 
     if (jsonProps.containsKey(AmqpConstants.PROPERTIES_CONTENT_ENCODING)) {
       String contentEncoding = jsonProps.getString(AmqpConstants.PROPERTIES_CONTENT_ENCODING);
-      proptonProps.setContentEncoding(Symbol.valueOf(contentEncoding));
+      proptonProps.setContentEncoding(symbol(contentEncoding));
     }
 
     if (jsonProps.containsKey(AmqpConstants.PROPERTIES_CREATION_TIME)) {
@@ -0,0 +1,38 @@
+/*
+* Copyright 2016 the original author or authors.
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package io.vertx.amqpbridge.impl;
+
+import org.apache.qpid.proton.message.Message;
+
+import io.vertx.amqpbridge.MessageTranslator;
+
+public class ProtonMessageTranslatorImpl implements MessageTranslator<Message> {
+
+  public static final ProtonMessageTranslatorImpl INSTANCE = new ProtonMessageTranslatorImpl();
+
+  private ProtonMessageTranslatorImpl() {
+  }
+
+  @Override
+  public Message convertToBody(Message protonMessage) {
+    return protonMessage;
+  }
+
+  @Override
+  public Message convertToAmqpMessage(Message body) {
+    return body;
+  }
+}
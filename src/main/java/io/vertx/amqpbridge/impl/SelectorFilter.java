@@ -0,0 +1,50 @@
+/*
+* Copyright 2016 the original author or authors.
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package io.vertx.amqpbridge.impl;
+
+import org.apache.qpid.proton.amqp.DescribedType;
+import org.apache.qpid.proton.amqp.Symbol;
+
+/**
+ * JMS selector filter, as understood by brokers supporting the Apache selector filter type, for use in the filter set
+ * of a link source.
+ */
+class SelectorFilter implements DescribedType {
+
+  static final Symbol NAME = Symbol.valueOf("jms-selector");
+  static final Symbol DESCRIPTOR = Symbol.valueOf("apache.org:selector-filter:string");
+
+  private final String selector;
+
+  SelectorFilter(String selector) {
+    this.selector = selector;
+  }
+
+  @Override
+  public Object getDescriptor() {
+    return DESCRIPTOR;
+  }
+
+  @Override
+  public Object getDescribed() {
+    return selector;
+  }
+
+  @Override
+  public String toString() {
+    return "SelectorFilter{" + selector + "}";
+  }
+}
@@ -153,4 +153,91 @@ public class AmqpBridgeOptionsTest {
     options.setVhost(vhost);
     assertEquals("Vhost option was not as expected", vhost, options.getVhost());
   }
+
+  @Test
+  public void testDataBodyAsBuffer() {
+    AmqpBridgeOptions options = new AmqpBridgeOptions();
+
+    assertFalse("Data bodies should not be Buffers by default", options.isDataBodyAsBuffer());
+
+    options.setDataBodyAsBuffer(true);
+    assertTrue("Data bodies should be Buffers", options.isDataBodyAsBuffer());
+  }
+
+  @Test
+  public void testTypedIds() {
+    AmqpBridgeOptions options = new AmqpBridgeOptions();
+
+    assertFalse("Ids should not be typed by default", options.isTypedIds());
+
+    options.setTypedIds(true);
+    assertTrue("Ids should be typed", options.isTypedIds());
+  }
+
+  @Test
+  public void testInternCacheSize() {
+    AmqpBridgeOptions options = new AmqpBridgeOptions();
+
+    assertEquals("Unexpected default cache size", AmqpBridgeOptions.DEFAULT_INTERN_CACHE_SIZE,
+        options.getInternCacheSize());
+
+    options.setInternCacheSize(16);
+    assertEquals("Unexpected cache size", 16, options.getInternCacheSize());
+
+    try {
+      options.setInternCacheSize(-1);
+      fail("Expected negative cache size to be rejected");
+    } catch (IllegalArgumentException iae) {
+      // Expected
+    }
+
+    try {
+      options.setInternCacheSize((1 << 30) + 1);
+      fail("Expected cache size above 2^30 to be rejected");
+    } catch (IllegalArgumentException iae) {
+      // Expected
+    }
+  }
+
+  @Test
+  public void testNestingLimits() {
+    AmqpBridgeOptions options = new AmqpBridgeOptions();
+
+    assertEquals("Unexpected default depth", AmqpBridgeOptions.DEFAULT_MAX_NESTING_DEPTH, options.getMaxNestingDepth());
+    assertEquals("Unexpected default element count", AmqpBridgeOptions.DEFAULT_MAX_NESTED_ELEMENTS,
+        options.getMaxNestedElements());
+
+    options.setMaxNestingDepth(5).setMaxNestedElements(50);
+    assertEquals("Unexpected depth", 5, options.getMaxNestingDepth());
+    assertEquals("Unexpected element count", 50, options.getMaxNestedElements());
+
+    try {
+      options.setMaxNestingDepth(0);
+      fail("Expected depth to be rejected");
+    } catch (IllegalArgumentException iae) {
+      // Expected
+    }
+
+    try {
+      options.setMaxNestedElements(0);
+      fail("Expected element count to be rejected");
+    } catch (IllegalArgumentException iae) {
+      // Expected
+    }
+  }
+
+  @Test
+  public void testMessageTranslators() {
+    AmqpBridgeOptions options = new AmqpBridgeOptions();
+
+    assertNull("No default should be present", options.getMessageTranslator());
+    assertTrue("No address translators should be present", options.getAddressMessageTranslators().isEmpty());
+
+    options.setMessageTranslator(MessageTranslator.protonMessage());
+    assertSame("Translator was not as expected", MessageTranslator.protonMessage(), options.getMessageTranslator());
+
+    options.addAddressMessageTranslator("address", MessageTranslator.protonMessage());
+    assertSame("Address translator was not as expected", MessageTranslator.protonMessage(),
+        options.getAddressMessageTranslators().get("address"));
+  }
 }
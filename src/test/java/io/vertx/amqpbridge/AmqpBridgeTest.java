@@ -15,7 +15,10 @@
 */
 package io.vertx.amqpbridge;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
@@ -26,9 +29,12 @@ import java.util.concurrent.atomic.AtomicLong;
 import org.apache.activemq.broker.jmx.BrokerView;
 import org.apache.qpid.proton.Proton;
 import org.apache.qpid.proton.amqp.Symbol;
+import org.apache.qpid.proton.amqp.UnsignedInteger;
+import org.apache.qpid.proton.amqp.UnsignedLong;
 import org.apache.qpid.proton.amqp.messaging.Accepted;
 import org.apache.qpid.proton.amqp.messaging.AmqpValue;
 import org.apache.qpid.proton.amqp.messaging.ApplicationProperties;
+import org.apache.qpid.proton.amqp.messaging.Received;
 import org.apache.qpid.proton.amqp.messaging.Section;
 import org.apache.qpid.proton.amqp.messaging.Source;
 import org.apache.qpid.proton.amqp.messaging.Target;
@@ -39,6 +45,8 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 
 import io.vertx.amqpbridge.impl.BridgeMetaDataSupportImpl;
+import io.vertx.core.CompositeFuture;
+import io.vertx.core.Future;
 import io.vertx.core.Vertx;
 import io.vertx.core.VertxException;
 import io.vertx.core.eventbus.Message;
@@ -53,7 +61,9 @@ import io.vertx.ext.unit.TestContext;
 import io.vertx.ext.unit.junit.VertxUnitRunner;
 import io.vertx.proton.ProtonClient;
 import io.vertx.proton.ProtonConnection;
+import io.vertx.proton.ProtonDelivery;
 import io.vertx.proton.ProtonHelper;
+import io.vertx.proton.ProtonQoS;
 import io.vertx.proton.ProtonReceiver;
 import io.vertx.proton.ProtonSender;
 import io.vertx.proton.impl.ProtonSenderImpl;
@@ -452,6 +462,935 @@ public class AmqpBridgeTest extends ActiveMQTestBase {
     asyncRecvMsg.awaitSuccess();
   }
 
+  @Test(timeout = 20000)
+  public void testSendMessageWithProducerTemplate(TestContext context) throws Exception {
+    String testName = getTestName();
+    String sentContent = "myMessageContent-" + testName;
+    String propKey = "appPropKey";
+    String propValue = "appPropValue";
+    String subject = "mySubject";
+
+    Async asyncRecvMsg = context.async();
+
+    int port = getBrokerAmqpConnectorPort();
+
+    AmqpBridge bridge = AmqpBridge.create(vertx);
+    bridge.start("localhost", port, res -> {
+      // Set up a sender using the bridge, with a template providing the application properties and subject
+      context.assertTrue(res.succeeded());
+
+      JsonObject template = new JsonObject();
+      template.put("application_properties", new JsonObject().put(propKey, propValue));
+      template.put("properties", new JsonObject().put("subject", subject));
+
+      AmqpProducerOptions options = new AmqpProducerOptions().setTemplate(template);
+      MessageProducer<JsonObject> producer = bridge.createProducer(testName, options);
+
+      JsonObject amqpMsgPayload = new JsonObject();
+      amqpMsgPayload.put("body", sentContent);
+
+      producer.send(amqpMsgPayload);
+    });
+
+    // Receive it with a regular AMQP client
+    ProtonClient client = ProtonClient.create(vertx);
+    client.connect("localhost", port, res -> {
+      context.assertTrue(res.succeeded());
+
+      ProtonConnection conn = res.result().open();
+
+      ProtonReceiver receiver = conn.createReceiver(testName);
+      receiver.handler((d, m) -> {
+        Section body = m.getBody();
+        context.assertNotNull(body);
+        context.assertTrue(body instanceof AmqpValue);
+        context.assertEquals(sentContent, ((AmqpValue) body).getValue(), "Unexpected message body");
+        context.assertEquals(subject, m.getSubject(), "Unexpected subject");
+
+        ApplicationProperties applicationProperties = m.getApplicationProperties();
+        context.assertNotNull(applicationProperties, "application properties section not present");
+        context.assertEquals(propValue, applicationProperties.getValue().get(propKey), "Unexpected property value");
+
+        asyncRecvMsg.complete();
+
+        conn.closeHandler(closeResult -> {
+          conn.disconnect();
+        }).close();
+      }).open();
+    });
+
+    asyncRecvMsg.awaitSuccess();
+  }
+
+  @Test(timeout = 20000)
+  public void testSendAndReceiveWithMessageTranslator(TestContext context) throws Exception {
+    String testName = getTestName();
+    String sentContent = "myMessageContent-" + testName;
+    String subject = "mySubject";
+
+    Async asyncRecvMsg = context.async();
+
+    AmqpBridgeOptions options = new AmqpBridgeOptions();
+    options.addAddressMessageTranslator(testName, MessageTranslator.protonMessage());
+
+    AmqpBridge bridge = AmqpBridge.create(vertx, options);
+    bridge.start("localhost", getBrokerAmqpConnectorPort(), res -> {
+      context.assertTrue(res.succeeded());
+
+      // Set up a consumer and producer using the bridge, with bodies which are proton messages
+      MessageConsumer<org.apache.qpid.proton.message.Message> consumer = bridge.createConsumer(testName);
+      consumer.handler(msg -> {
+        org.apache.qpid.proton.message.Message protonMsg = msg.body();
+        context.assertNotNull(protonMsg);
+
+        Section body = protonMsg.getBody();
+        context.assertTrue(body instanceof AmqpValue);
+        context.assertEquals(sentContent, ((AmqpValue) body).getValue(), "Unexpected message body");
+        context.assertEquals(subject, protonMsg.getSubject(), "Unexpected subject");
+
+        bridge.close(shutdownRes -> {
+          context.assertTrue(shutdownRes.succeeded());
+          asyncRecvMsg.complete();
+        });
+      });
+
+      org.apache.qpid.proton.message.Message protonMsg = Proton.message();
+      protonMsg.setBody(new AmqpValue(sentContent));
+      protonMsg.setSubject(subject);
+
+      MessageProducer<org.apache.qpid.proton.message.Message> producer = bridge.createProducer(testName);
+      producer.send(protonMsg);
+    });
+
+    asyncRecvMsg.awaitSuccess();
+  }
+
+  @Test(timeout = 20000)
+  public void testReceiveWithIncludedSections(TestContext context) throws Exception {
+    String testName = getTestName();
+    String sentContent = "myMessageContent-" + testName;
+    String subject = "mySubject";
+
+    Async asyncRecvMsg = context.async();
+
+    AmqpBridge bridge = AmqpBridge.create(vertx);
+    bridge.start("localhost", getBrokerAmqpConnectorPort(), res -> {
+      context.assertTrue(res.succeeded());
+
+      // Set up a consumer which only includes the properties section
+      AmqpConsumerOptions options = new AmqpConsumerOptions().addIncludedSection(AmqpConstants.PROPERTIES);
+      MessageConsumer<JsonObject> consumer = bridge.createConsumer(testName, options);
+      consumer.handler(msg -> {
+        JsonObject jsonObject = msg.body();
+        context.assertNotNull(jsonObject);
+
+        context.assertFalse(jsonObject.containsKey(AmqpConstants.BODY), "Expected body to be absent");
+        context.assertFalse(jsonObject.containsKey(AmqpConstants.HEADER), "Expected header to be absent");
+        context.assertEquals(subject,
+            jsonObject.getJsonObject(AmqpConstants.PROPERTIES).getString(AmqpConstants.PROPERTIES_SUBJECT),
+            "Unexpected subject");
+
+        bridge.close(shutdownRes -> {
+          context.assertTrue(shutdownRes.succeeded());
+          asyncRecvMsg.complete();
+        });
+      });
+
+      JsonObject body = new JsonObject().put(AmqpConstants.BODY, sentContent);
+      body.put(AmqpConstants.PROPERTIES, new JsonObject().put(AmqpConstants.PROPERTIES_SUBJECT, subject));
+
+      MessageProducer<JsonObject> producer = bridge.createProducer(testName);
+      producer.send(body);
+    });
+
+    asyncRecvMsg.awaitSuccess();
+  }
+
+  @Test(timeout = 20000)
+  public void testForwardMessages(TestContext context) throws Exception {
+    String testName = getTestName();
+    String sourceAddress = testName + "-source";
+    String targetAddress = testName + "-target";
+    String sentContent = "myMessageContent-" + testName;
+    String annotationKey = "x-opt-forwarded-by";
+    String annotationValue = "myForwarder";
+
+    Async asyncRecvMsg = context.async();
+
+    AmqpBridge bridge = AmqpBridge.create(vertx);
+    bridge.start("localhost", getBrokerAmqpConnectorPort(), res -> {
+      context.assertTrue(res.succeeded());
+
+      // Forward messages from the source address to the target address, annotating them on the way
+      MessageProducer<JsonObject> targetProducer = bridge.createProducer(targetAddress);
+      MessageConsumer<JsonObject> forwarder = bridge.createForwarder(sourceAddress, targetProducer,
+          new JsonObject().put(annotationKey, annotationValue));
+
+      try {
+        forwarder.handler(msg -> context.fail("Handler should not be called"));
+        context.fail("Expected handler to be rejected");
+      } catch (IllegalStateException ise) {
+        // Expected
+      }
+
+      MessageConsumer<JsonObject> consumer = bridge.createConsumer(targetAddress);
+      consumer.handler(msg -> {
+        JsonObject jsonObject = msg.body();
+        context.assertNotNull(jsonObject);
+
+        context.assertEquals(sentContent, jsonObject.getValue(AmqpConstants.BODY), "Unexpected message body");
+        context.assertEquals(annotationValue,
+            jsonObject.getJsonObject(AmqpConstants.MESSAGE_ANNOTATIONS).getString(annotationKey),
+            "Unexpected message annotation");
+
+        bridge.close(shutdownRes -> {
+          context.assertTrue(shutdownRes.succeeded());
+          asyncRecvMsg.complete();
+        });
+      });
+
+      MessageProducer<JsonObject> sourceProducer = bridge.createProducer(sourceAddress);
+      sourceProducer.send(new JsonObject().put(AmqpConstants.BODY, sentContent));
+    });
+
+    asyncRecvMsg.awaitSuccess();
+  }
+
+  @Test(timeout = 20000)
+  public void testSendAndReceiveCompressedDataBody(TestContext context) throws Exception {
+    String testName = getTestName();
+    byte[] sentContent = new byte[4096];
+    Arrays.fill(sentContent, (byte) 'x');
+
+    Async asyncRecvMsg = context.async();
+
+    AmqpBridge bridge = AmqpBridge.create(vertx);
+    bridge.start("localhost", getBrokerAmqpConnectorPort(), res -> {
+      context.assertTrue(res.succeeded());
+
+      // Decompressed by default
+      MessageConsumer<JsonObject> consumer = bridge.createConsumer(testName);
+      consumer.handler(msg -> {
+        JsonObject jsonObject = msg.body();
+        context.assertNotNull(jsonObject);
+
+        context.assertTrue(Arrays.equals(sentContent, jsonObject.getBinary(AmqpConstants.BODY)),
+            "Unexpected message body");
+        context.assertFalse(jsonObject.getJsonObject(AmqpConstants.PROPERTIES)
+            .containsKey(AmqpConstants.PROPERTIES_CONTENT_ENCODING), "Expected content encoding to be removed");
+
+        bridge.close(shutdownRes -> {
+          context.assertTrue(shutdownRes.succeeded());
+          asyncRecvMsg.complete();
+        });
+      });
+
+      JsonObject body = new JsonObject().put(AmqpConstants.BODY_TYPE, AmqpConstants.BODY_TYPE_DATA);
+      body.put(AmqpConstants.BODY, sentContent);
+
+      MessageProducer<JsonObject> producer = bridge.createProducer(testName,
+          new AmqpProducerOptions().setCompression(AmqpConstants.CONTENT_ENCODING_GZIP));
+      producer.send(body);
+    });
+
+    asyncRecvMsg.awaitSuccess();
+  }
+
+  @Test(timeout = 20000)
+  public void testReceiveWithSelector(TestContext context) throws Exception {
+    String testName = getTestName();
+    String propKey = "color";
+
+    Async asyncRecvMsg = context.async();
+
+    AmqpBridge bridge = AmqpBridge.create(vertx);
+    bridge.start("localhost", getBrokerAmqpConnectorPort(), res -> {
+      context.assertTrue(res.succeeded());
+
+      // Send a message which does not match the selector, followed by one which does
+      MessageProducer<JsonObject> producer = bridge.createProducer(testName);
+      for (String color : new String[] { "blue", "red" }) {
+        JsonObject body = new JsonObject().put(AmqpConstants.BODY, color);
+        body.put(AmqpConstants.APPLICATION_PROPERTIES, new JsonObject().put(propKey, color));
+        producer.send(body);
+      }
+
+      MessageConsumer<JsonObject> consumer = bridge.createConsumer(testName,
+          new AmqpConsumerOptions().setSelector(propKey + " = 'red'"));
+      consumer.handler(msg -> {
+        JsonObject jsonObject = msg.body();
+        context.assertNotNull(jsonObject);
+        context.assertEquals("red", jsonObject.getValue(AmqpConstants.BODY), "Unexpected message body");
+
+        bridge.close(shutdownRes -> {
+          context.assertTrue(shutdownRes.succeeded());
+          asyncRecvMsg.complete();
+        });
+      });
+    });
+
+    asyncRecvMsg.awaitSuccess();
+  }
+
+  @Test(timeout = 20000)
+  public void testSendBatch(TestContext context) throws Exception {
+    String testName = getTestName();
+    int count = 10;
+
+    Async asyncShutdown = context.async();
+
+    AmqpBridge bridge = AmqpBridge.create(vertx);
+    bridge.start("localhost", getBrokerAmqpConnectorPort(), res -> {
+      context.assertTrue(res.succeeded());
+
+      // Close the bridge once the batch is accepted and all of its messages are received, in either order
+      AtomicInteger outstanding = new AtomicInteger(count + 1);
+      Runnable closeWhenDone = () -> {
+        if (outstanding.decrementAndGet() == 0) {
+          bridge.close(shutdownRes -> {
+            context.assertTrue(shutdownRes.succeeded());
+            asyncShutdown.complete();
+          });
+        }
+      };
+
+      AtomicInteger received = new AtomicInteger();
+      MessageConsumer<JsonObject> consumer = bridge.createConsumer(testName);
+      consumer.handler(msg -> {
+        context.assertEquals(received.getAndIncrement(), msg.body().getValue(AmqpConstants.BODY),
+            "Unexpected message body");
+        closeWhenDone.run();
+      });
+
+      List<JsonObject> batch = new ArrayList<>();
+      for (int i = 0; i < count; i++) {
+        batch.add(new JsonObject().put(AmqpConstants.BODY, i));
+      }
+
+      AmqpProducer<JsonObject> producer = AmqpProducer.of(bridge.createProducer(testName));
+      producer.writeBatch(batch, batchRes -> {
+        context.assertTrue(batchRes.succeeded(), "Expected batch to be accepted");
+        closeWhenDone.run();
+      });
+    });
+
+    asyncShutdown.awaitSuccess();
+  }
+
+  @Test(timeout = 20000)
+  public void testSendFromOtherThreadPreservesOrder(TestContext context) throws Exception {
+    String testName = getTestName();
+    int count = 1000;
+
+    Async asyncShutdown = context.async();
+
+    AmqpBridge bridge = AmqpBridge.create(vertx);
+    bridge.start("localhost", getBrokerAmqpConnectorPort(), res -> {
+      context.assertTrue(res.succeeded());
+
+      AtomicInteger received = new AtomicInteger();
+      MessageConsumer<JsonObject> consumer = bridge.createConsumer(testName);
+      consumer.handler(msg -> {
+        context.assertEquals(received.getAndIncrement(), msg.body().getValue(AmqpConstants.BODY),
+            "Unexpected message body");
+
+        if (received.get() == count) {
+          bridge.close(shutdownRes -> {
+            context.assertTrue(shutdownRes.succeeded());
+            asyncShutdown.complete();
+          });
+        }
+      });
+
+      // Send from a thread other than the bridge context, so the messages are queued for it to send
+      MessageProducer<JsonObject> producer = bridge.createProducer(testName);
+      new Thread(() -> {
+        for (int i = 0; i < count; i++) {
+          producer.send(new JsonObject().put(AmqpConstants.BODY, i));
+        }
+      }).start();
+    });
+
+    asyncShutdown.awaitSuccess();
+  }
+
+  @Test(timeout = 20000)
+  public void testSendPresettled(TestContext context) throws Exception {
+    String testName = getTestName();
+    String sentContent = "myMessageContent-" + testName;
+
+    Async asyncSendComplete = context.async();
+    Async asyncRecvMsg = context.async();
+
+    AmqpBridge bridge = AmqpBridge.create(vertx);
+    bridge.start("localhost", getBrokerAmqpConnectorPort(), res -> {
+      context.assertTrue(res.succeeded());
+
+      MessageConsumer<JsonObject> consumer = bridge.createConsumer(testName);
+      consumer.handler(msg -> {
+        context.assertEquals(sentContent, msg.body().getValue(AmqpConstants.BODY), "Unexpected message body");
+        asyncRecvMsg.complete();
+      });
+
+      MessageProducer<JsonObject> producer = bridge.createProducer(testName,
+          new AmqpProducerOptions().setQos(ProtonQoS.AT_MOST_ONCE));
+      producer.write(new JsonObject().put(AmqpConstants.BODY, sentContent), sendRes -> {
+        context.assertTrue(sendRes.succeeded(), "Expected pre-settled send to succeed");
+        asyncSendComplete.complete();
+      });
+    });
+
+    asyncSendComplete.awaitSuccess();
+    asyncRecvMsg.awaitSuccess();
+
+    Async asyncShutdown = context.async();
+    bridge.close(shutdownRes -> {
+      context.assertTrue(shutdownRes.succeeded());
+      asyncShutdown.complete();
+    });
+    asyncShutdown.awaitSuccess();
+  }
+
+  @Test(timeout = 20000)
+  public void testSendWithAckInFlightWindow(TestContext context) throws Exception {
+    String testName = getTestName();
+    int msgCount = 10;
+
+    Async asyncAcks = context.async();
+    Async asyncRecvMsgs = context.async();
+
+    AmqpBridge bridge = AmqpBridge.create(vertx);
+    bridge.start("localhost", getBrokerAmqpConnectorPort(), res -> {
+      context.assertTrue(res.succeeded());
+
+      AtomicInteger received = new AtomicInteger();
+      MessageConsumer<JsonObject> consumer = bridge.createConsumer(testName);
+      consumer.handler(msg -> {
+        context.assertEquals(received.get(), msg.body().getValue(AmqpConstants.BODY), "Unexpected message order");
+        if (received.incrementAndGet() == msgCount) {
+          asyncRecvMsgs.complete();
+        }
+      });
+
+      AmqpProducer<JsonObject> producer = AmqpProducer.of(bridge.createProducer(testName,
+          new AmqpProducerOptions().setMaxInFlight(2)));
+
+      @SuppressWarnings("rawtypes")
+      List<Future> acks = new ArrayList<>();
+      for (int i = 0; i < msgCount; i++) {
+        acks.add(producer.sendWithAck(new JsonObject().put(AmqpConstants.BODY, i)));
+        if (i == 1) {
+          context.assertTrue(producer.writeQueueFull(), "Expected full in-flight window to report a full queue");
+        }
+      }
+
+      CompositeFuture.all(acks).onComplete(ackRes -> {
+        context.assertTrue(ackRes.succeeded(), "Expected all sends to be accepted");
+        context.assertFalse(producer.writeQueueFull(), "Expected in-flight window to be empty");
+        asyncAcks.complete();
+      });
+    });
+
+    asyncAcks.awaitSuccess();
+    asyncRecvMsgs.awaitSuccess();
+
+    Async asyncShutdown = context.async();
+    bridge.close(shutdownRes -> {
+      context.assertTrue(shutdownRes.succeeded());
+      asyncShutdown.complete();
+    });
+    asyncShutdown.awaitSuccess();
+  }
+
+  @Test(timeout = 20000)
+  public void testWriteQueueOverflowFails(TestContext context) throws Exception {
+    stopBroker();
+
+    Async asyncOverflow = context.async();
+    Async asyncDrain = context.async();
+    Async asyncRecvMsgs = context.async(2);
+
+    MockServer server = new MockServer(vertx, serverConnection -> {
+      serverConnection.openHandler(x -> {
+        serverConnection.open();
+      });
+      serverConnection.closeHandler(x -> {
+        serverConnection.close();
+      });
+      serverConnection.sessionOpenHandler(serverSession -> {
+        serverSession.open();
+      });
+      serverConnection.receiverOpenHandler(serverReceiver -> {
+        // Withhold credit for a time, so that the producer has to queue its messages.
+        serverReceiver.setPrefetch(0);
+        serverReceiver.handler((delivery, msg) -> {
+          asyncRecvMsgs.countDown();
+        });
+        serverReceiver.open();
+
+        vertx.setTimer(500, t -> serverReceiver.flow(10));
+      });
+    });
+
+    AmqpBridgeOptions options = new AmqpBridgeOptions().setReplyHandlingSupport(false);
+    AmqpBridge bridge = AmqpBridge.create(vertx, options);
+    bridge.start("localhost", server.actualPort(), res -> {
+      context.assertTrue(res.succeeded(), "Expected start to succeed");
+
+      MessageProducer<JsonObject> producer = bridge.createProducer(getTestName());
+      producer.setWriteQueueMaxSize(2);
+      producer.drainHandler(v -> {
+        if (!asyncDrain.isCompleted()) {
+          asyncDrain.complete();
+        }
+      });
+
+      producer.write(new JsonObject().put(AmqpConstants.BODY, "first"));
+      producer.write(new JsonObject().put(AmqpConstants.BODY, "second"));
+      context.assertTrue(producer.writeQueueFull(), "Expected write queue to be full");
+
+      producer.write(new JsonObject().put(AmqpConstants.BODY, "third"), writeRes -> {
+        context.assertTrue(writeRes.failed(), "Expected write to a full queue to fail");
+        asyncOverflow.complete();
+      });
+    });
+
+    try {
+      asyncOverflow.awaitSuccess();
+      asyncDrain.awaitSuccess();
+      asyncRecvMsgs.awaitSuccess();
+
+      Async asyncShutdown = context.async();
+      bridge.close(shutdownRes -> {
+        context.assertTrue(shutdownRes.succeeded());
+        asyncShutdown.complete();
+      });
+      asyncShutdown.awaitSuccess();
+    } finally {
+      server.close();
+    }
+  }
+
+  @Test(timeout = 20000)
+  public void testSendOverMultipleLinks(TestContext context) throws Exception {
+    stopBroker();
+
+    int linkCount = 3;
+    int msgCount = 9;
+
+    Async asyncRecvMsgs = context.async(msgCount);
+    Map<Object, AtomicInteger> receivedPerLink = new HashMap<>();
+
+    MockServer server = new MockServer(vertx, serverConnection -> {
+      serverConnection.openHandler(x -> {
+        serverConnection.open();
+      });
+      serverConnection.closeHandler(x -> {
+        serverConnection.close();
+      });
+      serverConnection.sessionOpenHandler(serverSession -> {
+        serverSession.open();
+      });
+      serverConnection.receiverOpenHandler(serverReceiver -> {
+        AtomicInteger received = new AtomicInteger();
+        receivedPerLink.put(serverReceiver, received);
+
+        serverReceiver.handler((delivery, msg) -> {
+          received.incrementAndGet();
+          asyncRecvMsgs.countDown();
+        });
+        serverReceiver.open();
+      });
+    });
+
+    AmqpBridgeOptions options = new AmqpBridgeOptions().setReplyHandlingSupport(false);
+    AmqpBridge bridge = AmqpBridge.create(vertx, options);
+    bridge.start("localhost", server.actualPort(), res -> {
+      context.assertTrue(res.succeeded(), "Expected start to succeed");
+
+      AmqpProducerOptions producerOptions = new AmqpProducerOptions().setLinks(linkCount);
+      MessageProducer<JsonObject> producer = bridge.createProducer(getTestName(), producerOptions);
+      for (int i = 0; i < msgCount; i++) {
+        producer.send(new JsonObject().put(AmqpConstants.BODY, "myMessageContent-" + i));
+      }
+    });
+
+    try {
+      asyncRecvMsgs.awaitSuccess();
+
+      Async asyncShutdown = context.async();
+      bridge.close(shutdownRes -> {
+        context.assertTrue(shutdownRes.succeeded());
+        asyncShutdown.complete();
+      });
+      asyncShutdown.awaitSuccess();
+    } finally {
+      server.close();
+    }
+
+    context.assertEquals(linkCount, receivedPerLink.size(), "Unexpected number of links");
+    for (AtomicInteger received : receivedPerLink.values()) {
+      context.assertEquals(msgCount / linkCount, received.get(), "Expected messages spread evenly");
+    }
+  }
+
+  @Test(timeout = 20000)
+  public void testSendOverMultipleLinksSkipsLinkWithoutCredit(TestContext context) throws Exception {
+    stopBroker();
+
+    int msgCount = 10;
+
+    Async asyncSends = context.async(msgCount);
+    AtomicInteger linksOpened = new AtomicInteger();
+    AtomicInteger receivedOnStarvedLink = new AtomicInteger();
+
+    MockServer server = new MockServer(vertx, serverConnection -> {
+      serverConnection.openHandler(x -> {
+        serverConnection.open();
+      });
+      serverConnection.closeHandler(x -> {
+        serverConnection.close();
+      });
+      serverConnection.sessionOpenHandler(serverSession -> {
+        serverSession.open();
+      });
+      serverConnection.receiverOpenHandler(serverReceiver -> {
+        boolean starved = linksOpened.incrementAndGet() == 1;
+        if (starved) {
+          // Never grant the first link any credit.
+          serverReceiver.setPrefetch(0);
+        }
+
+        serverReceiver.handler((delivery, msg) -> {
+          if (starved) {
+            receivedOnStarvedLink.incrementAndGet();
+          }
+        });
+        serverReceiver.open();
+      });
+    });
+
+    AmqpBridgeOptions options = new AmqpBridgeOptions().setReplyHandlingSupport(false);
+    AmqpBridge bridge = AmqpBridge.create(vertx, options);
+    bridge.start("localhost", server.actualPort(), res -> {
+      context.assertTrue(res.succeeded(), "Expected start to succeed");
+
+      AmqpProducerOptions producerOptions = new AmqpProducerOptions().setLinks(2);
+      MessageProducer<JsonObject> producer = bridge.createProducer(getTestName(), producerOptions);
+
+      // Send once the other link has been granted credit.
+      AtomicBoolean sent = new AtomicBoolean();
+      producer.drainHandler(v -> {
+        if (sent.compareAndSet(false, true)) {
+          for (int i = 0; i < msgCount; i++) {
+            context.assertFalse(producer.writeQueueFull(), "Expected room to send");
+            producer.write(new JsonObject().put(AmqpConstants.BODY, "myMessageContent-" + i), writeRes -> {
+              context.assertTrue(writeRes.succeeded(), "Expected send to be accepted");
+              asyncSends.countDown();
+            });
+          }
+        }
+      });
+    });
+
+    try {
+      asyncSends.awaitSuccess();
+
+      Async asyncShutdown = context.async();
+      bridge.close(shutdownRes -> {
+        context.assertTrue(shutdownRes.succeeded());
+        asyncShutdown.complete();
+      });
+      asyncShutdown.awaitSuccess();
+    } finally {
+      server.close();
+    }
+
+    context.assertEquals(0, receivedOnStarvedLink.get(), "Expected no messages on the link without credit");
+  }
+
+  @Test(timeout = 20000)
+  public void testForwardSettlesOnceWithOutcomeAfterInterimState(TestContext context) throws Exception {
+    stopBroker();
+
+    String sourceAddress = getTestName() + "-source";
+    String targetAddress = getTestName() + "-target";
+
+    Async asyncSourceSettled = context.async();
+    AtomicInteger sourceUpdates = new AtomicInteger();
+
+    MockServer server = new MockServer(vertx, serverConnection -> {
+      serverConnection.openHandler(x -> {
+        serverConnection.open();
+      });
+      serverConnection.closeHandler(x -> {
+        serverConnection.close();
+      });
+      serverConnection.sessionOpenHandler(serverSession -> {
+        serverSession.open();
+      });
+      serverConnection.senderOpenHandler(serverSender -> {
+        serverSender.setSource(((Source) serverSender.getRemoteSource()).copy());
+        serverSender.closeHandler(x -> {
+          serverSender.close();
+        });
+        serverSender.open();
+
+        org.apache.qpid.proton.message.Message protonMsg = Proton.message();
+        protonMsg.setBody(new AmqpValue("myContent"));
+        serverSender.send(protonMsg, delivery -> {
+          sourceUpdates.incrementAndGet();
+          context.assertTrue(delivery.remotelySettled(), "Expected the forwarded message to be settled");
+          context.assertTrue(delivery.getRemoteState() instanceof Accepted,
+              "Expected the forwarded message to be accepted");
+          asyncSourceSettled.complete();
+        });
+      });
+      serverConnection.receiverOpenHandler(serverReceiver -> {
+        serverReceiver.setTarget(((Target) serverReceiver.getRemoteTarget()).copy());
+        serverReceiver.setAutoAccept(false);
+        serverReceiver.handler((delivery, msg) -> {
+          // Report the message as received, before accepting it
+          Received received = new Received();
+          received.setSectionNumber(UnsignedInteger.ZERO);
+          received.setSectionOffset(UnsignedLong.ZERO);
+          delivery.disposition(received, false);
+
+          vertx.setTimer(100, t -> delivery.disposition(Accepted.getInstance(), true));
+        });
+        serverReceiver.open();
+      });
+    });
+
+    AmqpBridgeOptions options = new AmqpBridgeOptions().setReplyHandlingSupport(false);
+    AmqpBridge bridge = AmqpBridge.create(vertx, options);
+    bridge.start("localhost", server.actualPort(), res -> {
+      context.assertTrue(res.succeeded(), "Expected start to succeed");
+
+      MessageProducer<JsonObject> targetProducer = bridge.createProducer(targetAddress);
+      bridge.createForwarder(sourceAddress, targetProducer);
+    });
+
+    try {
+      asyncSourceSettled.awaitSuccess();
+
+      Async asyncShutdown = context.async();
+      bridge.close(shutdownRes -> {
+        context.assertTrue(shutdownRes.succeeded());
+        asyncShutdown.complete();
+      });
+      asyncShutdown.awaitSuccess();
+    } finally {
+      server.close();
+    }
+
+    context.assertEquals(1, sourceUpdates.get(), "Expected the forwarded message to be settled once");
+  }
+
+  @Test(timeout = 20000)
+  public void testCloseFailsHeldSends(TestContext context) throws Exception {
+    stopBroker();
+
+    Async asyncSendFailed = context.async();
+    Async asyncClosed = context.async();
+
+    MockServer server = new MockServer(vertx, serverConnection -> {
+      serverConnection.openHandler(x -> {
+        serverConnection.open();
+      });
+      serverConnection.closeHandler(x -> {
+        serverConnection.close();
+      });
+      serverConnection.sessionOpenHandler(serverSession -> {
+        serverSession.open();
+      });
+      serverConnection.receiverOpenHandler(serverReceiver -> {
+        // Never grant credit, so that the producer has to hold its message.
+        serverReceiver.setPrefetch(0);
+        serverReceiver.handler((delivery, msg) -> {
+          context.fail("Expected no messages");
+        });
+        serverReceiver.closeHandler(x -> {
+          serverReceiver.close();
+        });
+        serverReceiver.open();
+      });
+    });
+
+    AmqpBridgeOptions options = new AmqpBridgeOptions().setReplyHandlingSupport(false);
+    AmqpBridge bridge = AmqpBridge.create(vertx, options);
+    bridge.start("localhost", server.actualPort(), res -> {
+      context.assertTrue(res.succeeded(), "Expected start to succeed");
+
+      MessageProducer<JsonObject> producer = bridge.createProducer(getTestName());
+      producer.write(new JsonObject().put(AmqpConstants.BODY, "held"), sendRes -> {
+        context.assertTrue(sendRes.failed(), "Expected held send to fail");
+        context.assertEquals("Producer closed", sendRes.cause().getMessage(), "Unexpected failure");
+        asyncSendFailed.complete();
+      });
+
+      producer.close(closeRes -> {
+        context.assertTrue(closeRes.succeeded());
+        context.assertTrue(asyncSendFailed.isCompleted(), "Expected held send to fail before close completes");
+        asyncClosed.complete();
+      });
+    });
+
+    try {
+      asyncSendFailed.awaitSuccess();
+      asyncClosed.awaitSuccess();
+
+      Async asyncShutdown = context.async();
+      bridge.close(shutdownRes -> {
+        context.assertTrue(shutdownRes.succeeded());
+        asyncShutdown.complete();
+      });
+      asyncShutdown.awaitSuccess();
+    } finally {
+      server.close();
+    }
+  }
+
+  @Test(timeout = 20000)
+  public void testCloseFailsQueuedSends(TestContext context) throws Exception {
+    stopBroker();
+
+    Async asyncSendFailed = context.async();
+    Async asyncClosed = context.async();
+
+    MockServer server = new MockServer(vertx, serverConnection -> {
+      serverConnection.openHandler(x -> {
+        serverConnection.open();
+      });
+      serverConnection.closeHandler(x -> {
+        serverConnection.close();
+      });
+      serverConnection.sessionOpenHandler(serverSession -> {
+        serverSession.open();
+      });
+      serverConnection.receiverOpenHandler(serverReceiver -> {
+        serverReceiver.handler((delivery, msg) -> {
+          context.fail("Expected no messages");
+        });
+        serverReceiver.closeHandler(x -> {
+          serverReceiver.close();
+        });
+        serverReceiver.open();
+      });
+    });
+
+    AmqpBridgeOptions options = new AmqpBridgeOptions().setReplyHandlingSupport(false);
+    AmqpBridge bridge = AmqpBridge.create(vertx, options);
+    bridge.start("localhost", server.actualPort(), res -> {
+      context.assertTrue(res.succeeded(), "Expected start to succeed");
+
+      MessageProducer<JsonObject> producer = bridge.createProducer(getTestName());
+
+      // Send and close from another thread while the context is busy, so that the message is still queued for the
+      // context when the producer is closed.
+      Thread thread = new Thread(() -> {
+        producer.write(new JsonObject().put(AmqpConstants.BODY, "queued"), sendRes -> {
+          context.assertTrue(sendRes.failed(), "Expected queued send to fail");
+          context.assertEquals("Producer closed", sendRes.cause().getMessage(), "Unexpected failure");
+          asyncSendFailed.complete();
+        });
+
+        producer.close(closeRes -> {
+          context.assertTrue(closeRes.succeeded());
+          context.assertTrue(asyncSendFailed.isCompleted(), "Expected queued send to fail before close completes");
+          asyncClosed.complete();
+        });
+      });
+      thread.start();
+
+      try {
+        thread.join();
+      } catch (InterruptedException e) {
+        context.fail(e);
+      }
+    });
+
+    try {
+      asyncSendFailed.awaitSuccess();
+      asyncClosed.awaitSuccess();
+
+      Async asyncShutdown = context.async();
+      bridge.close(shutdownRes -> {
+        context.assertTrue(shutdownRes.succeeded());
+        asyncShutdown.complete();
+      });
+      asyncShutdown.awaitSuccess();
+    } finally {
+      server.close();
+    }
+  }
+
+  @Test(timeout = 20000)
+  public void testDeliveryTagsReusedOnceSettled(TestContext context) throws Exception {
+    stopBroker();
+
+    Async asyncSends = context.async();
+    List<byte[]> tags = new ArrayList<>();
+    List<ProtonDelivery> deliveries = new ArrayList<>();
+
+    MockServer server = new MockServer(vertx, serverConnection -> {
+      serverConnection.openHandler(x -> {
+        serverConnection.open();
+      });
+      serverConnection.closeHandler(x -> {
+        serverConnection.close();
+      });
+      serverConnection.sessionOpenHandler(serverSession -> {
+        serverSession.open();
+      });
+      serverConnection.receiverOpenHandler(serverReceiver -> {
+        serverReceiver.handler((delivery, msg) -> {
+          if (!deliveries.isEmpty()) {
+            context.assertTrue(deliveries.get(0).isSettled(),
+                "Expected delivery to be settled before its tag is reused");
+          }
+
+          tags.add(delivery.getTag());
+          deliveries.add(delivery);
+        });
+        serverReceiver.open();
+      });
+    });
+
+    AmqpBridgeOptions options = new AmqpBridgeOptions().setReplyHandlingSupport(false);
+    AmqpBridge bridge = AmqpBridge.create(vertx, options);
+    bridge.start("localhost", server.actualPort(), res -> {
+      context.assertTrue(res.succeeded(), "Expected start to succeed");
+
+      MessageProducer<JsonObject> producer = bridge.createProducer(getTestName());
+      producer.write(new JsonObject().put(AmqpConstants.BODY, "first"), firstRes -> {
+        context.assertTrue(firstRes.succeeded(), "Expected first send to be accepted");
+
+        // Sent after the first delivery is settled, so its tag can be reused.
+        producer.write(new JsonObject().put(AmqpConstants.BODY, "second"), secondRes -> {
+          context.assertTrue(secondRes.succeeded(), "Expected second send to be accepted");
+          asyncSends.complete();
+        });
+      });
+    });
+
+    try {
+      asyncSends.awaitSuccess();
+
+      Async asyncShutdown = context.async();
+      bridge.close(shutdownRes -> {
+        context.assertTrue(shutdownRes.succeeded());
+        asyncShutdown.complete();
+      });
+      asyncShutdown.awaitSuccess();
+    } finally {
+      server.close();
+    }
+
+    context.assertEquals(2, tags.size(), "Unexpected number of deliveries");
+    context.assertTrue(Arrays.equals(tags.get(0), tags.get(1)), "Expected delivery tag to be reused");
+  }
+
   @Test(timeout = 20000)
   public void testBasicRequestReply(TestContext context) {
     Async asyncRequest = context.async();
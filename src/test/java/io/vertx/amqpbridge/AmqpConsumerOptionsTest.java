@@ -0,0 +1,123 @@
+/*
+* Copyright 2016 the original author or authors.
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package io.vertx.amqpbridge;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.HashSet;
+
+import org.junit.Test;
+
+public class AmqpConsumerOptionsTest {
+
+  @Test
+  public void testDifferentObjectsEqual() {
+    AmqpConsumerOptions options1 = new AmqpConsumerOptions();
+    options1.addIncludedSection(AmqpConstants.BODY);
+    options1.setMaxMessageSize(1024);
+    AmqpConsumerOptions options2 = new AmqpConsumerOptions(options1);
+
+    assertNotSame("Options should be different objects", options1, options2);
+    assertEquals("Options should be equal", options1, options2);
+    assertEquals("Options should have same hash code", options1.hashCode(), options2.hashCode());
+    assertEquals("Options should be equal", options1, new AmqpConsumerOptions(options1.toJson()));
+
+    options2.setMaxMessageSize(2048);
+    assertNotEquals("Options should not be equal", options1, options2);
+  }
+
+  @Test
+  public void testIncludedSections() {
+    AmqpConsumerOptions options = new AmqpConsumerOptions();
+
+    assertNull("No default should be present", options.getIncludedSections());
+
+    options.setIncludedSections(new HashSet<>(Arrays.asList(AmqpConstants.BODY, AmqpConstants.PROPERTIES)));
+    assertEquals("Included sections were not as expected",
+        new HashSet<>(Arrays.asList(AmqpConstants.BODY, AmqpConstants.PROPERTIES)), options.getIncludedSections());
+
+    try {
+      options.addIncludedSection("footer");
+      fail("Expected unknown section to be rejected");
+    } catch (IllegalArgumentException iae) {
+      // Expected
+    }
+
+    options.setIncludedSections(null);
+    assertNull("Included sections should be cleared", options.getIncludedSections());
+  }
+
+  @Test
+  public void testMaxMessageSize() {
+    AmqpConsumerOptions options = new AmqpConsumerOptions();
+
+    assertEquals("Unexpected default max message size", 0, options.getMaxMessageSize());
+
+    options.setMaxMessageSize(1024);
+    assertEquals("Unexpected max message size", 1024, options.getMaxMessageSize());
+
+    try {
+      options.setMaxMessageSize(-1);
+      fail("Expected negative size to be rejected");
+    } catch (IllegalArgumentException iae) {
+      // Expected
+    }
+  }
+
+  @Test
+  public void testDecompressDataBodies() {
+    AmqpConsumerOptions options = new AmqpConsumerOptions();
+
+    assertTrue("Data bodies should be decompressed by default", options.isDecompressDataBodies());
+
+    options.setDecompressDataBodies(false);
+    assertFalse("Data bodies should not be decompressed", options.isDecompressDataBodies());
+  }
+
+  @Test
+  public void testMaxDecompressedSize() {
+    AmqpConsumerOptions options = new AmqpConsumerOptions();
+
+    assertEquals("Unexpected default max decompressed size", AmqpConsumerOptions.DEFAULT_MAX_DECOMPRESSED_SIZE,
+        options.getMaxDecompressedSize());
+
+    options.setMaxDecompressedSize(0);
+    assertEquals("Unexpected max decompressed size", 0, options.getMaxDecompressedSize());
+
+    try {
+      options.setMaxDecompressedSize(-1);
+      fail("Expected negative size to be rejected");
+    } catch (IllegalArgumentException iae) {
+      // Expected
+    }
+
+    AmqpConsumerOptions copy = new AmqpConsumerOptions(options);
+    assertEquals("Unexpected copied max decompressed size", 0, copy.getMaxDecompressedSize());
+    assertEquals("Options should be equal", options, new AmqpConsumerOptions(options.toJson()));
+  }
+
+  @Test
+  public void testSelector() {
+    AmqpConsumerOptions options = new AmqpConsumerOptions();
+
+    assertNull("No default should be present", options.getSelector());
+
+    String selector = "color = 'red'";
+    options.setSelector(selector);
+    assertEquals("Selector was not as expected", selector, options.getSelector());
+  }
+}
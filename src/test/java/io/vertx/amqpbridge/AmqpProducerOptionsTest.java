@@ -0,0 +1,141 @@
+/*
+* Copyright 2016 the original author or authors.
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package io.vertx.amqpbridge;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import io.vertx.core.json.JsonObject;
+import io.vertx.proton.ProtonQoS;
+
+public class AmqpProducerOptionsTest {
+
+  @Test
+  public void testDifferentObjectsEqual() {
+    AmqpProducerOptions options1 = new AmqpProducerOptions();
+    options1.setTemplate(new JsonObject().put(AmqpConstants.PROPERTIES, new JsonObject()));
+    options1.setCompression(AmqpConstants.CONTENT_ENCODING_GZIP);
+    options1.setQos(ProtonQoS.AT_MOST_ONCE);
+    AmqpProducerOptions options2 = new AmqpProducerOptions(options1);
+
+    assertNotSame("Options should be different objects", options1, options2);
+    assertEquals("Options should be equal", options1, options2);
+    assertEquals("Options should have same hash code", options1.hashCode(), options2.hashCode());
+    assertEquals("Options should be equal", options1, new AmqpProducerOptions(options1.toJson()));
+
+    options2.setQos(ProtonQoS.AT_LEAST_ONCE);
+    assertNotEquals("Options should not be equal", options1, options2);
+  }
+
+  @Test
+  public void testCompression() {
+    AmqpProducerOptions options = new AmqpProducerOptions();
+
+    assertNull("No default should be present", options.getCompression());
+    assertEquals("Unexpected default threshold", AmqpProducerOptions.DEFAULT_COMPRESSION_THRESHOLD,
+        options.getCompressionThreshold());
+
+    options.setCompression(AmqpConstants.CONTENT_ENCODING_DEFLATE).setCompressionThreshold(0);
+    assertEquals("Compression was not as expected", AmqpConstants.CONTENT_ENCODING_DEFLATE, options.getCompression());
+    assertEquals("Threshold was not as expected", 0, options.getCompressionThreshold());
+
+    try {
+      options.setCompression("br");
+      fail("Expected unsupported compression to be rejected");
+    } catch (IllegalArgumentException iae) {
+      // Expected
+    }
+
+    try {
+      options.setCompressionThreshold(-1);
+      fail("Expected negative threshold to be rejected");
+    } catch (IllegalArgumentException iae) {
+      // Expected
+    }
+  }
+
+  @Test
+  public void testQos() {
+    AmqpProducerOptions options = new AmqpProducerOptions();
+
+    assertEquals("Unexpected default quality of service", ProtonQoS.AT_LEAST_ONCE, options.getQos());
+
+    options.setQos(ProtonQoS.AT_MOST_ONCE);
+    assertEquals("Quality of service was not as expected", ProtonQoS.AT_MOST_ONCE, options.getQos());
+  }
+
+  @Test
+  public void testMaxInFlight() {
+    AmqpProducerOptions options = new AmqpProducerOptions();
+
+    assertEquals("Unexpected default max in-flight", 0, options.getMaxInFlight());
+
+    options.setMaxInFlight(100);
+    assertEquals("Max in-flight was not as expected", 100, options.getMaxInFlight());
+    assertEquals("Options should be equal", options, new AmqpProducerOptions(options.toJson()));
+
+    try {
+      options.setMaxInFlight(-1);
+      fail("Expected negative max in-flight to be rejected");
+    } catch (IllegalArgumentException iae) {
+      // Expected
+    }
+  }
+
+  @Test
+  public void testWriteQueueBounds() {
+    AmqpProducerOptions options = new AmqpProducerOptions();
+
+    assertEquals("Unexpected default max bytes", 0, options.getWriteQueueMaxBytes());
+    assertEquals("Unexpected default overflow policy", WriteQueueOverflowPolicy.FAIL,
+        options.getWriteQueueOverflowPolicy());
+
+    options.setWriteQueueMaxBytes(65536).setWriteQueueOverflowPolicy(WriteQueueOverflowPolicy.DROP_OLDEST);
+    assertEquals("Max bytes was not as expected", 65536, options.getWriteQueueMaxBytes());
+    assertEquals("Overflow policy was not as expected", WriteQueueOverflowPolicy.DROP_OLDEST,
+        options.getWriteQueueOverflowPolicy());
+    assertEquals("Options should be equal", options, new AmqpProducerOptions(options.toJson()));
+
+    try {
+      options.setWriteQueueMaxBytes(-1);
+      fail("Expected negative max bytes to be rejected");
+    } catch (IllegalArgumentException iae) {
+      // Expected
+    }
+  }
+
+  @Test
+  public void testLinks() {
+    AmqpProducerOptions options = new AmqpProducerOptions();
+
+    assertEquals("Unexpected default links", 1, options.getLinks());
+    assertEquals("Unexpected default dispatch policy", LinkDispatchPolicy.ROUND_ROBIN, options.getLinkDispatchPolicy());
+
+    options.setLinks(4).setLinkDispatchPolicy(LinkDispatchPolicy.MOST_CREDIT);
+    assertEquals("Links was not as expected", 4, options.getLinks());
+    assertEquals("Dispatch policy was not as expected", LinkDispatchPolicy.MOST_CREDIT,
+        options.getLinkDispatchPolicy());
+    assertEquals("Options should be equal", options, new AmqpProducerOptions(options.toJson()));
+
+    try {
+      options.setLinks(0);
+      fail("Expected fewer than one link to be rejected");
+    } catch (IllegalArgumentException iae) {
+      // Expected
+    }
+  }
+}
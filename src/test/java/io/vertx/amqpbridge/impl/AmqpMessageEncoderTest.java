@@ -0,0 +1,361 @@
+/*
+* Copyright 2016 the original author or authors.
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package io.vertx.amqpbridge.impl;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+import io.vertx.amqpbridge.AmqpConstants;
+import org.apache.qpid.proton.Proton;
+import org.apache.qpid.proton.amqp.Binary;
+import org.apache.qpid.proton.amqp.UnsignedLong;
+import org.apache.qpid.proton.amqp.messaging.AmqpValue;
+import org.apache.qpid.proton.amqp.messaging.Data;
+import org.apache.qpid.proton.codec.WritableBuffer;
+import org.apache.qpid.proton.message.Message;
+import org.junit.Before;
+import org.junit.Test;
+
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+
+public class AmqpMessageEncoderTest {
+
+  private MessageTranslatorImpl translator;
+
+  @Before
+  public void setUp() throws Exception {
+    translator = new MessageTranslatorImpl();
+  }
+
+  @Test
+  public void testEncodedMessageEqualsConvertedMessage() {
+    StringBuilder longString = new StringBuilder();
+    for (int i = 0; i < 100; i++) {
+      longString.append("long-\u00e9\u4e2d\ud83d\ude00");
+    }
+
+    JsonObject nested = new JsonObject();
+    nested.put("string", "nested");
+    nested.put("long-string", longString.toString());
+    nested.put("int", 123456);
+    nested.put("small-int", -5);
+    nested.put("long", Long.MAX_VALUE);
+    nested.put("double", 1.5d);
+    nested.put("float", 2.5f);
+    nested.put("boolean", false);
+    nested.put("null", (Object) null);
+    nested.put("array", new JsonArray().add(1).add("two").add(new JsonArray()).add(new JsonObject().put("a", true)));
+
+    JsonObject jsonObject = new JsonObject();
+    jsonObject.put(AmqpConstants.BODY, new JsonObject().put("nested", nested).put("empty", new JsonObject()));
+
+    JsonObject jsonHeader = new JsonObject();
+    jsonHeader.put(AmqpConstants.HEADER_DURABLE, true);
+    jsonHeader.put(AmqpConstants.HEADER_PRIORITY, 7);
+    jsonHeader.put(AmqpConstants.HEADER_TTL, 5000L);
+    jsonHeader.put(AmqpConstants.HEADER_DELIVERY_COUNT, 300L);
+    jsonObject.put(AmqpConstants.HEADER, jsonHeader);
+
+    JsonObject jsonProps = new JsonObject();
+    jsonProps.put(AmqpConstants.PROPERTIES_TO, "myTo");
+    jsonProps.put(AmqpConstants.PROPERTIES_MESSAGE_ID, "myMessageId");
+    jsonProps.put(AmqpConstants.PROPERTIES_USER_ID, "myUser\u00e9");
+    jsonProps.put(AmqpConstants.PROPERTIES_CONTENT_TYPE, "text/plain");
+    jsonProps.put(AmqpConstants.PROPERTIES_CREATION_TIME, 1234567L);
+    jsonProps.put(AmqpConstants.PROPERTIES_GROUP_SEQUENCE, 4000000000L);
+    jsonObject.put(AmqpConstants.PROPERTIES, jsonProps);
+
+    jsonObject.put(AmqpConstants.APPLICATION_PROPERTIES, new JsonObject().put("prop", "value").put("count", 3));
+    jsonObject.put(AmqpConstants.MESSAGE_ANNOTATIONS, new JsonObject().put("x-opt-ann", longString.toString()));
+
+    Message expected = translator.convertToAmqpMessage(jsonObject);
+    Message decoded = decode(translator.convertToEncodedAmqpMessage(jsonObject, null, null, null));
+
+    assertEquals("Unexpected message", translator.convertToJsonObject(expected),
+        translator.convertToJsonObject(decoded));
+    assertEquals("Unexpected group sequence", 4000000000L, decoded.getGroupSequence());
+    assertEquals("Unexpected priority", 7, decoded.getPriority());
+  }
+
+  @Test
+  public void testEncodedMessageWithAddressOverrides() {
+    JsonObject jsonObject = new JsonObject();
+    jsonObject.put(AmqpConstants.BODY, "myBody");
+    jsonObject.put(AmqpConstants.PROPERTIES, new JsonObject().put(AmqpConstants.PROPERTIES_TO, "originalTo")
+        .put(AmqpConstants.PROPERTIES_SUBJECT, "mySubject"));
+
+    AmqpEncodedMessage encoded = translator.convertToEncodedAmqpMessage(jsonObject, "myTo", "myReplyTo", "myId");
+    assertEquals("Unexpected address", "myTo", encoded.getAddress());
+
+    Message decoded = decode(encoded);
+    assertEquals("Unexpected to", "myTo", decoded.getAddress());
+    assertEquals("Unexpected reply-to", "myReplyTo", decoded.getReplyTo());
+    assertEquals("Unexpected message-id", "myId", decoded.getMessageId());
+    assertEquals("Unexpected subject", "mySubject", decoded.getSubject());
+    assertEquals("Unexpected body", "myBody", ((AmqpValue) decoded.getBody()).getValue());
+  }
+
+  @Test
+  public void testEncodedMessageWithTypedIds() {
+    translator.setTypedIds(true);
+
+    UUID correlationId = UUID.randomUUID();
+
+    JsonObject jsonProps = new JsonObject();
+    jsonProps.put(AmqpConstants.PROPERTIES_MESSAGE_ID, 123L);
+    jsonProps.put(AmqpConstants.PROPERTIES_CORRELATION_ID, correlationId.toString());
+    jsonProps.put(AmqpConstants.PROPERTIES_CORRELATION_ID_TYPE, AmqpConstants.ID_TYPE_UUID);
+
+    JsonObject jsonObject = new JsonObject().put(AmqpConstants.PROPERTIES, jsonProps);
+
+    Message expected = translator.convertToAmqpMessage(jsonObject);
+    Message decoded = decode(translator.convertToEncodedAmqpMessage(jsonObject, null, null, null));
+    assertEquals("Unexpected message-id", expected.getMessageId(), decoded.getMessageId());
+    assertEquals("Unexpected message-id", UnsignedLong.valueOf(123), decoded.getMessageId());
+    assertEquals("Unexpected correlation-id", correlationId, decoded.getCorrelationId());
+
+    decoded = decode(translator.convertToEncodedAmqpMessage(jsonObject, null, null, null, UnsignedLong.valueOf(456),
+        new Binary(new byte[] { 1, 2 })));
+    assertEquals("Unexpected message-id", UnsignedLong.valueOf(456), decoded.getMessageId());
+    assertEquals("Unexpected correlation-id", new Binary(new byte[] { 1, 2 }), decoded.getCorrelationId());
+  }
+
+  @Test
+  public void testEncodedMessageAddressFromProperties() {
+    JsonObject jsonObject = new JsonObject();
+    jsonObject.put(AmqpConstants.PROPERTIES, new JsonObject().put(AmqpConstants.PROPERTIES_TO, "myTo"));
+
+    AmqpEncodedMessage encoded = translator.convertToEncodedAmqpMessage(jsonObject, null, null, null);
+    assertEquals("Unexpected address", "myTo", encoded.getAddress());
+  }
+
+  @Test
+  public void testEncodedEmptyMessage() {
+    Message decoded = decode(translator.convertToEncodedAmqpMessage(new JsonObject(), null, null, null));
+
+    assertTrue("Unexpected body type", decoded.getBody() instanceof AmqpValue);
+    assertNull("Unexpected body", ((AmqpValue) decoded.getBody()).getValue());
+    assertNull("Unexpected properties", decoded.getProperties());
+    assertNull("Unexpected header", decoded.getHeader());
+  }
+
+  @Test
+  public void testEncodedDataBody() {
+    byte[] bytes = "myData".getBytes(StandardCharsets.UTF_8);
+
+    JsonObject jsonObject = new JsonObject();
+    jsonObject.put(AmqpConstants.BODY, bytes);
+    jsonObject.put(AmqpConstants.BODY_TYPE, AmqpConstants.BODY_TYPE_DATA);
+
+    Message decoded = decode(translator.convertToEncodedAmqpMessage(jsonObject, null, null, null));
+    assertTrue("Unexpected body type", decoded.getBody() instanceof Data);
+    assertEquals("Unexpected body", new Binary(bytes), ((Data) decoded.getBody()).getValue());
+  }
+
+  @Test
+  public void testEncodedDataBodyFromBuffer() {
+    byte[] bytes = new byte[1000];
+    for (int i = 0; i < bytes.length; i++) {
+      bytes[i] = (byte) i;
+    }
+
+    JsonObject jsonObject = new JsonObject();
+    jsonObject.getMap().put(AmqpConstants.BODY, Buffer.buffer(bytes));
+    jsonObject.put(AmqpConstants.BODY_TYPE, AmqpConstants.BODY_TYPE_DATA);
+
+    AmqpEncodedMessage encoded = translator.convertToEncodedAmqpMessage(jsonObject, null, null, null);
+
+    ByteBuffer byteBuffer = ByteBuffer.allocate(encoded.getEncodedSize());
+    assertEquals("Unexpected encoded size", encoded.getEncodedSize(),
+        encoded.encode(new WritableBuffer.ByteBufferWrapper(byteBuffer)));
+
+    Message decoded = Proton.message();
+    decoded.decode(byteBuffer.array(), 0, byteBuffer.position());
+    assertEquals("Unexpected body", new Binary(bytes), ((Data) decoded.getBody()).getValue());
+  }
+
+  @Test
+  public void testEncodedSequenceBody() {
+    JsonObject jsonObject = new JsonObject();
+    jsonObject.put(AmqpConstants.BODY, new JsonArray().add("one").add(2).add(new JsonObject().put("three", 3)));
+    jsonObject.put(AmqpConstants.BODY_TYPE, AmqpConstants.BODY_TYPE_SEQUENCE);
+
+    Message expected = translator.convertToAmqpMessage(jsonObject);
+    Message decoded = decode(translator.convertToEncodedAmqpMessage(jsonObject, null, null, null));
+
+    assertEquals("Unexpected message", translator.convertToJsonObject(expected),
+        translator.convertToJsonObject(decoded));
+  }
+
+  @Test
+  public void testEncodeIntoTooSmallArray() {
+    AmqpEncodedMessage encoded = translator.convertToEncodedAmqpMessage(new JsonObject().put(AmqpConstants.BODY,
+        "myBody"), null, null, null);
+
+    byte[] tooSmall = new byte[encoded.getEncodedSize() - 1];
+    assertEquals("Unexpected required size", encoded.getEncodedSize(), encoded.encode2(tooSmall, 0, tooSmall.length));
+
+    byte[] exact = new byte[encoded.getEncodedSize()];
+    assertEquals("Unexpected encoded size", exact.length, encoded.encode2(exact, 0, exact.length));
+
+    byte[] expected = new byte[exact.length];
+    encoded.encode(expected, 0, expected.length);
+    assertArrayEquals("Unexpected encoding", expected, exact);
+  }
+
+  @Test
+  public void testEncodeUnsupportedValueFails() {
+    JsonObject jsonObject = new JsonObject();
+    jsonObject.getMap().put(AmqpConstants.BODY, new Object());
+
+    try {
+      translator.convertToEncodedAmqpMessage(jsonObject, null, null, null);
+      fail("Expected encoding to fail");
+    } catch (IllegalArgumentException iae) {
+      // Expected
+    }
+  }
+
+  @Test
+  public void testEncodedMessageWithTemplate() {
+    JsonObject template = new JsonObject();
+    template.put(AmqpConstants.HEADER, new JsonObject().put(AmqpConstants.HEADER_DURABLE, true));
+    template.put(AmqpConstants.PROPERTIES, new JsonObject().put(AmqpConstants.PROPERTIES_SUBJECT, "mySubject"));
+    template.put(AmqpConstants.APPLICATION_PROPERTIES, new JsonObject().put("prop", "value"));
+    template.put(AmqpConstants.MESSAGE_ANNOTATIONS, new JsonObject().put("x-opt-ann", "annValue"));
+    template.put(AmqpConstants.BODY, "templateBody");
+
+    AmqpMessageTemplate messageTemplate = translator.createMessageTemplate(template);
+
+    JsonObject jsonObject = new JsonObject();
+    jsonObject.put(AmqpConstants.BODY, "myBody");
+    jsonObject.put(AmqpConstants.APPLICATION_PROPERTIES, new JsonObject().put("other", "otherValue"));
+
+    Message decoded = decode(translator.convertToEncodedAmqpMessage(jsonObject, messageTemplate, null, null, null));
+
+    JsonObject expectedJson = template.copy();
+    expectedJson.put(AmqpConstants.BODY, "myBody");
+    expectedJson.put(AmqpConstants.APPLICATION_PROPERTIES, new JsonObject().put("other", "otherValue"));
+    Message expected = translator.convertToAmqpMessage(expectedJson);
+
+    assertEquals("Unexpected message", translator.convertToJsonObject(expected),
+        translator.convertToJsonObject(decoded));
+  }
+
+  @Test
+  public void testEncodedMessageWithTemplateAndOverrides() {
+    JsonObject template = new JsonObject();
+    template.put(AmqpConstants.PROPERTIES, new JsonObject().put(AmqpConstants.PROPERTIES_SUBJECT, "mySubject")
+        .put(AmqpConstants.PROPERTIES_TO, "templateTo"));
+
+    AmqpMessageTemplate messageTemplate = translator.createMessageTemplate(template);
+
+    AmqpEncodedMessage encoded = translator.convertToEncodedAmqpMessage(new JsonObject(), messageTemplate, null,
+        null, null);
+    assertEquals("Unexpected address", "templateTo", encoded.getAddress());
+
+    encoded = translator.convertToEncodedAmqpMessage(new JsonObject(), messageTemplate, "myTo", "myReplyTo", "myId");
+    assertEquals("Unexpected address", "myTo", encoded.getAddress());
+
+    Message decoded = decode(encoded);
+    assertEquals("Unexpected to", "myTo", decoded.getAddress());
+    assertEquals("Unexpected reply-to", "myReplyTo", decoded.getReplyTo());
+    assertEquals("Unexpected message-id", "myId", decoded.getMessageId());
+    assertEquals("Unexpected subject", "mySubject", decoded.getSubject());
+  }
+
+  @Test
+  public void testTemplateUnaffectedByLaterChanges() {
+    JsonObject jsonProps = new JsonObject().put(AmqpConstants.PROPERTIES_SUBJECT, "mySubject");
+    JsonObject template = new JsonObject().put(AmqpConstants.PROPERTIES, jsonProps);
+
+    AmqpMessageTemplate messageTemplate = translator.createMessageTemplate(template);
+    jsonProps.put(AmqpConstants.PROPERTIES_SUBJECT, "changedSubject");
+
+    Message decoded = decode(translator.convertToEncodedAmqpMessage(new JsonObject(), messageTemplate, null,
+        "myReplyTo", null));
+    assertEquals("Unexpected subject", "mySubject", decoded.getSubject());
+  }
+
+  @Test
+  public void testNestedValueEncoded() {
+    int depth = 200;
+    translator.setMaxNestingDepth(depth + 2);
+
+    JsonObject jsonMap = new JsonObject().put("list", new JsonArray().add(1).add(new JsonArray()));
+    for (int i = 0; i < depth; i++) {
+      jsonMap = new JsonObject().put("nested", jsonMap).put("index", i);
+    }
+
+    JsonObject jsonObject = new JsonObject().put(AmqpConstants.BODY, jsonMap);
+    Message decoded = decode(translator.convertToEncodedAmqpMessage(jsonObject, null, null, null));
+
+    assertEquals("Unexpected body", ((AmqpValue) translator.convertToAmqpMessage(jsonObject).getBody()).getValue(),
+        ((AmqpValue) decoded.getBody()).getValue());
+  }
+
+  @Test
+  public void testNestingLimitsEnforced() {
+    translator.setMaxNestingDepth(2).setMaxNestedElements(3);
+
+    JsonObject jsonObject = new JsonObject().put(AmqpConstants.BODY, new JsonArray().add(new JsonArray().add(1)));
+    translator.convertToEncodedAmqpMessage(jsonObject, null, null, null);
+
+    jsonObject.put(AmqpConstants.BODY, new JsonArray().add(new JsonArray().add(new JsonArray())));
+    try {
+      translator.convertToEncodedAmqpMessage(jsonObject, null, null, null);
+      fail("Expected value to be rejected");
+    } catch (IllegalArgumentException iae) {
+      // Expected
+    }
+
+    jsonObject.put(AmqpConstants.BODY, new JsonObject().put("a", 1).put("b", 2).put("c", 3).put("d", 4));
+    try {
+      translator.convertToEncodedAmqpMessage(jsonObject, null, null, null);
+      fail("Expected value to be rejected");
+    } catch (IllegalArgumentException iae) {
+      // Expected
+    }
+  }
+
+  @Test
+  public void testUtf8Length() {
+    String[] values = { "", "ascii", "\u00e9\u07ff", "\u0800\uffff", "\ud83d\ude00", "\ud83d", "x\ude00y" };
+    for (String value : values) {
+      assertEquals("Unexpected length for " + value, value.getBytes(StandardCharsets.UTF_8).length,
+          AmqpMessageEncoder.utf8Length(value));
+    }
+  }
+
+  private Message decode(AmqpEncodedMessage encoded) {
+    byte[] bytes = new byte[encoded.getEncodedSize()];
+    assertEquals("Unexpected encoded size", bytes.length, encoded.encode(bytes, 0, bytes.length));
+
+    Message protonMsg = Proton.message();
+    protonMsg.decode(bytes, 0, bytes.length);
+
+    return protonMsg;
+  }
+}
@@ -0,0 +1,93 @@
+/*
+* Copyright 2016 the original author or authors.
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package io.vertx.amqpbridge.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import io.vertx.amqpbridge.AmqpMessageRouter;
+import io.vertx.amqpbridge.MessageTranslator;
+import org.apache.qpid.proton.Proton;
+import org.apache.qpid.proton.amqp.messaging.ApplicationProperties;
+import org.junit.Test;
+
+import io.vertx.core.eventbus.Message;
+
+public class AmqpMessageRouterImplTest {
+
+  @Test
+  public void testRouteBySubject() {
+    List<String> routed = new ArrayList<>();
+
+    AmqpMessageRouter<org.apache.qpid.proton.message.Message> router = AmqpMessageRouter.bySubject();
+    router.route("a", msg -> routed.add("a:" + msg.body().getSubject()));
+    router.route("b", msg -> routed.add("b:" + msg.body().getSubject()));
+    router.otherwise(msg -> routed.add("otherwise:" + msg.body().getSubject()));
+
+    router.handle(createMessage("b", null));
+    router.handle(createMessage("a", null));
+    router.handle(createMessage("c", null));
+    router.handle(createMessage(null, null));
+
+    assertEquals("Unexpected routing", Arrays.asList("b:b", "a:a", "otherwise:c", "otherwise:null"), routed);
+  }
+
+  @Test
+  public void testRouteByGroupId() {
+    List<Message<org.apache.qpid.proton.message.Message>> routed = new ArrayList<>();
+
+    AmqpMessageRouter<org.apache.qpid.proton.message.Message> router = AmqpMessageRouter.byGroupId();
+    router.route("group", routed::add);
+
+    Message<org.apache.qpid.proton.message.Message> message = createMessage(null, null);
+    message.body().setGroupId("group");
+    router.handle(message);
+
+    assertEquals("Unexpected number of messages routed", 1, routed.size());
+    assertSame("Unexpected message routed", message, routed.get(0));
+  }
+
+  @Test
+  public void testRouteByApplicationProperty() {
+    List<String> routed = new ArrayList<>();
+
+    AmqpMessageRouter<org.apache.qpid.proton.message.Message> router = AmqpMessageRouter.byApplicationProperty("key");
+    router.route("red", msg -> routed.add("red"));
+    router.route("5", msg -> routed.add("5"));
+
+    router.handle(createMessage(null, "red"));
+    router.handle(createMessage(null, 5));
+    router.handle(createMessage(null, "blue"));
+    router.handle(createMessage(null, null));
+
+    assertEquals("Unexpected routing", Arrays.asList("red", "5"), routed);
+  }
+
+  private Message<org.apache.qpid.proton.message.Message> createMessage(String subject, Object appPropValue) {
+    org.apache.qpid.proton.message.Message protonMsg = Proton.message();
+    protonMsg.setSubject(subject);
+    if (appPropValue != null) {
+      protonMsg.setApplicationProperties(new ApplicationProperties(Collections.singletonMap("key", appPropValue)));
+    }
+
+    return new AmqpMessageImpl<>(protonMsg, MessageTranslator.protonMessage(), null, protonMsg, null, "address", null);
+  }
+}
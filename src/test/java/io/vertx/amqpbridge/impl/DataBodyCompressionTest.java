@@ -0,0 +1,136 @@
+/*
+* Copyright 2016 the original author or authors.
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package io.vertx.amqpbridge.impl;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.nio.charset.StandardCharsets;
+
+import io.vertx.amqpbridge.AmqpConstants;
+import org.apache.qpid.proton.Proton;
+import org.apache.qpid.proton.amqp.Binary;
+import org.apache.qpid.proton.amqp.messaging.Data;
+import org.apache.qpid.proton.message.Message;
+import org.junit.Test;
+
+import io.vertx.core.json.JsonObject;
+
+public class DataBodyCompressionTest {
+
+  private final MessageTranslatorImpl translator = new MessageTranslatorImpl();
+
+  @Test
+  public void testGzipRoundTrip() {
+    doRoundTripTestImpl(AmqpConstants.CONTENT_ENCODING_GZIP);
+  }
+
+  @Test
+  public void testDeflateRoundTrip() {
+    doRoundTripTestImpl(AmqpConstants.CONTENT_ENCODING_DEFLATE);
+  }
+
+  private void doRoundTripTestImpl(String contentEncoding) {
+    byte[] content = createContent(4096);
+
+    JsonObject jsonObject = new JsonObject();
+    jsonObject.put(AmqpConstants.BODY_TYPE, AmqpConstants.BODY_TYPE_DATA);
+    jsonObject.getMap().put(AmqpConstants.BODY, content);
+
+    JsonObject compressed = DataBodyCompression.compress(translator, jsonObject, null, contentEncoding, 1024);
+    assertNull("Original message should be unchanged", jsonObject.getJsonObject(AmqpConstants.PROPERTIES));
+    assertEquals("Unexpected content encoding", contentEncoding,
+        compressed.getJsonObject(AmqpConstants.PROPERTIES).getString(AmqpConstants.PROPERTIES_CONTENT_ENCODING));
+
+    Message protonMsg = translator.convertToAmqpMessage(compressed);
+    Binary compressedContent = ((Data) protonMsg.getBody()).getValue();
+    assertTrue("Expected body to be compressed", compressedContent.getLength() < content.length);
+
+    DataBodyCompression.decompress(protonMsg, 0);
+    assertNull("Expected content encoding to be removed", protonMsg.getContentEncoding());
+    assertArrayEquals("Unexpected decompressed content", content, ((Data) protonMsg.getBody()).getValue().getArray());
+  }
+
+  @Test
+  public void testBelowThresholdNotCompressed() {
+    JsonObject jsonObject = new JsonObject();
+    jsonObject.put(AmqpConstants.BODY_TYPE, AmqpConstants.BODY_TYPE_DATA);
+    jsonObject.getMap().put(AmqpConstants.BODY, createContent(100));
+
+    assertSame("Expected message not to be compressed", jsonObject,
+        DataBodyCompression.compress(translator, jsonObject, null, AmqpConstants.CONTENT_ENCODING_GZIP, 1024));
+  }
+
+  @Test
+  public void testExistingContentEncodingNotCompressed() {
+    JsonObject jsonObject = new JsonObject();
+    jsonObject.put(AmqpConstants.BODY_TYPE, AmqpConstants.BODY_TYPE_DATA);
+    jsonObject.getMap().put(AmqpConstants.BODY, createContent(4096));
+    jsonObject.put(AmqpConstants.PROPERTIES, new JsonObject().put(AmqpConstants.PROPERTIES_CONTENT_ENCODING, "br"));
+
+    assertSame("Expected message not to be compressed", jsonObject,
+        DataBodyCompression.compress(translator, jsonObject, null, AmqpConstants.CONTENT_ENCODING_GZIP, 0));
+  }
+
+  @Test
+  public void testProtonMessageRoundTrip() {
+    byte[] content = createContent(4096);
+
+    Message protonMsg = Proton.message();
+    protonMsg.setBody(new Data(new Binary(content)));
+
+    DataBodyCompression.compress(protonMsg, AmqpConstants.CONTENT_ENCODING_GZIP, 0);
+    assertEquals("Unexpected content encoding", AmqpConstants.CONTENT_ENCODING_GZIP, protonMsg.getContentEncoding());
+
+    DataBodyCompression.decompress(protonMsg, 0);
+    assertArrayEquals("Unexpected decompressed content", content, ((Data) protonMsg.getBody()).getValue().getArray());
+  }
+
+  @Test
+  public void testDecompressLimits() {
+    Message protonMsg = Proton.message();
+    protonMsg.setBody(new Data(new Binary(createContent(4096))));
+    DataBodyCompression.compress(protonMsg, AmqpConstants.CONTENT_ENCODING_DEFLATE, 0);
+
+    try {
+      DataBodyCompression.decompress(protonMsg, 1024);
+      fail("Expected decompressed body exceeding the limit to be rejected");
+    } catch (IllegalArgumentException iae) {
+      // Expected
+    }
+
+    protonMsg.setBody(new Data(new Binary("notCompressed".getBytes(StandardCharsets.UTF_8))));
+    try {
+      DataBodyCompression.decompress(protonMsg, 0);
+      fail("Expected invalid body to be rejected");
+    } catch (IllegalArgumentException iae) {
+      // Expected
+    }
+  }
+
+  private byte[] createContent(int size) {
+    byte[] content = new byte[size];
+    for (int i = 0; i < size; i++) {
+      content[i] = (byte) ('a' + (i % 8));
+    }
+
+    return content;
+  }
+}
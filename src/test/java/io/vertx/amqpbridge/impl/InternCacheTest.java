@@ -0,0 +1,124 @@
+/*
+* Copyright 2016 the original author or authors.
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package io.vertx.amqpbridge.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.vertx.amqpbridge.AmqpConstants;
+import org.apache.qpid.proton.Proton;
+import org.apache.qpid.proton.message.Message;
+import org.junit.Test;
+
+import io.vertx.core.json.JsonObject;
+
+public class InternCacheTest {
+
+  @Test
+  public void testCachedValueReturned() {
+    InternCache cache = new InternCache(16);
+    AtomicInteger created = new AtomicInteger();
+
+    Object first = cache.get(0, "key", key -> new Object[] { key, created.incrementAndGet() });
+    Object second = cache.get(0, new String("key"), key -> new Object[] { key, created.incrementAndGet() });
+
+    assertSame("Expected cached value", first, second);
+    assertEquals("Unexpected creation count", 1, created.get());
+    assertEquals("Unexpected hits", 1, cache.hits());
+    assertEquals("Unexpected misses", 1, cache.misses());
+  }
+
+  @Test
+  public void testKindsCachedSeparately() {
+    InternCache cache = new InternCache(16);
+
+    String value = cache.get(0, "key", key -> key);
+    Integer length = cache.get(1, "key", String::length);
+
+    assertEquals("Unexpected value", "key", value);
+    assertEquals("Unexpected value", Integer.valueOf(3), length);
+    assertEquals("Unexpected misses", 2, cache.misses());
+  }
+
+  @Test
+  public void testCapacityRoundedToPowerOfTwo() {
+    assertEquals("Unexpected capacity", 1, new InternCache(1).capacity());
+    assertEquals("Unexpected capacity", 16, new InternCache(16).capacity());
+    assertEquals("Unexpected capacity", 32, new InternCache(17).capacity());
+    assertEquals("Unexpected capacity", InternCache.MAX_CAPACITY, InternCache.roundedCapacity(Integer.MAX_VALUE));
+  }
+
+  @Test
+  public void testDisabledCache() {
+    InternCache cache = new InternCache(0);
+
+    Object first = cache.get(0, "key", key -> new Object());
+    Object second = cache.get(0, "key", key -> new Object());
+
+    assertNotSame("Expected values not to be cached", first, second);
+    assertEquals("Unexpected capacity", 0, cache.capacity());
+    assertEquals("Unexpected misses", 0, cache.misses());
+  }
+
+  @Test
+  public void testEvictionOnCollision() {
+    InternCache cache = new InternCache(1);
+
+    cache.get(0, "a", key -> key);
+    cache.get(0, "b", key -> key);
+    cache.get(0, "a", key -> key);
+
+    assertEquals("Unexpected hits", 0, cache.hits());
+    assertEquals("Unexpected misses", 3, cache.misses());
+  }
+
+  @Test
+  public void testStats() {
+    InternCache cache = new InternCache(8);
+    cache.get(0, "key", key -> key);
+    cache.get(0, "key", key -> key);
+    cache.get(0, "key", key -> key);
+    cache.get(0, "other", key -> key);
+
+    JsonObject stats = cache.stats();
+    assertEquals("Unexpected capacity", Integer.valueOf(8), stats.getInteger("capacity"));
+    assertEquals("Unexpected hits", Long.valueOf(2), stats.getLong("hits"));
+    assertEquals("Unexpected misses", Long.valueOf(2), stats.getLong("misses"));
+    assertEquals("Unexpected hit rate", 0.5d, stats.getDouble("hitRate"), 0.0d);
+  }
+
+  @Test
+  public void testTranslatorInternsDecodedStrings() {
+    MessageTranslatorImpl translator = new MessageTranslatorImpl(new InternCache(64));
+
+    JsonObject first = translator.convertToJsonObject(createMessage());
+    JsonObject second = translator.convertToJsonObject(createMessage());
+
+    assertSame("Expected subject to be interned",
+        first.getJsonObject(AmqpConstants.PROPERTIES).getString(AmqpConstants.PROPERTIES_SUBJECT),
+        second.getJsonObject(AmqpConstants.PROPERTIES).getString(AmqpConstants.PROPERTIES_SUBJECT));
+  }
+
+  private Message createMessage() {
+    Message protonMsg = Proton.message();
+    protonMsg.setSubject(new String("mySubject"));
+
+    return protonMsg;
+  }
+}
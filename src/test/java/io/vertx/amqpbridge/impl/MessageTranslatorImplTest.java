@@ -21,14 +21,19 @@ import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.UUID;
 
 import io.vertx.amqpbridge.AmqpConstants;
 import org.apache.qpid.proton.Proton;
@@ -36,6 +41,7 @@ import org.apache.qpid.proton.amqp.Binary;
 import org.apache.qpid.proton.amqp.Symbol;
 import org.apache.qpid.proton.amqp.UnsignedByte;
 import org.apache.qpid.proton.amqp.UnsignedInteger;
+import org.apache.qpid.proton.amqp.UnsignedLong;
 import org.apache.qpid.proton.amqp.messaging.AmqpSequence;
 import org.apache.qpid.proton.amqp.messaging.AmqpValue;
 import org.apache.qpid.proton.amqp.messaging.ApplicationProperties;
@@ -48,6 +54,7 @@ import org.apache.qpid.proton.message.Message;
 import org.junit.Before;
 import org.junit.Test;
 
+import io.vertx.core.buffer.Buffer;
 import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
 
@@ -671,6 +678,44 @@ public class MessageTranslatorImplTest {
         ((Data) body).getValue());
   }
 
+  @Test
+  public void testAMQP_to_JSON_VerifyDataBodyAsBuffer() {
+    String testContent = "myTestContent";
+    byte[] bytes = testContent.getBytes(StandardCharsets.UTF_8);
+    Message protonMsg = Proton.message();
+    protonMsg.setBody(new Data(new Binary(bytes)));
+
+    translator.setDataBodyAsBuffer(true);
+
+    JsonObject jsonObject = translator.convertToJsonObject(protonMsg);
+    assertNotNull("expected converted msg", jsonObject);
+    assertEquals("unexpected body_type value", AmqpConstants.BODY_TYPE_DATA,
+        jsonObject.getValue(AmqpConstants.BODY_TYPE));
+    Object body = jsonObject.getValue(AmqpConstants.BODY);
+    assertTrue("expected body element value to be a Buffer", body instanceof Buffer);
+    assertEquals("body content not as expected", Buffer.buffer(bytes), body);
+
+    JsonObject lazyJsonObject = translator.convertToLazyJsonObject(protonMsg);
+    assertEquals("body content not as expected", Buffer.buffer(bytes), lazyJsonObject.getValue(AmqpConstants.BODY));
+  }
+
+  @Test
+  public void testJSON_to_AMQP_VerifyDataBodyFromBuffer() {
+    String testContent = "myTestContent";
+    byte[] bytes = testContent.getBytes(StandardCharsets.UTF_8);
+
+    JsonObject jsonObject = new JsonObject();
+    jsonObject.getMap().put(AmqpConstants.BODY, Buffer.buffer(bytes));
+    jsonObject.put(AmqpConstants.BODY_TYPE, AmqpConstants.BODY_TYPE_DATA);
+
+    Message protonMsg = translator.convertToAmqpMessage(jsonObject);
+
+    assertNotNull("Expected converted msg", protonMsg);
+    Section body = protonMsg.getBody();
+    assertTrue("Unexpected body type", body instanceof Data);
+    assertEquals("Unexpected message body value", new Binary(bytes), ((Data) body).getValue());
+  }
+
   // ------ amqp-sequence body section ------
 
   @Test
@@ -903,4 +948,266 @@ public class MessageTranslatorImplTest {
     assertEquals("expected user id value to be present",
         new Binary(testUserId.getBytes(StandardCharsets.UTF_8)), properties.getUserId());
   }
+
+  // ============== lazy conversion ==============
+
+  @Test
+  public void testAMQP_to_LazyJSON_EqualsEagerConversion() {
+    Map<String, Object> appProps = new HashMap<>();
+    appProps.put("testPropKey", "testPropValue");
+
+    Map<Symbol, Object> annotations = new HashMap<>();
+    annotations.put(Symbol.valueOf("testAnnKey"), "testAnnValue");
+
+    Message protonMsg = Proton.message();
+    protonMsg.setBody(new Data(new Binary("myTestContent".getBytes(StandardCharsets.UTF_8))));
+    protonMsg.setAddress("myToAddress");
+    protonMsg.setDurable(true);
+    protonMsg.setApplicationProperties(new ApplicationProperties(appProps));
+    protonMsg.setMessageAnnotations(new MessageAnnotations(annotations));
+
+    JsonObject eager = translator.convertToJsonObject(protonMsg);
+    JsonObject lazy = translator.convertToLazyJsonObject(protonMsg);
+
+    assertEquals("unexpected number of elements", eager.size(), lazy.size());
+    assertEquals("lazy conversion not as expected", eager, lazy);
+    assertArrayEquals("body content not as expected", eager.getBinary(AmqpConstants.BODY),
+        lazy.getBinary(AmqpConstants.BODY));
+  }
+
+  @Test
+  public void testAMQP_to_LazyJSON_ContainsKeyWithoutAccess() {
+    Message protonMsg = Proton.message();
+    protonMsg.setBody(new AmqpValue("myTestContent"));
+    protonMsg.setSubject("myTestSubject");
+
+    JsonObject jsonObject = translator.convertToLazyJsonObject(protonMsg);
+    assertEquals("unexpected number of elements", 3, jsonObject.size());
+    assertTrue("expected body element key to be present", jsonObject.containsKey(AmqpConstants.BODY));
+    assertTrue("expected properties element key to be present", jsonObject.containsKey(AmqpConstants.PROPERTIES));
+    assertFalse("expected header element key not to be present", jsonObject.containsKey(AmqpConstants.HEADER));
+    assertEquals("unexpected body_type value", AmqpConstants.BODY_TYPE_VALUE,
+        jsonObject.getValue(AmqpConstants.BODY_TYPE));
+
+    assertEquals("unexpected subject value", "myTestSubject",
+        jsonObject.getJsonObject(AmqpConstants.PROPERTIES).getString(AmqpConstants.PROPERTIES_SUBJECT));
+    assertEquals("unexpected body value", "myTestContent", jsonObject.getValue(AmqpConstants.BODY));
+  }
+
+  @Test
+  public void testAMQP_to_LazyJSON_ReplaceAndRemoveElements() {
+    Message protonMsg = Proton.message();
+    protonMsg.setBody(new AmqpValue("myTestContent"));
+    protonMsg.setSubject("myTestSubject");
+
+    JsonObject jsonObject = translator.convertToLazyJsonObject(protonMsg);
+    jsonObject.put(AmqpConstants.BODY, "myReplacedContent");
+    assertEquals("unexpected body value", "myReplacedContent", jsonObject.getValue(AmqpConstants.BODY));
+
+    Object removed = jsonObject.remove(AmqpConstants.PROPERTIES);
+    assertNotNull("expected removed properties element value to be non-null", removed);
+    assertFalse("expected properties element key not to be present", jsonObject.containsKey(AmqpConstants.PROPERTIES));
+    assertEquals("unexpected number of elements", 2, jsonObject.size());
+  }
+
+  @Test
+  public void testAMQP_to_JSON_IncludedSectionsOnly() {
+    Map<String, Object> appProps = new HashMap<>();
+    appProps.put("testPropKey", "testPropValue");
+
+    Message protonMsg = Proton.message();
+    protonMsg.setBody(new AmqpValue("myTestContent"));
+    protonMsg.setSubject("myTestSubject");
+    protonMsg.setDurable(true);
+    protonMsg.setApplicationProperties(new ApplicationProperties(appProps));
+
+    translator.setIncludedSections(new HashSet<>(Arrays.asList(AmqpConstants.PROPERTIES,
+        AmqpConstants.APPLICATION_PROPERTIES)));
+
+    JsonObject eager = translator.convertToJsonObject(protonMsg);
+    JsonObject lazy = translator.convertToLazyJsonObject(protonMsg);
+
+    for (JsonObject jsonObject : Arrays.asList(eager, lazy)) {
+      assertEquals("unexpected number of elements", 2, jsonObject.size());
+      assertFalse("expected body element key not to be present", jsonObject.containsKey(AmqpConstants.BODY));
+      assertFalse("expected body_type element key not to be present", jsonObject.containsKey(AmqpConstants.BODY_TYPE));
+      assertFalse("expected header element key not to be present", jsonObject.containsKey(AmqpConstants.HEADER));
+      assertEquals("unexpected subject value", "myTestSubject",
+          jsonObject.getJsonObject(AmqpConstants.PROPERTIES).getString(AmqpConstants.PROPERTIES_SUBJECT));
+      assertEquals("unexpected application property value", "testPropValue",
+          jsonObject.getJsonObject(AmqpConstants.APPLICATION_PROPERTIES).getString("testPropKey"));
+    }
+
+    translator.setIncludedSections(null);
+    assertEquals("unexpected number of elements", 5, translator.convertToLazyJsonObject(protonMsg).size());
+  }
+
+  @Test
+  public void testAMQP_to_JSON_VerifyIdsAsStringsByDefault() {
+    UUID testUuid = UUID.randomUUID();
+
+    Message protonMsg = Proton.message();
+    protonMsg.setMessageId(UnsignedLong.valueOf(123));
+    protonMsg.setCorrelationId(testUuid);
+
+    JsonObject properties = translator.convertToJsonObject(protonMsg).getJsonObject(AmqpConstants.PROPERTIES);
+    assertEquals("unexpected message id value", "123", properties.getString(AmqpConstants.PROPERTIES_MESSAGE_ID));
+    assertFalse("expected message id type key not to be present",
+        properties.containsKey(AmqpConstants.PROPERTIES_MESSAGE_ID_TYPE));
+    assertEquals("unexpected correlation id value", testUuid.toString(),
+        properties.getString(AmqpConstants.PROPERTIES_CORRELATION_ID));
+    assertFalse("expected correlation id type key not to be present",
+        properties.containsKey(AmqpConstants.PROPERTIES_CORRELATION_ID_TYPE));
+  }
+
+  @Test
+  public void testJSON_to_AMQP_VerifyIdsAsStringsByDefault() {
+    UUID testUuid = UUID.randomUUID();
+
+    JsonObject jsonProps = new JsonObject();
+    jsonProps.put(AmqpConstants.PROPERTIES_MESSAGE_ID, "123");
+    jsonProps.put(AmqpConstants.PROPERTIES_CORRELATION_ID, testUuid.toString());
+
+    Message protonMsg = translator.convertToAmqpMessage(new JsonObject().put(AmqpConstants.PROPERTIES, jsonProps));
+    assertEquals("unexpected message id value", "123", protonMsg.getMessageId());
+    assertEquals("unexpected correlation id value", testUuid.toString(), protonMsg.getCorrelationId());
+
+    // An explicit type is still used
+    jsonProps.put(AmqpConstants.PROPERTIES_CORRELATION_ID_TYPE, AmqpConstants.ID_TYPE_UUID);
+    protonMsg = translator.convertToAmqpMessage(new JsonObject().put(AmqpConstants.PROPERTIES, jsonProps));
+    assertEquals("unexpected correlation id value", testUuid, protonMsg.getCorrelationId());
+  }
+
+  @Test
+  public void testAMQP_to_JSON_VerifyTypedIds() {
+    translator.setTypedIds(true);
+
+    UUID testUuid = UUID.randomUUID();
+    byte[] testBytes = new byte[] { 1, 2, 3 };
+
+    Message protonMsg = Proton.message();
+    protonMsg.setMessageId(UnsignedLong.valueOf(123));
+    protonMsg.setCorrelationId(testUuid);
+
+    JsonObject properties = translator.convertToJsonObject(protonMsg).getJsonObject(AmqpConstants.PROPERTIES);
+    assertEquals("unexpected message id value", Long.valueOf(123),
+        properties.getLong(AmqpConstants.PROPERTIES_MESSAGE_ID));
+    assertFalse("expected message id type key not to be present",
+        properties.containsKey(AmqpConstants.PROPERTIES_MESSAGE_ID_TYPE));
+    assertEquals("unexpected correlation id value", testUuid.toString(),
+        properties.getString(AmqpConstants.PROPERTIES_CORRELATION_ID));
+    assertEquals("unexpected correlation id type value", AmqpConstants.ID_TYPE_UUID,
+        properties.getString(AmqpConstants.PROPERTIES_CORRELATION_ID_TYPE));
+
+    protonMsg.setMessageId(new Binary(testBytes));
+    properties = translator.convertToJsonObject(protonMsg).getJsonObject(AmqpConstants.PROPERTIES);
+    assertArrayEquals("unexpected message id value", testBytes,
+        properties.getBinary(AmqpConstants.PROPERTIES_MESSAGE_ID));
+    assertEquals("unexpected message id type value", AmqpConstants.ID_TYPE_BINARY,
+        properties.getString(AmqpConstants.PROPERTIES_MESSAGE_ID_TYPE));
+  }
+
+  @Test
+  public void testJSON_to_AMQP_VerifyTypedIds() {
+    translator.setTypedIds(true);
+
+    UUID testUuid = UUID.randomUUID();
+    byte[] testBytes = new byte[] { 1, 2, 3 };
+
+    JsonObject jsonProps = new JsonObject();
+    jsonProps.put(AmqpConstants.PROPERTIES_MESSAGE_ID, 123L);
+    jsonProps.put(AmqpConstants.PROPERTIES_CORRELATION_ID, testUuid.toString());
+    jsonProps.put(AmqpConstants.PROPERTIES_CORRELATION_ID_TYPE, AmqpConstants.ID_TYPE_UUID);
+
+    Message protonMsg = translator.convertToAmqpMessage(new JsonObject().put(AmqpConstants.PROPERTIES, jsonProps));
+    assertEquals("unexpected message id value", UnsignedLong.valueOf(123), protonMsg.getMessageId());
+    assertEquals("unexpected correlation id value", testUuid, protonMsg.getCorrelationId());
+
+    jsonProps.put(AmqpConstants.PROPERTIES_MESSAGE_ID, testBytes);
+    jsonProps.put(AmqpConstants.PROPERTIES_MESSAGE_ID_TYPE, AmqpConstants.ID_TYPE_BINARY);
+    jsonProps.put(AmqpConstants.PROPERTIES_CORRELATION_ID, "123");
+    jsonProps.put(AmqpConstants.PROPERTIES_CORRELATION_ID_TYPE, AmqpConstants.ID_TYPE_STRING);
+
+    protonMsg = translator.convertToAmqpMessage(new JsonObject().put(AmqpConstants.PROPERTIES, jsonProps));
+    assertEquals("unexpected message id value", new Binary(testBytes), protonMsg.getMessageId());
+    assertEquals("unexpected correlation id value", "123", protonMsg.getCorrelationId());
+  }
+
+  @Test
+  public void testDeeplyNestedValuesTranslatedWithinLimit() {
+    int depth = 20000;
+    translator.setMaxNestingDepth(depth + 2);
+
+    List<Object> amqpList = new ArrayList<>();
+    Map<String, Object> amqpMap = new HashMap<>();
+    amqpMap.put("list", amqpList);
+    for (int i = 0; i < depth; i++) {
+      Map<String, Object> outer = new HashMap<>();
+      outer.put("nested", amqpMap);
+      amqpMap = outer;
+    }
+
+    Message protonMsg = Proton.message();
+    protonMsg.setBody(new AmqpValue(amqpMap));
+
+    JsonObject jsonObject = translator.convertToJsonObject(protonMsg);
+    JsonObject jsonMap = jsonObject.getJsonObject(AmqpConstants.BODY);
+    for (int i = 0; i < depth; i++) {
+      jsonMap = jsonMap.getJsonObject("nested");
+    }
+    assertEquals("unexpected innermost value", new JsonArray(), jsonMap.getJsonArray("list"));
+
+    Message converted = translator.convertToAmqpMessage(jsonObject);
+    Object convertedMap = ((AmqpValue) converted.getBody()).getValue();
+    for (int i = 0; i < depth; i++) {
+      convertedMap = ((Map<?, ?>) convertedMap).get("nested");
+    }
+    assertEquals("unexpected innermost value", amqpList, ((Map<?, ?>) convertedMap).get("list"));
+  }
+
+  @Test
+  public void testNestingDepthLimit() {
+    translator.setMaxNestingDepth(3);
+
+    JsonObject withinLimit = new JsonObject().put("a", new JsonObject().put("b", new JsonArray().add(1)));
+    JsonObject beyondLimit = new JsonObject().put("a", new JsonObject().put("b", new JsonArray().add(new JsonArray())));
+
+    translator.convertToAmqpMessage(new JsonObject().put(AmqpConstants.BODY, withinLimit));
+    try {
+      translator.convertToAmqpMessage(new JsonObject().put(AmqpConstants.BODY, beyondLimit));
+      fail("expected value to be rejected");
+    } catch (IllegalArgumentException iae) {
+      // Expected
+    }
+
+    // Received values are not limited
+    Message protonMsg = Proton.message();
+    protonMsg.setBody(new AmqpValue(Collections.singletonList(Collections.singletonList(
+        Collections.singletonList(Collections.emptyList())))));
+    JsonArray received = translator.convertToJsonObject(protonMsg).getJsonArray(AmqpConstants.BODY);
+    assertEquals("unexpected innermost value", new JsonArray(),
+        received.getJsonArray(0).getJsonArray(0).getJsonArray(0));
+  }
+
+  @Test
+  public void testElementCountLimit() {
+    translator.setMaxNestedElements(4);
+
+    JsonObject appProps = new JsonObject().put("within", new JsonArray().add(1).add(2).add(new JsonArray().add(3)));
+    translator.convertToAmqpMessage(new JsonObject().put(AmqpConstants.APPLICATION_PROPERTIES, appProps));
+
+    appProps.put("beyond", new JsonObject().put("a", 1).put("b", 2).put("c", 3).put("d", 4).put("e", 5));
+    try {
+      translator.convertToAmqpMessage(new JsonObject().put(AmqpConstants.APPLICATION_PROPERTIES, appProps));
+      fail("expected value to be rejected");
+    } catch (IllegalArgumentException iae) {
+      // Expected
+    }
+
+    // Received values are not limited
+    Message protonMsg = Proton.message();
+    protonMsg.setBody(new AmqpSequence(Arrays.asList(1, 2, 3, 4, 5)));
+    JsonArray received = translator.convertToJsonObject(protonMsg).getJsonArray(AmqpConstants.BODY);
+    assertEquals("unexpected number of elements", 5, received.size());
+  }
 }